@@ -17,6 +17,7 @@ public abstract class Bus extends Vehicle {
    * @param speed    speed of bus
    */
   public Bus(int id, Line line, int capacity, double speed) {
-    super(id, line, capacity, speed, new PassengerLoader(), new PassengerUnloader());
+    super(id, line, capacity, speed, new DestinationOrderedPassengerLoader(),
+        new DestinationOrderedPassengerUnloader());
   }
 }
@@ -58,6 +58,22 @@ public class ColorDecorator extends VehicleDecorator {
     this.alpha = alpha;
   }
 
+  public int getAlpha() {
+    return alpha;
+  }
+
+  public int getRed() {
+    return red;
+  }
+
+  public int getGreen() {
+    return green;
+  }
+
+  public int getBlue() {
+    return blue;
+  }
+
   /**
    * method to create json object for color.
    *
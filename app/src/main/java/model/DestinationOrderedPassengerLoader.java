@@ -0,0 +1,89 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Loads passengers so the vehicle's passengers stay ordered by destination.
+ * Passengers are kept from the highest destination stop id to the lowest, and
+ * passengers with the same destination keep the order they boarded in. Stop ids
+ * grow along a route, so the passengers getting off next are at the end of the
+ * list, where {@link DestinationOrderedPassengerUnloader} removes them.
+ */
+public class DestinationOrderedPassengerLoader extends PassengerLoader {
+
+  /**
+   * Loads a passenger at its place in destination order.
+   *
+   * @param newPassenger new passenger to be loaded
+   * @param maxPass      max number of passengers in the vehicle
+   * @param passengers   list of passengers, ordered by destination
+   * @return the number of passengers added
+   */
+  @Override
+  public int loadPassenger(Passenger newPassenger, int maxPass, List<Passenger> passengers) {
+    int addedPassengers = 0;
+    if (passengers.size() < maxPass) {
+      insert(newPassenger, passengers);
+      newPassenger.setOnVehicle();
+      addedPassengers = 1;
+    }
+    return addedPassengers;
+  }
+
+  /**
+   * Loads passengers from the front of a stop's waiting queue, each at its place
+   * in destination order.
+   *
+   * @param waitingPassengers passengers waiting at the stop
+   * @param maxPass           max number of passengers in the vehicle
+   * @param passengers        list of passengers on the vehicle, ordered by destination
+   * @param vehicleClock      clock of the vehicle
+   * @return the number of passengers added
+   */
+  @Override
+  public int loadPassengers(PassengerQueue waitingPassengers, int maxPass,
+                            List<Passenger> passengers, PassengerClock vehicleClock) {
+    int addedPassengers = Math.min(waitingPassengers.size(), maxPass - passengers.size());
+    if (addedPassengers <= 0) {
+      return 0;
+    }
+    for (int i = 0; i < addedPassengers; i++) {
+      Passenger newPassenger = waitingPassengers.get(i);
+      insert(newPassenger, passengers);
+      newPassenger.setOnVehicle();
+      newPassenger.startRiding(vehicleClock);
+    }
+    waitingPassengers.removeFirst(addedPassengers);
+    return addedPassengers;
+  }
+
+  /**
+   * Finds the first passenger whose destination is lower than the given one.
+   *
+   * @param passengers  list of passengers, ordered by destination
+   * @param destination destination stop id
+   * @return index of the first passenger with a lower destination, or the list size
+   */
+  static int indexOfFirstDestinationBelow(List<Passenger> passengers, int destination) {
+    int low = 0;
+    int high = passengers.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (passengers.get(middle).getDestination() >= destination) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  private static void insert(Passenger newPassenger, List<Passenger> passengers) {
+    int index = indexOfFirstDestinationBelow(passengers, newPassenger.getDestination());
+    if (index == passengers.size()) {
+      passengers.add(newPassenger);
+    } else {
+      passengers.add(index, newPassenger);
+    }
+  }
+}
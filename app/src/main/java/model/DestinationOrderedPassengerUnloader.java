@@ -0,0 +1,32 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Unloads passengers from a vehicle whose passengers are ordered by destination,
+ * as loaded by {@link DestinationOrderedPassengerLoader}.
+ * Only the passengers getting off are visited and no list is copied.
+ */
+public class DestinationOrderedPassengerUnloader extends PassengerUnloader {
+
+  /**
+   * Unloads passengers.
+   *
+   * @param passengers  list of passengers, ordered by destination
+   * @param currentStop Current stop
+   * @return number of passengers unloaded
+   */
+  @Override
+  public int unloadPassengers(List<Passenger> passengers, Stop currentStop) {
+    int stopId = currentStop.getId();
+    int end = DestinationOrderedPassengerLoader.indexOfFirstDestinationBelow(passengers, stopId);
+    int start = DestinationOrderedPassengerLoader.indexOfFirstDestinationBelow(passengers,
+        stopId + 1);
+    // removing from the back of the range leaves nothing to shift
+    // when the passengers getting off are at the end of the list
+    for (int i = end - 1; i >= start; i--) {
+      passengers.remove(i).leaveVehicle();
+    }
+    return end - start;
+  }
+}
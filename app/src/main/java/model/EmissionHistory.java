@@ -0,0 +1,157 @@
+package model;
+
+/**
+ * Keeps the most recent CO2 emissions of a vehicle in a fixed-size ring buffer,
+ * together with running aggregates over every emission recorded.
+ */
+public class EmissionHistory {
+
+  /** Number of recent emissions kept, as shown for an observed vehicle. */
+  public static final int DEFAULT_CAPACITY = 5;
+
+  private int[] recent;
+  private int newest;
+  private int size;
+  private long count;
+  private long total;
+  private int min;
+  private int max;
+
+  /** Constructor for an emission history keeping {@link #DEFAULT_CAPACITY} entries. */
+  public EmissionHistory() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Constructor for an emission history.
+   *
+   * @param capacity number of recent emissions kept
+   */
+  public EmissionHistory(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    this.recent = new int[capacity];
+    this.newest = -1;
+    this.size = 0;
+    this.count = 0;
+    this.total = 0;
+    this.min = 0;
+    this.max = 0;
+  }
+
+  /**
+   * Records the emission of a time step, replacing the oldest kept entry once full.
+   *
+   * @param emission CO2 emitted during the time step
+   */
+  public void add(int emission) {
+    newest++;
+    if (newest == recent.length) {
+      newest = 0;
+    }
+    recent[newest] = emission;
+    if (size < recent.length) {
+      size++;
+    }
+    if (count == 0 || emission < min) {
+      min = emission;
+    }
+    if (count == 0 || emission > max) {
+      max = emission;
+    }
+    count++;
+    total += emission;
+  }
+
+  /**
+   * Gets a recent emission, counting back from the newest.
+   *
+   * @param index 0 for the newest emission, 1 for the one before it, and so on
+   * @return the emission at that position
+   */
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    int position = newest - index;
+    if (position < 0) {
+      position += recent.length;
+    }
+    return recent[position];
+  }
+
+  /**
+   * Gets the number of recent emissions kept.
+   *
+   * @return int for the number of entries that can be read with {@link #get(int)}.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the number of emissions recorded over the vehicle's lifetime.
+   *
+   * @return long for the number of recorded emissions.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the total emission recorded over the vehicle's lifetime.
+   *
+   * @return long for the total emission.
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * Gets the lowest emission recorded.
+   *
+   * @return int for the lowest emission, or 0 if none was recorded.
+   */
+  public int getMin() {
+    return min;
+  }
+
+  /**
+   * Gets the highest emission recorded.
+   *
+   * @return int for the highest emission, or 0 if none was recorded.
+   */
+  public int getMax() {
+    return max;
+  }
+
+  /**
+   * Gets the mean emission per time step.
+   *
+   * @return double for the mean emission, or 0 if none was recorded.
+   */
+  public double getMean() {
+    if (count == 0) {
+      return 0;
+    }
+    return (double) total / count;
+  }
+
+  /**
+   * Formats the recent emissions, newest first, separated by commas.
+   *
+   * @return string of the recent emissions.
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        stringBuilder.append(", ");
+      }
+      stringBuilder.append(get(i));
+    }
+    return stringBuilder.toString();
+  }
+}
@@ -54,28 +54,18 @@ public class Line {
     out.println("====Line Info End====");
   }
 
-  /**
-   * Shallow copies a line.
-   * This method shallow copies a line as routes are shared
-   * across copied lines
-   *
-   * @return Copy of line
-   */
-  public Line shallowCopy() {
-    Line shallowCopy = new Line(this.id, this.name, this.type,
-        outboundRoute.shallowCopy(), inboundRoute.shallowCopy(), this.issue);
-    return shallowCopy;
-  }
-
   /**
    * Updates and generates passengers on both the routes in the line.
+   *
+   * @return number of passengers generated on the line during this update
    */
-  public void update() {
-    outboundRoute.update();
-    inboundRoute.update();
+  public int update() {
+    int passengersGenerated = outboundRoute.update();
+    passengersGenerated += inboundRoute.update();
     if (this.issue != null && !this.issue.isIssueResolved()) {
       this.issue.decrementCounter();
     }
+    return passengersGenerated;
   }
 
   /**
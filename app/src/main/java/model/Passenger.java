@@ -13,6 +13,9 @@ public class Passenger {
   private int destinationStopId;
   private int waitAtStop;
   private int timeOnVehicle;
+  private boolean onVehicle;
+  private PassengerClock clock;
+  private int clockMark;
 
   /**
    * Constructor for passenger.
@@ -25,10 +28,14 @@ public class Passenger {
     this.destinationStopId = destinationStopId;
     this.waitAtStop = 0;
     this.timeOnVehicle = 0;
+    this.onVehicle = false;
   }
 
   /**
-   * Updates time variables for passenger.
+   * Updates time variables for passenger by a single step.
+   * Stops and vehicles do not call this on every update; they advance their
+   * {@link PassengerClock} instead, see {@link #startWaiting(PassengerClock)} and
+   * {@link #startRiding(PassengerClock)}.
    */
   public void pasUpdate() {
     if (isOnVehicle()) {
@@ -44,7 +51,53 @@ public class Passenger {
    * @return boolean value: 1 for true, 0 for false.
    */
   public boolean isOnVehicle() {
-    return timeOnVehicle > 0;
+    return onVehicle;
+  }
+
+  /**
+   * Starts counting the steps waited at a stop using the stop's clock.
+   *
+   * @param stopClock clock of the stop the passenger arrived at
+   */
+  public void startWaiting(PassengerClock stopClock) {
+    settleClock();
+    clock = stopClock;
+    clockMark = stopClock.getTicks();
+  }
+
+  /**
+   * Starts counting the steps spent on a vehicle using the vehicle's clock.
+   * The passenger must already have been set onto the vehicle.
+   *
+   * @param vehicleClock clock of the vehicle the passenger boarded
+   */
+  public void startRiding(PassengerClock vehicleClock) {
+    settleClock();
+    clock = vehicleClock;
+    clockMark = vehicleClock.getTicks();
+  }
+
+  /**
+   * Stops counting the steps spent on a vehicle, when the passenger gets off.
+   */
+  public void leaveVehicle() {
+    settleClock();
+  }
+
+  /**
+   * Adds the steps counted by the current clock to the stored times and
+   * detaches the passenger from that clock.
+   */
+  private void settleClock() {
+    if (clock == null) {
+      return;
+    }
+    if (onVehicle) {
+      timeOnVehicle += clock.getTicks() - clockMark;
+    } else {
+      waitAtStop += clock.getTicks() - clockMark;
+    }
+    clock = null;
   }
 
   /**
@@ -56,8 +109,8 @@ public class Passenger {
     out.println("####Passenger Info Start####");
     out.println("Name: " + name);
     out.println("Destination: " + destinationStopId);
-    out.println("Wait at stop: " + waitAtStop);
-    out.println("Time on vehicle: " + timeOnVehicle);
+    out.println("Wait at stop: " + getWaitAtStop());
+    out.println("Time on vehicle: " + getTimeOnVehicle());
     out.println("####Passenger Info End####");
   }
 
@@ -67,6 +120,9 @@ public class Passenger {
    * @return int for number of steps waiting/waited at stop.
    */
   public int getWaitAtStop() {
+    if (clock != null && !onVehicle) {
+      return waitAtStop + clock.getTicks() - clockMark;
+    }
     return waitAtStop;
   }
 
@@ -76,6 +132,9 @@ public class Passenger {
    * @return int for number of steps on vehicle.
    */
   public int getTimeOnVehicle() {
+    if (clock != null && onVehicle) {
+      return timeOnVehicle + clock.getTicks() - clockMark;
+    }
     return timeOnVehicle;
   }
 
@@ -90,6 +149,8 @@ public class Passenger {
 
   /** Sets the passenger onto a vehicle. */
   public void setOnVehicle() {
+    settleClock();
+    onVehicle = true;
     timeOnVehicle = 1;
   }
 }
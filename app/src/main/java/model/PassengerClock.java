@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Counts the updates of a stop or vehicle.
+ * Passengers remember the clock value when they arrive at a stop or board a
+ * vehicle, so the time they spent there can be computed on demand instead of
+ * being incremented on every update.
+ */
+public class PassengerClock {
+
+  private int ticks;
+
+  /** Constructor for PassengerClock. */
+  public PassengerClock() {
+    this.ticks = 0;
+  }
+
+  /**
+   * Advances the clock by one update.
+   */
+  public void tick() {
+    ticks++;
+  }
+
+  /**
+   * Gets the number of updates counted so far.
+   *
+   * @return int for the number of updates.
+   */
+  public int getTicks() {
+    return ticks;
+  }
+}
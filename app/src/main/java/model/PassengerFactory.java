@@ -1,31 +1,45 @@
 package model;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * A factory class for creating Passenger objects.
  * Has methods for generating passengers with random or
  * deterministic names and destinations for testing purposes.
+ * Each factory instance draws from its own random stream, so simulations
+ * seeded with the same value generate the same passengers; the static methods
+ * draw from the random generator of the calling thread.
+ * In the deterministic test mode each factory instance cycles through the
+ * deterministic names and destinations with counters of its own, so factories
+ * used by different threads never share state; the static methods keep using
+ * the static counters.
  */
 public class PassengerFactory {
-  /** Variable added to make testing deterministic. */
+  /**
+   * Variable added to make testing deterministic.
+   * Applies to every factory in the JVM; seed the simulation instead to make
+   * a single simulation reproducible.
+   */
   public static boolean DETERMINISTIC = false;
 
   /** Deterministic set of names for testing purposes. */
   public static final String[] DETERMINISTIC_NAMES = {"Goldy", "President", "Coach"};
 
-  /** Deterministic names count. */
+  /** Deterministic names count of the static methods. */
   public static int DETERMINISTIC_NAMES_COUNT = 0;
 
-  /** Deterministic destination count. */
+  /** Deterministic destination count of the static methods. */
   public static int DETERMINISTIC_DESTINATION_COUNT = 0;
 
   private static final String[] namePrefix;
   private static final String[] nameSuffix;
   private static final String[] nameStemsArray;
 
-  private static Random rand;
-
+  private final SplittableRandom random;
+  private int deterministicNamesCount;
+  private int deterministicDestinationCount;
 
   static {
     namePrefix = new String[]{
@@ -49,7 +63,47 @@ public class PassengerFactory {
         "equi", "amora", "hum", "iace", "ille",
         "inept", "iuv", "obe", "ocul", "orbis"
     };
-    rand = new Random();
+  }
+
+  /**
+   * Constructor for a factory with its own random stream.
+   *
+   * @param random random stream of the factory, e.g., one split per route
+   */
+  public PassengerFactory(SplittableRandom random) {
+    this.random = random;
+  }
+
+  /**
+   * Creates a passenger from the random stream of this factory.
+   *
+   * @param currStop current stop
+   * @param lastStop Last stop
+   * @return Generated passenger
+   */
+  public Passenger createPassenger(int currStop, int lastStop) {
+    String newName = createName();
+    if (!DETERMINISTIC) {
+      return new Passenger(randomDestination(currStop, lastStop, random), newName);
+    }
+    int destination = ((deterministicDestinationCount + 1) % (lastStop - currStop))
+        + currStop + 1;
+    deterministicDestinationCount++;
+    return new Passenger(destination, newName);
+  }
+
+  /**
+   * Generates a name from the random stream of this factory.
+   *
+   * @return Name
+   */
+  public String createName() {
+    if (!DETERMINISTIC) {
+      return randomName(random);
+    }
+    String name = DETERMINISTIC_NAMES[deterministicNamesCount % DETERMINISTIC_NAMES.length];
+    deterministicNamesCount++;
+    return capitalize(name);
   }
 
   /**
@@ -68,30 +122,37 @@ public class PassengerFactory {
               + currStop + 1;
       PassengerFactory.DETERMINISTIC_DESTINATION_COUNT++;
     } else {
-      destination = ((rand.nextInt(1000) + 1) % (lastStop - currStop)) + currStop + 1;
+      destination = randomDestination(currStop, lastStop, ThreadLocalRandom.current());
     }
     return new Passenger(destination, newName);
   }
 
+  private static int randomDestination(int currStop, int lastStop, RandomGenerator rand) {
+    return ((rand.nextInt(1000) + 1) % (lastStop - currStop)) + currStop + 1;
+  }
+
   /**
    * Generates a name for the passenger.
    *
    * @return Name
    */
   public static String nameGeneration() {
-    String str = "";
     if (PassengerFactory.DETERMINISTIC) {
       int nameIndex =
           PassengerFactory.DETERMINISTIC_NAMES_COUNT % PassengerFactory.DETERMINISTIC_NAMES.length;
-      str = PassengerFactory.DETERMINISTIC_NAMES[nameIndex];
       PassengerFactory.DETERMINISTIC_NAMES_COUNT++;
-    } else {
-      str = namePrefix[(rand.nextInt(1000) + 1) % 7]
-          + nameStemsArray[(rand.nextInt(1000) + 1) % 20]
-          + nameSuffix[(rand.nextInt(1000) + 1) % 16];
+      return capitalize(PassengerFactory.DETERMINISTIC_NAMES[nameIndex]);
     }
-    // Capitalize the string
-    String cap = str.substring(0, 1).toUpperCase() + str.substring(1);
-    return cap;
+    return randomName(ThreadLocalRandom.current());
+  }
+
+  private static String randomName(RandomGenerator rand) {
+    return capitalize(namePrefix[(rand.nextInt(1000) + 1) % 7]
+        + nameStemsArray[(rand.nextInt(1000) + 1) % 20]
+        + nameSuffix[(rand.nextInt(1000) + 1) % 16]);
+  }
+
+  private static String capitalize(String str) {
+    return str.substring(0, 1).toUpperCase() + str.substring(1);
   }
 }
@@ -32,4 +32,31 @@ public class PassengerLoader {
     }
     return addedPassengers;
   }
+
+  /**
+   * Loads passengers from the front of a stop's waiting queue in one operation.
+   * Passengers board in the order they arrived until the vehicle is full, and
+   * their time on the vehicle is counted on the vehicle's clock.
+   *
+   * @param waitingPassengers passengers waiting at the stop
+   * @param maxPass           max number of passengers in the vehicle
+   * @param passengers        list of passengers on the vehicle
+   * @param vehicleClock      clock of the vehicle
+   * @return the number of passengers added
+   */
+  public int loadPassengers(PassengerQueue waitingPassengers, int maxPass,
+                            List<Passenger> passengers, PassengerClock vehicleClock) {
+    int addedPassengers = Math.min(waitingPassengers.size(), maxPass - passengers.size());
+    if (addedPassengers <= 0) {
+      return 0;
+    }
+    for (int i = 0; i < addedPassengers; i++) {
+      Passenger newPassenger = waitingPassengers.get(i);
+      passengers.add(newPassenger);
+      newPassenger.setOnVehicle();
+      newPassenger.startRiding(vehicleClock);
+    }
+    waitingPassengers.removeFirst(addedPassengers);
+    return addedPassengers;
+  }
 }
@@ -0,0 +1,169 @@
+package model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+
+/**
+ * First-in, first-out queue of passengers waiting at a stop.
+ * Passengers are kept in a ring buffer, so adding at the back and removing
+ * boarding passengers from the front does not shift the rest of the queue.
+ */
+public class PassengerQueue extends AbstractList<Passenger> {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private Passenger[] elements;
+  private int head;
+  private int size;
+
+  /** Constructor for an empty passenger queue. */
+  public PassengerQueue() {
+    elements = new Passenger[INITIAL_CAPACITY];
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Gets the passenger at a position in the queue.
+   *
+   * @param index position from the front of the queue
+   * @return the passenger at that position
+   */
+  @Override
+  public Passenger get(int index) {
+    checkIndex(index, size);
+    return elements[physicalIndex(index)];
+  }
+
+  /**
+   * Replaces the passenger at a position in the queue.
+   *
+   * @param index     position from the front of the queue
+   * @param passenger passenger to store
+   * @return the passenger previously at that position
+   */
+  @Override
+  public Passenger set(int index, Passenger passenger) {
+    checkIndex(index, size);
+    int position = physicalIndex(index);
+    Passenger previous = elements[position];
+    elements[position] = passenger;
+    return previous;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds a passenger at the back of the queue.
+   *
+   * @param passenger passenger to add
+   * @return always true
+   */
+  @Override
+  public boolean add(Passenger passenger) {
+    ensureCapacity(size + 1);
+    elements[physicalIndex(size)] = passenger;
+    size++;
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Inserts a passenger at a position in the queue.
+   * Inserting anywhere but the back shifts the passengers behind it.
+   *
+   * @param index     position from the front of the queue
+   * @param passenger passenger to insert
+   */
+  @Override
+  public void add(int index, Passenger passenger) {
+    checkIndex(index, size + 1);
+    ensureCapacity(size + 1);
+    for (int i = size; i > index; i--) {
+      elements[physicalIndex(i)] = elements[physicalIndex(i - 1)];
+    }
+    elements[physicalIndex(index)] = passenger;
+    size++;
+    modCount++;
+  }
+
+  /**
+   * Removes the passenger at a position in the queue.
+   * Removing anywhere but the front shifts the passengers behind it.
+   *
+   * @param index position from the front of the queue
+   * @return the removed passenger
+   */
+  @Override
+  public Passenger remove(int index) {
+    checkIndex(index, size);
+    Passenger removed = elements[physicalIndex(index)];
+    if (index == 0) {
+      removeFirst(1);
+      return removed;
+    }
+    for (int i = index; i < size - 1; i++) {
+      elements[physicalIndex(i)] = elements[physicalIndex(i + 1)];
+    }
+    elements[physicalIndex(size - 1)] = null;
+    size--;
+    modCount++;
+    return removed;
+  }
+
+  /**
+   * Removes passengers from the front of the queue.
+   *
+   * @param count number of passengers to remove
+   */
+  public void removeFirst(int count) {
+    if (count < 0 || count > size) {
+      throw new IndexOutOfBoundsException("Count: " + count + ", Size: " + size);
+    }
+    for (int i = 0; i < count; i++) {
+      elements[physicalIndex(i)] = null;
+    }
+    head = physicalIndex(count);
+    size -= count;
+    if (size == 0) {
+      head = 0;
+    }
+    modCount++;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(elements, null);
+    head = 0;
+    size = 0;
+    modCount++;
+  }
+
+  private int physicalIndex(int index) {
+    int position = head + index;
+    if (position >= elements.length) {
+      position -= elements.length;
+    }
+    return position;
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= elements.length) {
+      return;
+    }
+    Passenger[] grown = new Passenger[Math.max(capacity, elements.length * 2)];
+    for (int i = 0; i < size; i++) {
+      grown[i] = elements[physicalIndex(i)];
+    }
+    elements = grown;
+    head = 0;
+  }
+
+  private static void checkIndex(int index, int bound) {
+    if (index < 0 || index >= bound) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+    }
+  }
+}
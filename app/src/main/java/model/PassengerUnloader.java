@@ -21,6 +21,7 @@ public class PassengerUnloader {
     List<Passenger> copyList = new ArrayList<>();
     for (Passenger p : passengers) {
       if (p.getDestination() == currentStop.getId()) {
+        p.leaveVehicle();
         passengersUnloaded++;
       } else {
         copyList.add(p);
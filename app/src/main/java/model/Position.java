@@ -36,4 +36,27 @@ public class Position {
     return latitude;
   }
 
+  /**
+   * Checks if another object is a position with the same coordinates.
+   *
+   * @param other object to compare with.
+   * @return true if both positions have the same longitude and latitude.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof Position)) {
+      return false;
+    }
+    Position position = (Position) other;
+    return Double.compare(longitude, position.longitude) == 0
+        && Double.compare(latitude, position.latitude) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Double.hashCode(longitude) + Double.hashCode(latitude);
+  }
 }
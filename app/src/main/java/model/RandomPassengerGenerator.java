@@ -1,77 +1,176 @@
 package model;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A passenger generator that uses random probabilities to generate passengers
  * at stops along a route. Randomness can be made deterministic for testing.
+ * Each generator owns a random stream, which also creates its passengers, so
+ * generators of different routes never share a random number generator.
+ * The number of arrivals at each stop is drawn from a table computed when the
+ * generator is created.
  */
 public class RandomPassengerGenerator extends PassengerGenerator {
 
-  /** Variables to make testing deterministic. */
+  /**
+   * Variables to make testing deterministic.
+   * Applies to every generator in the JVM; seed the simulation instead to
+   * make a single simulation reproducible.
+   */
   public static boolean DETERMINISTIC = false;
 
   /** Deterministic probability value for testing. */
   public static final double DETERMINISTIC_VALUE = 0.1;
 
+  private final SplittableRandom random;
+  private final PassengerFactory passengerFactory;
+  private int[] planStopCounts;
+  private int[] planStopIndices;
+  private int[] deterministicArrivals;
+  private double[][] arrivalsAtLeast;
+
   /**
    * Constructs a RandomPassengerGenerator with specified stops
-   * and passenger generation probabilities.
+   * and passenger generation probabilities, and an unseeded random stream.
    *
    * @param stops list of stops where passengers may be generated
    * @param probabilities list of probabilities corresponding to each stop
    */
   public RandomPassengerGenerator(List<Stop> stops, List<Double> probabilities) {
+    this(stops, probabilities, new SplittableRandom());
+  }
+
+  /**
+   * Constructs a RandomPassengerGenerator with specified stops,
+   * passenger generation probabilities and random stream.
+   *
+   * @param stops list of stops where passengers may be generated
+   * @param probabilities list of probabilities corresponding to each stop
+   * @param random random stream used only by this generator
+   */
+  public RandomPassengerGenerator(List<Stop> stops, List<Double> probabilities,
+                                  SplittableRandom random) {
     super(stops, probabilities);
+    this.random = random;
+    this.passengerFactory = new PassengerFactory(random);
+    createPlan();
   }
 
   /**
    * Generates Passengers.
-   * This method uses the route's passenger generation probabilities
-   * per stop to determine how many passengers to create.
    * Each probability is a double, i.e., .90 for a 90% probability of
    * a passenger arriving at a stop for this vehicle route.
-   * While the probability is greater than .0001 (.01%), we attempt to generate passengers.
-   * Each time, we multiply the probability by itself, redoing the likelihood
-   * of additional passengers each time.
-   * This controls for multiple passengers arriving at a given time.
-   * Once the probability drops below .0001, we end our generation cycle for the stop.
+   * A stop makes one attempt per power of its probability that is greater
+   * than .0001 (.01%), so multiple passengers can arrive at a given time.
+   * The attempts are independent, so the number of arrivals follows the
+   * distribution precomputed in the plan, which takes one random draw per
+   * stop instead of one per attempt.
    *
    * @return number of generated passengers
    */
   public int generatePassengers() {
     int passengersAdded = 0;
+    int lastStopIndex = this.getStops().get(this.getStops().size() - 1).getId();
+    for (int i = 0; i < planStopCounts.length; i++) {
+      int arrivals;
+      if (RandomPassengerGenerator.DETERMINISTIC) {
+        arrivals = deterministicArrivals[i];
+      } else {
+        double generationValue = this.giveProb();
+        double[] atLeast = arrivalsAtLeast[i];
+        arrivals = 0;
+        while (arrivals < atLeast.length && generationValue < atLeast[arrivals]) {
+          arrivals++;
+        }
+      }
+      Stop stop = this.getStops().get(planStopCounts[i]);
+      for (int j = 0; j < arrivals; j++) {
+        Passenger p = passengerFactory.createPassenger(planStopIndices[i], lastStopIndex);
+        passengersAdded += stop.addPassengers(p);
+      }
+    }
+    return passengersAdded;
+  }
+
+  /**
+   * Precomputes the arrival distribution of every stop that can generate
+   * passengers. Stops whose probability is at most .0001 and the last stop
+   * of the route are left out.
+   */
+  private void createPlan() {
+    List<Integer> stopCounts = new ArrayList<Integer>();
+    List<Integer> stopIndices = new ArrayList<Integer>();
+    List<Integer> deterministicCounts = new ArrayList<Integer>();
+    List<double[]> tables = new ArrayList<double[]>();
     int probSize = getProbabilities().size();
     int stopSize = this.getStops().size();
-    int stopIndex = this.getStops().get(0).getId();
-    int lastStopIndex = this.getStops().get(this.getStops().size() - 1).getId();
-    int probCount = 0;
-    int stopCount = 0;
-    while (probCount < probSize && stopCount < stopSize) {
-      // Get this stop's probability
-      double initialGenerationProbability = getProbabilities().get(probCount);
-      double currentGenerationProbability = initialGenerationProbability;
-      // while there is still a (>.01%) chance of generating a passenger, try
-      while (currentGenerationProbability > 0.0001 && stopIndex != lastStopIndex) {
-        // Generate a random double value
-        double generationValue = 0;
-        if (RandomPassengerGenerator.DETERMINISTIC) {
-          generationValue = RandomPassengerGenerator.DETERMINISTIC_VALUE;
-        } else {
-          generationValue = this.giveProb();
+    if (stopSize > 0) {
+      int stopIndex = this.getStops().get(0).getId();
+      int lastStopIndex = this.getStops().get(stopSize - 1).getId();
+      for (int stopCount = 0; stopCount < probSize && stopCount < stopSize;
+           stopCount++, stopIndex++) {
+        double initialGenerationProbability = getProbabilities().get(stopCount);
+        if (initialGenerationProbability <= 0.0001 || stopIndex == lastStopIndex) {
+          continue;
         }
-        if (generationValue < currentGenerationProbability) {
-          Passenger p = PassengerFactory.generate(stopIndex, lastStopIndex);
-          passengersAdded += this.getStops().get(stopCount).addPassengers(p);
+        if (initialGenerationProbability >= 1) {
+          throw new IllegalArgumentException(
+              "Passenger generation probability must be below 1: "
+              + initialGenerationProbability);
         }
-        currentGenerationProbability *= initialGenerationProbability;
+        List<Double> attempts = new ArrayList<Double>();
+        int deterministicCount = 0;
+        double currentGenerationProbability = initialGenerationProbability;
+        while (currentGenerationProbability > 0.0001) {
+          attempts.add(currentGenerationProbability);
+          if (DETERMINISTIC_VALUE < currentGenerationProbability) {
+            deterministicCount++;
+          }
+          currentGenerationProbability *= initialGenerationProbability;
+        }
+        stopCounts.add(stopCount);
+        stopIndices.add(stopIndex);
+        deterministicCounts.add(deterministicCount);
+        tables.add(getArrivalsAtLeast(attempts));
       }
-      stopIndex++;
-      probCount++;
-      stopCount++;
     }
-    return passengersAdded;
+    planStopCounts = new int[stopCounts.size()];
+    planStopIndices = new int[stopCounts.size()];
+    deterministicArrivals = new int[stopCounts.size()];
+    arrivalsAtLeast = tables.toArray(new double[0][]);
+    for (int i = 0; i < planStopCounts.length; i++) {
+      planStopCounts[i] = stopCounts.get(i);
+      planStopIndices[i] = stopIndices.get(i);
+      deterministicArrivals[i] = deterministicCounts.get(i);
+    }
+  }
+
+  /**
+   * Computes the probability of at least k + 1 arrivals, for every k, from
+   * the success probabilities of independent attempts.
+   *
+   * @param attempts success probability of each attempt
+   * @return table whose entry k is the probability of more than k arrivals
+   */
+  static double[] getArrivalsAtLeast(List<Double> attempts) {
+    double[] exactly = new double[attempts.size() + 1];
+    exactly[0] = 1;
+    for (int i = 0; i < attempts.size(); i++) {
+      double attempt = attempts.get(i);
+      for (int k = i + 1; k > 0; k--) {
+        exactly[k] = exactly[k] * (1 - attempt) + exactly[k - 1] * attempt;
+      }
+      exactly[0] *= 1 - attempt;
+    }
+    double[] atLeast = new double[attempts.size()];
+    double tail = 0;
+    for (int k = attempts.size(); k > 0; k--) {
+      tail += exactly[k];
+      atLeast[k - 1] = tail;
+    }
+    return atLeast;
   }
 
   /**
@@ -80,8 +179,6 @@ public class RandomPassengerGenerator extends PassengerGenerator {
    * @return a double value.
    */
   protected double giveProb() {
-    Random rand = new Random();
-
-    return rand.nextDouble();
+    return random.nextDouble();
   }
 }
\ No newline at end of file
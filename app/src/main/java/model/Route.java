@@ -7,15 +7,14 @@ import java.util.List;
 
 /**
  * Represents a route that contains a sequence of stops along a transit line.
- * Each route can generate passengers and keeps track of its progress along stops.
+ * Routes are shared by every vehicle on their line, and each vehicle tracks its
+ * own progress along them, see {@link TripCursor}.
  */
 public class Route {
   private int id;
   private String name;
   private List<Stop> stops = new ArrayList<Stop>();
-  private List<Double> distances = new ArrayList<Double>();
-  private int nextStopIndex;
-  private Stop nextStop;
+  private RouteGeometry geometry;
   private PassengerGenerator generator;
 
   /**
@@ -29,50 +28,41 @@ public class Route {
    */
   public Route(int id, String name, List<Stop> stops,
                List<Double> distances, PassengerGenerator generator) {
-    this.id = id;
-    this.name = name;
-    for (int i = 0; i < stops.size(); i++) {
-      this.stops.add(stops.get(i));
-    }
-    for (int i = 0; i < stops.size() - 1; i++) {
-      this.distances.add(distances.get(i));
-    }
-    this.generator = generator;
-    this.nextStopIndex = 0;
-    this.nextStop = stops.get(0);
-
+    this(id, name, stops, new RouteGeometry(stops, distances), generator);
   }
 
   /**
-   * Shallow copies a route.
-   * This method shallow copies a route as stops are shared
-   * across copied routes
+   * Route constructor with precompiled geometry.
    *
-   * @return Copy of route
+   * @param id        identifier for route
+   * @param name      name of route
+   * @param stops     stops on this route
+   * @param geometry  coordinates and distances of the stops of this route
+   * @param generator Passenger generating object
    */
-  public Route shallowCopy() {
-    List<Stop> stops = new ArrayList<Stop>();
-    for (int i = 0; i < this.stops.size(); i++) {
-      stops.add(this.stops.get(i));
-    }
-    List<Double> distances = new ArrayList<Double>();
-    for (int i = 0; i < this.stops.size() - 1; i++) {
-      distances.add(this.distances.get(i));
+  public Route(int id, String name, List<Stop> stops,
+               RouteGeometry geometry, PassengerGenerator generator) {
+    this.id = id;
+    this.name = name;
+    for (int i = 0; i < stops.size(); i++) {
+      this.stops.add(stops.get(i));
     }
-    Route shallowCopy = new Route(this.id, this.name, stops,
-        distances, this.generator);
-    return shallowCopy;
+    this.geometry = geometry;
+    this.generator = generator;
   }
 
   /**
    * Updates and generates passengers on the route.
+   *
+   * @return number of passengers generated during this update
    */
-  public void update() {
-    generateNewPassengers();
+  public int update() {
+    int passengersGenerated = generateNewPassengers();
     Iterator<Stop> stopIter = this.stops.iterator();
     while (stopIter.hasNext()) {
       stopIter.next().update();
     }
+    return passengersGenerated;
   }
 
   /**
@@ -85,82 +75,16 @@ public class Route {
     out.println("ID: " + this.id);
     out.println("Name: " + this.name);
     out.println("Num stops: " + this.stops.size());
-    int stopCounter = 0;
     Iterator<Stop> stopIter = this.stops.iterator();
     out.println("****Stops Info Start****");
     //calling all Stop's report methods
     while (stopIter.hasNext()) {
-      if (stopCounter == this.nextStopIndex) {
-        out.println("++++Next Stop Info Start++++");
-      }
       stopIter.next().report(out);
-      if (stopCounter == this.nextStopIndex) {
-        out.println("++++Next Stop Info End++++");
-      }
-      stopCounter++;
     }
     out.println("****Stops Info End****");
     out.println("####Route Info End####");
   }
 
-  /**
-   * Checks if a vehicle is at the end of either an inbound or outbound route.
-   *
-   * @return boolean value for if route is completed.
-   */
-  public boolean isAtEnd() {
-    return nextStopIndex >= stops.size();
-  }
-
-  /**
-   * Returns previous stop.
-   *
-   * @return previous stop
-   */
-  public Stop prevStop() {
-    if (nextStopIndex == 0) {
-      return this.stops.get(0);
-    } else if (nextStopIndex < stops.size()) {
-      return this.stops.get(nextStopIndex - 1);
-    } else {
-      return this.stops.get(stops.size() - 1);
-    }
-  }
-
-  /**
-   * Updates nextStop to next stop.
-   */
-  public void nextStop() {
-    nextStopIndex++;
-    if (nextStopIndex < stops.size()) {
-      nextStop = stops.get(nextStopIndex);
-    } else {
-      nextStop = stops.get(stops.size() - 1);
-    }
-  }
-
-  /**
-   * Returns next stop.
-   *
-   * @return next Stop
-   */
-  public Stop getNextStop() {
-    return nextStop;
-  }
-
-  /**
-   * Computes distance to next stop.
-   *
-   * @return distance
-   */
-  public Double getNextStopDistance() {
-    if (nextStopIndex > 0) {
-      return distances.get(nextStopIndex - 1);
-    } else {
-      return 0.0;
-    }
-  }
-
   /**
    * Returns and generates passengers.
    *
@@ -199,18 +123,11 @@ public class Route {
   }
 
   /**
-   * Gets the index position of the next stop on the stop list.
+   * Gets the precompiled geometry of the route.
    *
-   * @return int of the next stop's index position.
+   * @return geometry of the route.
    */
-  public int getNextStopIndex() {
-    return nextStopIndex;
-  }
-
-  // -------------------------------------------------------------------------
-  // Methods used ONLY for testing purposes. NOT to be used outside of tests.
-  // -------------------------------------------------------------------------
-  void setNextStopIndex(int nextStopIndex) {
-    this.nextStopIndex = nextStopIndex;
+  public RouteGeometry getGeometry() {
+    return geometry;
   }
 }
@@ -0,0 +1,93 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Immutable geometry of a route, compiled once when the route is built.
+ * Holds the stop coordinates and the distances between them in primitive
+ * arrays, so positions can be computed without looking up stops or unboxing
+ * distances. Stops of a route are numbered by their index on the route.
+ */
+public class RouteGeometry {
+
+  private final double[] longitudes;
+  private final double[] latitudes;
+  private final double[] segmentLengths;
+
+  /**
+   * Constructor for route geometry.
+   *
+   * @param stops     stops of the route, in order
+   * @param distances distances between subsequent stops of the route
+   */
+  public RouteGeometry(List<Stop> stops, List<Double> distances) {
+    int numStops = stops.size();
+    this.longitudes = new double[numStops];
+    this.latitudes = new double[numStops];
+    this.segmentLengths = new double[Math.max(0, numStops - 1)];
+    for (int i = 0; i < numStops; i++) {
+      longitudes[i] = stops.get(i).getPosition().getLongitude();
+      latitudes[i] = stops.get(i).getPosition().getLatitude();
+      if (i > 0) {
+        segmentLengths[i - 1] = distances.get(i - 1);
+      }
+    }
+  }
+
+  /**
+   * Constructor for route geometry that was compiled before.
+   *
+   * @param longitudes     longitudes of the stops, in order
+   * @param latitudes      latitudes of the stops, in order
+   * @param segmentLengths distances between subsequent stops of the route
+   */
+  public RouteGeometry(double[] longitudes, double[] latitudes, double[] segmentLengths) {
+    int numStops = longitudes.length;
+    if (latitudes.length != numStops || segmentLengths.length != Math.max(0, numStops - 1)) {
+      throw new IllegalArgumentException("Coordinates and segments of " + numStops
+          + " stops do not match");
+    }
+    this.longitudes = longitudes.clone();
+    this.latitudes = latitudes.clone();
+    this.segmentLengths = segmentLengths.clone();
+  }
+
+  /**
+   * Gets the number of stops on the route.
+   *
+   * @return int for the number of stops.
+   */
+  public int getNumStops() {
+    return longitudes.length;
+  }
+
+  /**
+   * Gets the longitude of a stop.
+   *
+   * @param stopIndex index of the stop on the route
+   * @return double value for longitude.
+   */
+  public double getLongitude(int stopIndex) {
+    return longitudes[stopIndex];
+  }
+
+  /**
+   * Gets the latitude of a stop.
+   *
+   * @param stopIndex index of the stop on the route
+   * @return double value for latitude.
+   */
+  public double getLatitude(int stopIndex) {
+    return latitudes[stopIndex];
+  }
+
+  /**
+   * Gets the distance between a stop and the stop after it.
+   *
+   * @param stopIndex index of the stop on the route
+   * @return distance to the next stop.
+   */
+  public double getSegmentLength(int stopIndex) {
+    return segmentLengths[stopIndex];
+  }
+}
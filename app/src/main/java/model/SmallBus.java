@@ -40,7 +40,7 @@ public class SmallBus extends Bus {
     out.println("Name: " + getName());
     out.println("Speed: " + getSpeed());
     out.println("Capacity: " + getCapacity());
-    out.println("Position: " + (getPosition().getLatitude() + "," + getPosition().getLongitude()));
+    out.println("Position: " + (getLatitude() + "," + getLongitude()));
     out.println("Distance to next stop: " + getDistanceRemaining());
     out.println("****Passengers Info Start****");
     out.println("Num of passengers: " + getPassengers().size());
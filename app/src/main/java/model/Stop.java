@@ -1,7 +1,6 @@
 package model;
 
 import java.io.PrintStream;
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
@@ -13,7 +12,8 @@ public class Stop {
   private int id;
   private String name;
   private Position position;
-  private List<Passenger> passengers;
+  private PassengerQueue passengers;
+  private PassengerClock clock;
 
   /**
    * Constructor for a stop.
@@ -26,8 +26,8 @@ public class Stop {
     this.id = id;
     this.name = name;
     this.position = position;
-    passengers = new ArrayList<>();
-
+    passengers = new PassengerQueue();
+    clock = new PassengerClock();
   }
 
   /**
@@ -37,13 +37,7 @@ public class Stop {
    * @return number of loaded passengers
    */
   public int loadPassengers(Vehicle vehicle) {
-    int passengersAdded = 0;
-    while (!passengers.isEmpty() && vehicle.loadPassenger(passengers.get(0)) > 0) {
-      // passenger is on the vehicle and passenger have left the stop
-      passengers.remove(0);
-      passengersAdded++;
-    }
-    return passengersAdded;
+    return vehicle.loadPassengers(passengers);
   }
 
   /**
@@ -59,18 +53,18 @@ public class Stop {
     //  used as a flag: 0 - fail; 1 - pass
     int passengersAddedToStop = 0;
     passengers.add(pass);
+    pass.startWaiting(clock);
     passengersAddedToStop++;
     return passengersAddedToStop;
   }
 
   /**
    * Updates stop.
+   * Waiting passengers read their wait from the stop's clock, so they are not
+   * visited here.
    */
   public void update() {
-    Iterator<Passenger> passIter = passengers.iterator();
-    while (passIter.hasNext()) {
-      passIter.next().pasUpdate();
-    }
+    clock.tick();
   }
 
   /**
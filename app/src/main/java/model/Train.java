@@ -19,6 +19,7 @@ public abstract class Train extends Vehicle {
    * @param speed    speed of the train
    */
   public Train(int id, Line line, int capacity, double speed) {
-    super(id, line, capacity, speed, new PassengerLoader(), new PassengerUnloader());
+    super(id, line, capacity, speed, new DestinationOrderedPassengerLoader(),
+        new DestinationOrderedPassengerUnloader());
   }
 }
@@ -0,0 +1,93 @@
+package model;
+
+/**
+ * Tracks a vehicle's progress along the routes of its line.
+ * The line and its routes are shared by every vehicle running on it; each
+ * vehicle only keeps the direction it is travelling in and the index of the
+ * next stop on that route.
+ */
+public class TripCursor {
+
+  private Line line;
+  private boolean inbound;
+  private int nextStopIndex;
+
+  /**
+   * Constructor for a cursor at the first stop of the line's outbound route.
+   *
+   * @param line line the trip runs on
+   */
+  public TripCursor(Line line) {
+    this.line = line;
+    this.inbound = false;
+    this.nextStopIndex = 0;
+  }
+
+  /**
+   * Gets the route the trip is currently on.
+   *
+   * @return the outbound route until it is finished, then the inbound route.
+   */
+  public Route getRoute() {
+    if (inbound) {
+      return line.getInboundRoute();
+    }
+    return line.getOutboundRoute();
+  }
+
+  /**
+   * Checks if the trip has passed the last stop of the inbound route.
+   *
+   * @return boolean showing if the trip is complete.
+   */
+  public boolean isTripComplete() {
+    return inbound && nextStopIndex >= line.getInboundRoute().getStops().size();
+  }
+
+  /**
+   * Gets the next stop of the trip.
+   *
+   * @return the next stop, or null if the trip is complete.
+   */
+  public Stop getNextStop() {
+    if (isTripComplete()) {
+      return null;
+    }
+    return getRoute().getStops().get(nextStopIndex);
+  }
+
+  /**
+   * Gets the distance from the previous stop to the next stop.
+   *
+   * @return distance, or 0 at the first stop of a route.
+   */
+  public double getNextStopDistance() {
+    if (nextStopIndex > 0) {
+      return getRoute().getGeometry().getSegmentLength(nextStopIndex - 1);
+    }
+    return 0;
+  }
+
+  /**
+   * Moves the cursor to the following stop, switching to the inbound route
+   * after the last stop of the outbound route.
+   */
+  public void advance() {
+    if (isTripComplete()) {
+      return;
+    }
+    nextStopIndex++;
+    if (!inbound && nextStopIndex >= line.getOutboundRoute().getStops().size()) {
+      inbound = true;
+      nextStopIndex = 0;
+    }
+  }
+
+  public boolean isInbound() {
+    return inbound;
+  }
+
+  public int getNextStopIndex() {
+    return nextStopIndex;
+  }
+}
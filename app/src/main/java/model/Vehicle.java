@@ -20,12 +20,15 @@ public abstract class Vehicle implements VehicleInterface {
   private PassengerLoader loader;
   private PassengerUnloader unloader;
   private List<Passenger> passengers;
+  private PassengerClock passengerClock;
   private String name;
-  private Position position;
+  private double longitude;
+  private double latitude;
   private Line line;
+  private TripCursor tripCursor;
   private double distanceRemaining;
   private Stop nextStop;
-  private List<Integer> carbonEmissionHistory;
+  private EmissionHistory carbonEmissionHistory;
   private VehicleConcreteSubject vehicleConcreteSubject;
   private Color color;
 
@@ -47,13 +50,15 @@ public abstract class Vehicle implements VehicleInterface {
     this.loader = loader;
     this.unloader = unloader;
     this.passengers = new ArrayList<Passenger>();
+    this.passengerClock = new PassengerClock();
     this.line = line;
+    this.tripCursor = new TripCursor(line);
     this.distanceRemaining = 0;
-    this.nextStop = line.getOutboundRoute().getNextStop();
+    this.nextStop = tripCursor.getNextStop();
     setName(line.getOutboundRoute().getName() + id);
-    setPosition(new Position(nextStop.getPosition().getLongitude(),
-        nextStop.getPosition().getLatitude()));
-    carbonEmissionHistory = new ArrayList<Integer>();
+    this.longitude = nextStop.getPosition().getLongitude();
+    this.latitude = nextStop.getPosition().getLatitude();
+    carbonEmissionHistory = new EmissionHistory();
   }
 
   /**
@@ -69,7 +74,7 @@ public abstract class Vehicle implements VehicleInterface {
    * @return boolean showing if the vehicle has finished its routes.
    */
   public boolean isTripComplete() {
-    return line.getOutboundRoute().isAtEnd() && line.getInboundRoute().isAtEnd();
+    return tripCursor.isTripComplete();
   }
 
   /**
@@ -79,7 +84,23 @@ public abstract class Vehicle implements VehicleInterface {
    * @return the number of passengers added.
    */
   public int loadPassenger(Passenger newPassenger) {
-    return getPassengerLoader().loadPassenger(newPassenger, getCapacity(), getPassengers());
+    int passengersAdded = getPassengerLoader().loadPassenger(newPassenger, getCapacity(),
+        getPassengers());
+    if (passengersAdded > 0) {
+      newPassenger.startRiding(passengerClock);
+    }
+    return passengersAdded;
+  }
+
+  /**
+   * Loads passengers waiting at a stop onto the vehicle, up to its capacity.
+   *
+   * @param waitingPassengers passengers waiting at the stop, in arrival order.
+   * @return the number of passengers added.
+   */
+  public int loadPassengers(PassengerQueue waitingPassengers) {
+    return getPassengerLoader().loadPassengers(waitingPassengers, getCapacity(),
+        getPassengers(), passengerClock);
   }
 
   /**
@@ -101,16 +122,14 @@ public abstract class Vehicle implements VehicleInterface {
     }
 
     // Get the correct route and early exit
-    Route currentRoute = line.getOutboundRoute();
-    if (line.getOutboundRoute().isAtEnd()) {
-      if (line.getInboundRoute().isAtEnd()) {
-        return;
-      }
-      currentRoute = line.getInboundRoute();
+    if (isTripComplete()) {
+      return;
     }
-    Stop prevStop = currentRoute.prevStop();
-    Stop nextStop = currentRoute.getNextStop();
-    double distanceBetween = currentRoute.getNextStopDistance();
+    // read the stops' coordinates and distance from the precompiled geometry
+    RouteGeometry geometry = tripCursor.getRoute().getGeometry();
+    int nextStopIndex = tripCursor.getNextStopIndex();
+    int prevStopIndex = nextStopIndex == 0 ? 0 : nextStopIndex - 1;
+    double distanceBetween = nextStopIndex == 0 ? 0 : geometry.getSegmentLength(prevStopIndex);
     // the ratio shows us how far from the previous stop are we in a ratio from 0 to 1
     double ratio;
     // check if we are at the first stop
@@ -123,11 +142,10 @@ public abstract class Vehicle implements VehicleInterface {
         distanceRemaining = 0;
       }
     }
-    double newLongitude = nextStop.getPosition().getLongitude() * (1 - ratio)
-        + prevStop.getPosition().getLongitude() * ratio;
-    double newLatitude = nextStop.getPosition().getLatitude() * (1 - ratio)
-        + prevStop.getPosition().getLatitude() * ratio;
-    setPosition(new Position(newLongitude, newLatitude));
+    longitude = geometry.getLongitude(nextStopIndex) * (1 - ratio)
+        + geometry.getLongitude(prevStopIndex) * ratio;
+    latitude = geometry.getLatitude(nextStopIndex) * (1 - ratio)
+        + geometry.getLatitude(prevStopIndex) * ratio;
   }
 
   /**
@@ -136,13 +154,11 @@ public abstract class Vehicle implements VehicleInterface {
   public void update() {
     // update passengers FIRST
     // new passengers will get "updated" when getting on the vehicle
-    for (Passenger passenger : getPassengers()) {
-      passenger.pasUpdate();
-    }
+    passengerClock.tick();
     if (!line.isIssueExist()) {
       move();
     }
-    carbonEmissionHistory.add(0, getCurrentCO2Emission());
+    carbonEmissionHistory.add(getCurrentCO2Emission());
   }
 
   /**
@@ -184,13 +200,12 @@ public abstract class Vehicle implements VehicleInterface {
    */
   private void toNextStop() {
     //current stop
-    currentRoute().nextStop();
+    tripCursor.advance();
     if (!isTripComplete()) {
-      // it's important we call currentRoute() again,
-      // as nextStop() may have caused it to change.
-      nextStop = currentRoute().getNextStop();
+      // advance() may have switched the cursor to the inbound route
+      nextStop = tripCursor.getNextStop();
       distanceRemaining +=
-          currentRoute().getNextStopDistance();
+          tripCursor.getNextStopDistance();
       // note, if distanceRemaining was negative because we
       // had extra time left over, that extra time is
       // effectively counted towards the next stop
@@ -218,19 +233,6 @@ public abstract class Vehicle implements VehicleInterface {
     return getSpeed();
   }
 
-  /**
-   * Determine if vehicle is on the outgoing or incoming route.
-   *
-   * @return which route the vehicle is on.
-   */
-  private Route currentRoute() {
-
-    if (!line.getOutboundRoute().isAtEnd()) {
-      return line.getOutboundRoute();
-    }
-    return line.getInboundRoute();
-  }
-
   /**
    * Retrieves the current vehicle information sends the information to the visualization module.
    *
@@ -244,25 +246,15 @@ public abstract class Vehicle implements VehicleInterface {
 
       String type = getVehicleType();
 
-      StringBuilder carbonEmissionHistoryString = new StringBuilder();
-      int length = Math.min(5, carbonEmissionHistory.size());
-      if (length > 0) {
-        carbonEmissionHistoryString.append(carbonEmissionHistory.get(0));
-        for (int i = 1; i < length; i++) {
-          carbonEmissionHistoryString.append(", ");
-          carbonEmissionHistoryString.append(carbonEmissionHistory.get(i));
-        }
-      }
-
       StringBuilder stringBuilder = new StringBuilder();
       stringBuilder.append(String.format("%d", getId()) + System.lineSeparator());
       stringBuilder.append("-----------------------------" + System.lineSeparator());
       stringBuilder.append(String.format("* Type: %s", type) + System.lineSeparator());
-      stringBuilder.append(String.format("* Position: (%f,%f)", getPosition().getLongitude(),
-          getPosition().getLatitude()) + System.lineSeparator());
+      stringBuilder.append(String.format("* Position: (%f,%f)", longitude, latitude)
+          + System.lineSeparator());
       stringBuilder.append(String.format("* Passengers: %d", getPassengers().size())
           + System.lineSeparator());
-      stringBuilder.append(String.format("* CO2: %s", carbonEmissionHistoryString.toString())
+      stringBuilder.append(String.format("* CO2: %s", carbonEmissionHistory.toString())
           + System.lineSeparator());
 
       data.addProperty("text", stringBuilder.toString());
@@ -285,6 +277,10 @@ public abstract class Vehicle implements VehicleInterface {
 
   public abstract int getCurrentCO2Emission();
 
+  public EmissionHistory getCarbonEmissionHistory() {
+    return carbonEmissionHistory;
+  }
+
   public int getId() {
     return id;
   }
@@ -317,12 +313,33 @@ public abstract class Vehicle implements VehicleInterface {
     this.name = name;
   }
 
+  /**
+   * Gets the position of the vehicle.
+   * The vehicle stores its coordinates as primitives, so this creates a new
+   * position holding the current coordinates.
+   *
+   * @return position of the vehicle.
+   */
   public Position getPosition() {
-    return position;
+    return new Position(longitude, latitude);
   }
 
+  /**
+   * Sets the position of the vehicle.
+   *
+   * @param position new position of the vehicle.
+   */
   public void setPosition(Position position) {
-    this.position = position;
+    this.longitude = position.getLongitude();
+    this.latitude = position.getLatitude();
+  }
+
+  public double getLongitude() {
+    return longitude;
+  }
+
+  public double getLatitude() {
+    return latitude;
   }
 
   public void setVehicleSubject(VehicleConcreteSubject vehicleConcreteSubject) {
@@ -337,6 +354,10 @@ public abstract class Vehicle implements VehicleInterface {
     return line;
   }
 
+  public TripCursor getTripCursor() {
+    return tripCursor;
+  }
+
   public double getDistanceRemaining() {
     return distanceRemaining;
   }
@@ -121,6 +121,16 @@ public abstract class VehicleDecorator implements VehicleInterface {
     return wrappedVehicle.getPosition();
   }
 
+  @Override
+  public double getLongitude() {
+    return wrappedVehicle.getLongitude();
+  }
+
+  @Override
+  public double getLatitude() {
+    return wrappedVehicle.getLatitude();
+  }
+
   @Override
   public Stop getNextStop() {
     return wrappedVehicle.getNextStop();
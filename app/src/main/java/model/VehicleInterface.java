@@ -112,6 +112,20 @@ public interface VehicleInterface extends VehicleObserver {
    */
   void setPosition(Position position);
 
+  /**
+   * Get the longitude of the vehicle without creating a position.
+   *
+   * @return double value for longitude
+   */
+  double getLongitude();
+
+  /**
+   * Get the latitude of the vehicle without creating a position.
+   *
+   * @return double value for latitude
+   */
+  double getLatitude();
+
   /**
    * Get the next stop.
    *
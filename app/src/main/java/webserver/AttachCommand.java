@@ -0,0 +1,84 @@
+package webserver;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command that attaches the session as a viewer of a named shared simulation,
+ * see {@link SharedSimulation}. The first viewer of a name starts the
+ * simulation with the {@code numTimeSteps}, {@code timeBetweenVehicles} and
+ * {@code ticksPerSecond} of its command; later viewers watch the running
+ * simulation. Lines without a time between vehicles use
+ * {@link BatchRunner#DEFAULT_TIME_BETWEEN_VEHICLES}, and a command without a
+ * positive number of time steps is rejected. A command with
+ * {@code "enabled": false} detaches the session.
+ */
+public class AttachCommand extends SimulatorCommand {
+
+  private SimulationRegistry registry;
+  private String configFile;
+  private SharedSimulation attached;
+
+  /**
+   * Creates an AttachCommand.
+   *
+   * @param registry   shared simulations of the server
+   * @param configFile configuration of simulations started by this session
+   */
+  public AttachCommand(SimulationRegistry registry, String configFile) {
+    this.registry = registry;
+    this.configFile = configFile;
+  }
+
+  /**
+   * Attaches the session to the named simulation, or detaches it.
+   *
+   * @param session current simulation session
+   * @param command the attach command content
+   */
+  @Override
+  public void execute(WebServerSession session, JsonObject command) {
+    if (command.has("enabled") && !command.get("enabled").getAsBoolean()) {
+      detach(session);
+      return;
+    }
+    String name = command.get("name").getAsString();
+    List<Integer> timeBetweenVehicles = new ArrayList<Integer>();
+    if (command.has("timeBetweenVehicles")) {
+      JsonArray arr = command.getAsJsonArray("timeBetweenVehicles");
+      for (int i = 0; i < arr.size(); i++) {
+        timeBetweenVehicles.add(arr.get(i).getAsInt());
+      }
+    }
+    if (!command.has("numTimeSteps") || command.get("numTimeSteps").getAsInt() <= 0) {
+      throw new IllegalArgumentException("attach needs a positive numTimeSteps");
+    }
+    int numTimeSteps = command.get("numTimeSteps").getAsInt();
+    double ticksPerSecond = command.has("ticksPerSecond")
+        ? command.get("ticksPerSecond").getAsDouble() : 1;
+
+    if (attached != null && !attached.getName().equals(name)) {
+      detach(session);
+    }
+    attached = registry.attach(name, configFile, timeBetweenVehicles, numTimeSteps,
+        ticksPerSecond, session);
+  }
+
+  /**
+   * Detaches the session from the simulation it watches, if any.
+   *
+   * @param session current simulation session
+   */
+  public void detach(WebServerSession session) {
+    if (attached != null) {
+      registry.detach(attached, session);
+      attached = null;
+    }
+  }
+
+  public SharedSimulation getAttached() {
+    return attached;
+  }
+}
@@ -0,0 +1,105 @@
+package webserver;
+
+import java.io.PrintStream;
+
+/**
+ * Throughput figures collected by a headless {@link BatchRunner} run.
+ */
+public class BatchReport {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private int numTimeSteps;
+  private long elapsedNanos;
+  private long vehicleSteps;
+  private long passengersGenerated;
+  private int activeVehicles;
+
+  /**
+   * Constructor for a batch report.
+   *
+   * @param numTimeSteps        number of simulation steps that were run
+   * @param elapsedNanos        wall-clock time spent running the steps
+   * @param vehicleSteps        number of vehicle updates over all steps
+   * @param passengersGenerated number of passengers generated at stops
+   * @param activeVehicles      number of vehicles still active after the last step
+   */
+  public BatchReport(int numTimeSteps, long elapsedNanos, long vehicleSteps,
+                     long passengersGenerated, int activeVehicles) {
+    this.numTimeSteps = numTimeSteps;
+    this.elapsedNanos = elapsedNanos;
+    this.vehicleSteps = vehicleSteps;
+    this.passengersGenerated = passengersGenerated;
+    this.activeVehicles = activeVehicles;
+  }
+
+  /**
+   * Report the throughput of the run.
+   *
+   * @param out stream for printing
+   */
+  public void report(PrintStream out) {
+    out.println("####Batch Run Info Start####");
+    out.println("Time steps: " + numTimeSteps);
+    out.println(String.format("Elapsed seconds: %.3f", getElapsedSeconds()));
+    out.println(String.format("Steps per second: %.1f", getStepsPerSecond()));
+    out.println(String.format("Vehicle steps per second: %.1f", getVehicleStepsPerSecond()));
+    out.println("Vehicle steps: " + vehicleSteps);
+    out.println("Passengers processed: " + passengersGenerated);
+    out.println("Active vehicles at end: " + activeVehicles);
+    out.println("####Batch Run Info End####");
+  }
+
+  public int getNumTimeSteps() {
+    return numTimeSteps;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public long getVehicleSteps() {
+    return vehicleSteps;
+  }
+
+  public long getPassengersGenerated() {
+    return passengersGenerated;
+  }
+
+  public int getActiveVehicles() {
+    return activeVehicles;
+  }
+
+  /**
+   * Gets the wall-clock duration of the run.
+   *
+   * @return elapsed time in seconds
+   */
+  public double getElapsedSeconds() {
+    return elapsedNanos / NANOS_PER_SECOND;
+  }
+
+  /**
+   * Gets the number of simulation steps run per wall-clock second.
+   *
+   * @return steps per second, or 0 if no time elapsed
+   */
+  public double getStepsPerSecond() {
+    return perSecond(numTimeSteps);
+  }
+
+  /**
+   * Gets the number of vehicle updates run per wall-clock second.
+   *
+   * @return vehicle steps per second, or 0 if no time elapsed
+   */
+  public double getVehicleStepsPerSecond() {
+    return perSecond(vehicleSteps);
+  }
+
+  private double perSecond(long count) {
+    if (elapsedNanos <= 0) {
+      return 0;
+    }
+    return count / getElapsedSeconds();
+  }
+}
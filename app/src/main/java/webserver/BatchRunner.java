@@ -0,0 +1,138 @@
+package webserver;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs a simulation headless, without a web server session, as fast as possible.
+ * Builds a {@link VisualTransitSimulator} from a configuration file, runs a fixed
+ * number of time steps and reports the throughput of the run.
+ */
+public class BatchRunner {
+
+  /** Time steps between vehicles used for lines without an explicit value. */
+  public static final int DEFAULT_TIME_BETWEEN_VEHICLES = 5;
+
+  private String configFile;
+  private int startHour;
+  private int parallelism;
+  private Long seed;
+
+  /**
+   * Creates a batch runner for the given configuration file.
+   * Vehicle generation strategies are selected using the current hour, as in
+   * the web version of the simulation.
+   *
+   * @param configFile file containing the simulation configuration
+   */
+  public BatchRunner(String configFile) {
+    this.configFile = configFile;
+    this.startHour = LocalDateTime.now().getHour();
+    this.parallelism = 1;
+  }
+
+  /**
+   * Builds a new simulator from the configuration file and runs it.
+   * Lines without an entry in {@code timeBetweenVehicles} use
+   * {@link #DEFAULT_TIME_BETWEEN_VEHICLES}.
+   *
+   * @param timeBetweenVehicles time steps between vehicles for each line
+   * @param numTimeSteps        number of time steps to run
+   * @return throughput figures of the run
+   */
+  public BatchReport run(List<Integer> timeBetweenVehicles, int numTimeSteps) {
+    VisualTransitSimulator simulator = seed == null ? new VisualTransitSimulator(configFile)
+        : new VisualTransitSimulator(configFile, null, seed);
+    simulator.setVerbose(false);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    for (int i = 0; i < simulator.getLines().size(); i++) {
+      if (i < timeBetweenVehicles.size()) {
+        vehicleStartTimings.add(timeBetweenVehicles.get(i));
+      } else {
+        vehicleStartTimings.add(DEFAULT_TIME_BETWEEN_VEHICLES);
+      }
+    }
+    simulator.setVehicleFactories(startHour);
+    simulator.start(vehicleStartTimings, numTimeSteps);
+    long elapsedNanos;
+    simulator.setParallelism(parallelism);
+    try {
+      long startTime = System.nanoTime();
+      for (int i = 0; i < numTimeSteps; i++) {
+        simulator.update();
+      }
+      elapsedNanos = System.nanoTime() - startTime;
+    } finally {
+      // shuts the tick pool down, also when a time step throws
+      simulator.setParallelism(1);
+    }
+    return new BatchReport(numTimeSteps, elapsedNanos, simulator.getVehicleSteps(),
+        simulator.getPassengersGenerated(), simulator.getActiveVehicles().size());
+  }
+
+  /**
+   * Sets the hour used to select the vehicle generation strategies.
+   *
+   * @param startHour hour of the day, from 0 to 23
+   */
+  public void setStartHour(int startHour) {
+    this.startHour = startHour;
+  }
+
+  public int getStartHour() {
+    return startHour;
+  }
+
+  /**
+   * Sets the number of threads used to update vehicles.
+   *
+   * @param parallelism number of threads, 1 for the serial engine
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the seed of the simulations, so every run generates the same passengers.
+   *
+   * @param seed seed of the random streams, or null for unseeded runs
+   */
+  public void setSeed(Long seed) {
+    this.seed = seed;
+  }
+
+  public Long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Entry point for headless runs.
+   * Usage: {@code BatchRunner <configFile> <numTimeSteps> [timeBetweenVehicles...]}
+   * The {@code vts.parallelism} system property selects the number of threads
+   * and the {@code vts.seed} system property seeds the run.
+   *
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.err.println("Usage: BatchRunner <configFile> <numTimeSteps>"
+          + " [timeBetweenVehicles...]");
+      System.exit(1);
+    }
+    int numTimeSteps = Integer.parseInt(args[1]);
+    List<Integer> timeBetweenVehicles = new ArrayList<Integer>();
+    for (int i = 2; i < args.length; i++) {
+      timeBetweenVehicles.add(Integer.parseInt(args[i]));
+    }
+    BatchRunner batchRunner = new BatchRunner(args[0]);
+    batchRunner.setParallelism(Integer.getInteger("vts.parallelism", 1));
+    batchRunner.setSeed(Long.getLong("vts.seed"));
+    BatchReport batchReport = batchRunner.run(timeBetweenVehicles, numTimeSteps);
+    batchReport.report(System.out);
+  }
+}
@@ -0,0 +1,138 @@
+package webserver;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import model.ColorDecorator;
+import model.DieselTrain;
+import model.ElectricTrain;
+import model.LargeBus;
+import model.SmallBus;
+import model.VehicleInterface;
+
+/**
+ * Packs the state pushed to subscribed clients into binary frames for sessions
+ * that negotiated the {@code web_server_binary} subprotocol.
+ * A frame holds the same content as the {@code updateState} message of
+ * {@link SubscribeCommand}. All values are big-endian:
+ * <pre>
+ * u8  frame type ({@link #STATE_FRAME})
+ * u8  flags (bit 0: full vehicle delta)
+ * i32 time step
+ * u32 vehicle version, u32 base version
+ * u16 number of vehicle records, then per vehicle:
+ *     i32 id, u8 type, u16 passengers, u16 capacity, u16 CO2,
+ *     i32 longitude, i32 latitude, u8 red, u8 green, u8 blue, u8 alpha
+ * u16 number of removed vehicles, then an i32 id each
+ * u16 number of stops, then a u16 count of waiting people each
+ * </pre>
+ * Coordinates are fixed-point with {@link #COORDINATE_SCALE} units per degree,
+ * about 0.1 meters, and counts are clamped to the u16 range.
+ */
+public class BinaryStateEncoder {
+
+  public static final int STATE_FRAME = 1;
+  public static final double COORDINATE_SCALE = 1e6;
+  public static final int HEADER_SIZE = 14;
+  public static final int VEHICLE_RECORD_SIZE = 23;
+
+  /**
+   * Vehicle types in the order of their codes, {@code 255} is an unknown type.
+   */
+  static final String[] VEHICLE_TYPES = {
+      SmallBus.SMALL_BUS_VEHICLE,
+      LargeBus.LARGE_BUS_VEHICLE,
+      ElectricTrain.ELECTRIC_TRAIN_VEHICLE,
+      DieselTrain.DIESEL_TRAIN_VEHICLE
+  };
+
+  private static final int MAX_UNSIGNED_SHORT = 0xFFFF;
+
+  /**
+   * Encodes a state frame.
+   *
+   * @param timeStep   time step of the simulation
+   * @param delta      vehicles to send
+   * @param stopCounts number of people waiting at each stop of the topology
+   * @return buffer holding the frame, ready to be sent
+   */
+  public static ByteBuffer encodeState(int timeStep, VehicleDelta delta, int[] stopCounts) {
+    List<VehicleInterface> vehicles = delta.getChangedVehicles();
+    List<Integer> removedIds = delta.getRemovedIds();
+    int numVehicles = Math.min(vehicles.size(), MAX_UNSIGNED_SHORT);
+    int numRemoved = Math.min(removedIds.size(), MAX_UNSIGNED_SHORT);
+    int numStops = Math.min(stopCounts.length, MAX_UNSIGNED_SHORT);
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE
+        + 2 + numVehicles * VEHICLE_RECORD_SIZE
+        + 2 + numRemoved * 4
+        + 2 + numStops * 2);
+
+    buffer.put((byte) STATE_FRAME);
+    buffer.put((byte) (delta.isFull() ? 1 : 0));
+    buffer.putInt(timeStep);
+    buffer.putInt((int) delta.getVersion());
+    buffer.putInt((int) delta.getBaseVersion());
+
+    buffer.putShort((short) numVehicles);
+    for (int i = 0; i < numVehicles; i++) {
+      putVehicle(buffer, vehicles.get(i));
+    }
+    buffer.putShort((short) numRemoved);
+    for (int i = 0; i < numRemoved; i++) {
+      buffer.putInt(removedIds.get(i));
+    }
+    buffer.putShort((short) numStops);
+    for (int i = 0; i < numStops; i++) {
+      buffer.putShort(toUnsignedShort(stopCounts[i]));
+    }
+    buffer.flip();
+    return buffer;
+  }
+
+  private static void putVehicle(ByteBuffer buffer, VehicleInterface vehicle) {
+    buffer.putInt(vehicle.getId());
+    buffer.put((byte) getTypeCode(vehicle.getVehicleType()));
+    buffer.putShort(toUnsignedShort(vehicle.getPassengers().size()));
+    buffer.putShort(toUnsignedShort(vehicle.getCapacity()));
+    buffer.putShort(toUnsignedShort(vehicle.getCurrentCO2Emission()));
+    buffer.putInt(quantize(vehicle.getLongitude()));
+    buffer.putInt(quantize(vehicle.getLatitude()));
+    if (vehicle instanceof ColorDecorator) {
+      ColorDecorator color = (ColorDecorator) vehicle;
+      buffer.put((byte) color.getRed());
+      buffer.put((byte) color.getGreen());
+      buffer.put((byte) color.getBlue());
+      buffer.put((byte) color.getAlpha());
+    } else {
+      buffer.putInt(0);
+    }
+  }
+
+  /**
+   * Gets the code of a vehicle type.
+   *
+   * @param vehicleType the type of a vehicle
+   * @return the index of the type in {@link #VEHICLE_TYPES}, or 255 if unknown
+   */
+  static int getTypeCode(String vehicleType) {
+    for (int i = 0; i < VEHICLE_TYPES.length; i++) {
+      if (VEHICLE_TYPES[i].equals(vehicleType)) {
+        return i;
+      }
+    }
+    return 255;
+  }
+
+  /**
+   * Converts a coordinate to fixed point.
+   *
+   * @param degrees coordinate in degrees
+   * @return the coordinate in units of 1 / {@link #COORDINATE_SCALE} degrees
+   */
+  static int quantize(double degrees) {
+    return (int) Math.round(degrees * COORDINATE_SCALE);
+  }
+
+  private static short toUnsignedShort(int value) {
+    return (short) Math.max(0, Math.min(value, MAX_UNSIGNED_SHORT));
+  }
+}
@@ -0,0 +1,38 @@
+package webserver;
+
+/**
+ * Thrown when a configuration file cannot be parsed.
+ */
+public class ConfigFormatException extends RuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final int lineNumber;
+
+  /**
+   * Constructor for a format error.
+   *
+   * @param lineNumber line of the file with the error, starting at 1
+   * @param message    description of the error
+   */
+  public ConfigFormatException(int lineNumber, String message) {
+    super("line " + lineNumber + ": " + message);
+    this.lineNumber = lineNumber;
+  }
+
+  /**
+   * Constructor for a format error caused by another exception.
+   *
+   * @param lineNumber line of the file with the error, starting at 1
+   * @param message    description of the error
+   * @param cause      the error that was found
+   */
+  public ConfigFormatException(int lineNumber, String message, Throwable cause) {
+    super("line " + lineNumber + ": " + message, cause);
+    this.lineNumber = lineNumber;
+  }
+
+  public int getLineNumber() {
+    return lineNumber;
+  }
+}
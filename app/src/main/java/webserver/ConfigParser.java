@@ -0,0 +1,369 @@
+package webserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import model.Line;
+import model.RouteGeometry;
+
+/**
+ * Parses configuration files into a {@link NetworkTemplate}.
+ * The file is memory-mapped and scanned byte by byte: fields are split at
+ * commas without regular expressions, keywords are compared as bytes and
+ * numbers are parsed straight from the bytes, so only names become strings.
+ * Numbers with at most 17 digits and 22 decimals are computed exactly like
+ * {@link Double#parseDouble(String)}; other forms fall back to it.
+ * Malformed lines raise a {@link ConfigFormatException} with their line number.
+ */
+public class ConfigParser {
+  private static final byte[] LINE_START = bytes("LINE_START");
+  private static final byte[] LINE_END = bytes("LINE_END");
+  private static final byte[] ROUTE_START = bytes("ROUTE_START");
+  private static final byte[] ROUTE_END = bytes("ROUTE_END");
+  private static final byte[] STOP = bytes("STOP");
+  private static final byte[] STORAGE_FACILITY_START = bytes("STORAGE_FACILITY_START");
+  private static final byte[] SMALL_BUSES = bytes("SMALL_BUSES");
+  private static final byte[] LARGE_BUSES = bytes("LARGE_BUSES");
+  private static final byte[] ELECTRIC_TRAINS = bytes("ELECTRIC_TRAINS");
+  private static final byte[] DIESEL_TRAINS = bytes("DIESEL_TRAINS");
+  private static final String BUS_LINE = "BUS_LINE";
+  private static final String TRAIN_LINE = "TRAIN_LINE";
+  private static final int MAX_FIELDS = 8;
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final double[] POWERS_OF_TEN = new double[23];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private ByteBuffer data;
+  private int lineNumber;
+  private int numFields;
+  private int[] fieldStarts = new int[MAX_FIELDS];
+  private int[] fieldEnds = new int[MAX_FIELDS];
+
+  private List<NetworkTemplate.RouteTemplate> routes = new ArrayList<>();
+  private List<NetworkTemplate.LineTemplate> lines = new ArrayList<>();
+  private int[] storageCounts;
+  private String currLineName = "";
+  private String currLineType = "";
+  private String currRouteName = "";
+  private double[] longitudes = new double[16];
+  private double[] latitudes = new double[16];
+  private List<String> stopNames = new ArrayList<String>();
+  private Set<String> stopNamesInTheRoute = new HashSet<String>();
+  private List<Double> probabilities = new ArrayList<Double>();
+
+  private ConfigParser(ByteBuffer data) {
+    this.data = data;
+  }
+
+  /**
+   * Parses a configuration file.
+   *
+   * @param configFile the configuration file
+   * @return the template of the file
+   * @throws IOException if the file cannot be read
+   */
+  public static NetworkTemplate parse(File configFile) throws IOException {
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Configuration file is larger than 2 GB: " + configFile);
+      }
+      return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  /**
+   * Parses the contents of a configuration file.
+   *
+   * @param data the bytes of the file, from its position to its limit
+   * @return the template of the file
+   */
+  public static NetworkTemplate parse(ByteBuffer data) {
+    ConfigParser parser = new ConfigParser(data);
+    parser.parseLines();
+    return new NetworkTemplate(parser.routes, parser.lines, parser.storageCounts);
+  }
+
+  private void parseLines() {
+    int position = data.position();
+    int limit = data.limit();
+    while (position < limit) {
+      lineNumber++;
+      int end = position;
+      while (end < limit && data.get(end) != '\n' && data.get(end) != '\r') {
+        end++;
+      }
+      splitFields(position, end);
+      parseLine();
+      position = end;
+      if (position < limit && data.get(position) == '\r') {
+        position++;
+      }
+      if (position < limit && data.get(position) == '\n') {
+        position++;
+      }
+    }
+  }
+
+  private void splitFields(int start, int end) {
+    numFields = 0;
+    int fieldStart = start;
+    for (int i = start; i <= end; i++) {
+      if (i == end || data.get(i) == ',') {
+        if (numFields == fieldStarts.length) {
+          fieldStarts = Arrays.copyOf(fieldStarts, numFields * 2);
+          fieldEnds = Arrays.copyOf(fieldEnds, numFields * 2);
+        }
+        int trimmedStart = fieldStart;
+        int trimmedEnd = i;
+        while (trimmedStart < trimmedEnd && isWhitespace(data.get(trimmedStart))) {
+          trimmedStart++;
+        }
+        while (trimmedEnd > trimmedStart && isWhitespace(data.get(trimmedEnd - 1))) {
+          trimmedEnd--;
+        }
+        fieldStarts[numFields] = trimmedStart;
+        fieldEnds[numFields] = trimmedEnd;
+        numFields++;
+        fieldStart = i + 1;
+      }
+    }
+  }
+
+  private void parseLine() {
+    if (isField(0, LINE_START)) {
+      currLineType = "";
+      String lineTypeFromConfig = getString(1);
+      if (lineTypeFromConfig.equals(BUS_LINE)) {
+        currLineType = Line.BUS_LINE;
+      } else if (lineTypeFromConfig.equals(TRAIN_LINE)) {
+        currLineType = Line.TRAIN_LINE;
+      }
+      currLineName = getString(2);
+    } else if (isField(0, LINE_END)) {
+      if (routes.size() < 2) {
+        throw new ConfigFormatException(lineNumber,
+            "line " + currLineName + " ends before two routes were defined");
+      }
+      lines.add(new NetworkTemplate.LineTemplate(currLineName, currLineType,
+          routes.size() - 2, routes.size() - 1, routes.size()));
+      currLineType = "";
+      currLineName = "";
+    } else if (isField(0, ROUTE_START)) {
+      currRouteName = getString(1);
+    } else if (isField(0, ROUTE_END)) {
+      endRoute();
+    } else if (isField(0, STOP)) {
+      String currStopName = getString(1);
+      if (!stopNamesInTheRoute.add(currStopName)) {
+        return;
+      }
+      double currStopLatitude = getDouble(2);
+      double currStopLongitude = getDouble(3);
+      probabilities.add(getDouble(4));
+      int numStops = stopNames.size();
+      if (numStops == longitudes.length) {
+        longitudes = Arrays.copyOf(longitudes, numStops * 2);
+        latitudes = Arrays.copyOf(latitudes, numStops * 2);
+      }
+      longitudes[numStops] = currStopLongitude;
+      latitudes[numStops] = currStopLatitude;
+      stopNames.add(currStopName);
+    } else if (isField(0, STORAGE_FACILITY_START)) {
+      storageCounts = new int[] {-1, -1, -1, -1};
+    } else if (isField(0, SMALL_BUSES)) {
+      setStorageCount(0);
+    } else if (isField(0, LARGE_BUSES)) {
+      setStorageCount(1);
+    } else if (isField(0, ELECTRIC_TRAINS)) {
+      setStorageCount(2);
+    } else if (isField(0, DIESEL_TRAINS)) {
+      setStorageCount(3);
+    }
+  }
+
+  private void endRoute() {
+    if (stopNames.size() == 0) {
+      return;
+    }
+    routes.add(new NetworkTemplate.RouteTemplate(currRouteName, stopNames, probabilities,
+        createGeometry(longitudes, latitudes, stopNames.size())));
+    currRouteName = "";
+    stopNames.clear();
+    stopNamesInTheRoute.clear();
+    probabilities.clear();
+  }
+
+  /**
+   * Computes the geometry of a route from the coordinates of its stops.
+   *
+   * @param longitudes longitudes of the stops of the route, in order
+   * @param latitudes  latitudes of the stops of the route, in order
+   * @param numStops   number of stops of the route, at most the length of the arrays
+   * @return geometry with the distances between subsequent stops
+   */
+  static RouteGeometry createGeometry(double[] longitudes, double[] latitudes, int numStops) {
+    double[] distances = new double[Math.max(0, numStops - 1)];
+    for (int stopIndex = 1; stopIndex < numStops; ++stopIndex) {
+      // Need to turn latitude and longitude into real-world distances.
+      // Going one speed in a simulation step moves 0.5 mile.
+      // We multiply latitude and longitude by 2 so that a speed of one moves 0.5 mile
+      double prevLatitude = latitudes[stopIndex - 1] * 69 * 2;
+      double prevLongitude = longitudes[stopIndex - 1] * 55 * 2;
+      double currLatitude = latitudes[stopIndex] * 69 * 2;
+      double currLongitude = longitudes[stopIndex] * 55 * 2;
+      double dist = Math.sqrt((currLatitude - prevLatitude) * (currLatitude - prevLatitude)
+          + (currLongitude - prevLongitude) * (currLongitude - prevLongitude));
+      distances[stopIndex - 1] = dist;
+    }
+    return new RouteGeometry(Arrays.copyOf(longitudes, numStops),
+        Arrays.copyOf(latitudes, numStops), distances);
+  }
+
+  private void setStorageCount(int index) {
+    if (storageCounts == null) {
+      throw new ConfigFormatException(lineNumber,
+          "storage count outside of a storage facility");
+    }
+    storageCounts[index] = getInt(1);
+  }
+
+  private boolean isField(int field, byte[] keyword) {
+    if (field >= numFields || fieldEnds[field] - fieldStarts[field] != keyword.length) {
+      return false;
+    }
+    int start = fieldStarts[field];
+    for (int i = 0; i < keyword.length; i++) {
+      if (data.get(start + i) != keyword[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void checkField(int field) {
+    if (field >= numFields) {
+      throw new ConfigFormatException(lineNumber,
+          "expected at least " + (field + 1) + " fields but found " + numFields);
+    }
+  }
+
+  private String getString(int field) {
+    checkField(field);
+    int start = fieldStarts[field];
+    byte[] bytes = new byte[fieldEnds[field] - start];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = data.get(start + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private int getInt(int field) {
+    checkField(field);
+    int start = fieldStarts[field];
+    int end = fieldEnds[field];
+    boolean negative = start < end && data.get(start) == '-';
+    int i = negative || (start < end && data.get(start) == '+') ? start + 1 : start;
+    long value = 0;
+    if (i == end || end - i > 9) {
+      return parseIntSlowly(field);
+    }
+    for (; i < end; i++) {
+      int digit = data.get(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return parseIntSlowly(field);
+      }
+      value = value * 10 + digit;
+    }
+    return (int) (negative ? -value : value);
+  }
+
+  private int parseIntSlowly(int field) {
+    String text = getString(field);
+    try {
+      return Integer.parseInt(text);
+    } catch (NumberFormatException ex) {
+      throw new ConfigFormatException(lineNumber, "invalid integer \"" + text + "\"", ex);
+    }
+  }
+
+  /**
+   * Parses a decimal number of the form {@code [+-]digits[.digits]}.
+   * The digits are accumulated into a long and divided by an exact power of
+   * ten; both operands are exact doubles, so the division is correctly rounded
+   * and gives the same result as {@link Double#parseDouble(String)}.
+   */
+  private double getDouble(int field) {
+    checkField(field);
+    int start = fieldStarts[field];
+    int end = fieldEnds[field];
+    int i = start;
+    boolean negative = false;
+    if (i < end && (data.get(i) == '-' || data.get(i) == '+')) {
+      negative = data.get(i) == '-';
+      i++;
+    }
+    long mantissa = 0;
+    int numDigits = 0;
+    int numDecimals = 0;
+    boolean decimalPoint = false;
+    for (; i < end; i++) {
+      byte b = data.get(i);
+      if (b >= '0' && b <= '9') {
+        if (mantissa != 0 || b != '0') {
+          numDigits++;
+        }
+        if (numDigits > 17) {
+          return parseDoubleSlowly(field);
+        }
+        mantissa = mantissa * 10 + (b - '0');
+        if (decimalPoint) {
+          numDecimals++;
+        }
+      } else if (b == '.' && !decimalPoint) {
+        decimalPoint = true;
+      } else {
+        return parseDoubleSlowly(field);
+      }
+    }
+    int length = end - start - (negative || (start < end && data.get(start) == '+') ? 1 : 0);
+    if (length == 0 || (decimalPoint && length == 1)
+        || mantissa > MAX_EXACT_MANTISSA || numDecimals >= POWERS_OF_TEN.length) {
+      return parseDoubleSlowly(field);
+    }
+    double value = mantissa / POWERS_OF_TEN[numDecimals];
+    return negative ? -value : value;
+  }
+
+  private double parseDoubleSlowly(int field) {
+    String text = getString(field);
+    try {
+      return Double.parseDouble(text);
+    } catch (NumberFormatException ex) {
+      throw new ConfigFormatException(lineNumber, "invalid number \"" + text + "\"", ex);
+    }
+  }
+
+  private static boolean isWhitespace(byte b) {
+    // same characters as String.trim, which removes all control characters
+    return b <= ' ' && b >= 0;
+  }
+
+  private static byte[] bytes(String keyword) {
+    return keyword.getBytes(StandardCharsets.US_ASCII);
+  }
+}
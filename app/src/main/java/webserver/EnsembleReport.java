@@ -0,0 +1,94 @@
+package webserver;
+
+import java.io.PrintStream;
+
+/**
+ * Distributions of the measurements of an {@link EnsembleRunner} run,
+ * aggregated from the summaries of its replications as they complete.
+ */
+public class EnsembleReport {
+  private long baseSeed;
+  private int numTimeSteps;
+  private long elapsedNanos;
+  private EnsembleStatistics passengersGenerated = new EnsembleStatistics("Passengers generated");
+  private EnsembleStatistics waitTime = new EnsembleStatistics("Wait time");
+  private EnsembleStatistics load = new EnsembleStatistics("Load");
+  private EnsembleStatistics co2Emission = new EnsembleStatistics("CO2 emission");
+
+  /**
+   * Constructor for an empty ensemble report.
+   *
+   * @param baseSeed     seed the replication seeds are drawn from
+   * @param numTimeSteps number of time steps of every replication
+   */
+  public EnsembleReport(long baseSeed, int numTimeSteps) {
+    this.baseSeed = baseSeed;
+    this.numTimeSteps = numTimeSteps;
+  }
+
+  /**
+   * Adds the measurements of a completed replication.
+   *
+   * @param summary summary of the replication
+   */
+  public void add(ReplicationSummary summary) {
+    passengersGenerated.add(summary.getPassengersGenerated());
+    waitTime.add(summary.getMeanWaitTime());
+    load.add(summary.getMeanLoad());
+    co2Emission.add(summary.getTotalCO2Emission());
+  }
+
+  /**
+   * Report the distributions of the measurements.
+   *
+   * @param out stream for printing
+   */
+  public void report(PrintStream out) {
+    out.println("####Ensemble Run Info Start####");
+    out.println("Base seed: " + baseSeed);
+    out.println("Replications: " + getNumReplications());
+    out.println("Time steps: " + numTimeSteps);
+    out.println(String.format("Elapsed seconds: %.3f", elapsedNanos / 1_000_000_000.0));
+    out.println(passengersGenerated);
+    out.println(waitTime);
+    out.println(load);
+    out.println(co2Emission);
+    out.println("####Ensemble Run Info End####");
+  }
+
+  public long getBaseSeed() {
+    return baseSeed;
+  }
+
+  public int getNumTimeSteps() {
+    return numTimeSteps;
+  }
+
+  public int getNumReplications() {
+    return waitTime.getCount();
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public EnsembleStatistics getPassengersGenerated() {
+    return passengersGenerated;
+  }
+
+  public EnsembleStatistics getWaitTime() {
+    return waitTime;
+  }
+
+  public EnsembleStatistics getLoad() {
+    return load;
+  }
+
+  public EnsembleStatistics getCO2Emission() {
+    return co2Emission;
+  }
+}
@@ -0,0 +1,184 @@
+package webserver;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs many independent replications of the same scenario, each with its own
+ * seed, and aggregates their measurements into distributions.
+ * Every replication is a separate {@link VisualTransitSimulator} with its own
+ * counter, storage facility and random streams, so replications run in
+ * parallel on a thread pool, one replication per thread. The seeds of the
+ * replications are drawn from a base seed, so an ensemble is reproducible.
+ */
+public class EnsembleRunner {
+
+  private String configFile;
+  private int startHour;
+  private int parallelism;
+  private long baseSeed;
+
+  /**
+   * Creates an ensemble runner for the given configuration file, using all
+   * available processors and a random base seed.
+   *
+   * @param configFile file containing the simulation configuration
+   */
+  public EnsembleRunner(String configFile) {
+    this.configFile = configFile;
+    this.startHour = LocalDateTime.now().getHour();
+    this.parallelism = Runtime.getRuntime().availableProcessors();
+    this.baseSeed = new SplittableRandom().nextLong();
+  }
+
+  /**
+   * Runs the replications and aggregates their summaries as they complete.
+   * Lines without an entry in {@code timeBetweenVehicles} use
+   * {@link BatchRunner#DEFAULT_TIME_BETWEEN_VEHICLES}.
+   *
+   * @param timeBetweenVehicles time steps between vehicles for each line
+   * @param numTimeSteps        number of time steps of each replication
+   * @param numReplications     number of replications
+   * @return distributions of the measurements
+   */
+  public EnsembleReport run(List<Integer> timeBetweenVehicles, int numTimeSteps,
+                            int numReplications) {
+    EnsembleReport ensembleReport = new EnsembleReport(baseSeed, numTimeSteps);
+    SplittableRandom seeds = new SplittableRandom(baseSeed);
+    int numThreads = Math.max(1, Math.min(parallelism, numReplications));
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    long startTime = System.nanoTime();
+    try {
+      CompletionService<ReplicationSummary> replications =
+          new ExecutorCompletionService<ReplicationSummary>(executor);
+      for (int i = 0; i < numReplications; i++) {
+        int replication = i;
+        long seed = seeds.nextLong();
+        replications.submit(() -> runReplication(replication, seed, timeBetweenVehicles,
+            numTimeSteps));
+      }
+      for (int i = 0; i < numReplications; i++) {
+        ensembleReport.add(replications.take().get());
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Ensemble run was interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Replication failed", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    ensembleReport.setElapsedNanos(System.nanoTime() - startTime);
+    return ensembleReport;
+  }
+
+  /**
+   * Runs one replication on the calling thread, measured by a {@link RunMeter}.
+   *
+   * @param replication         index of the replication
+   * @param seed                seed of the replication
+   * @param timeBetweenVehicles time steps between vehicles for each line
+   * @param numTimeSteps        number of time steps to run
+   * @return measurements of the replication
+   */
+  ReplicationSummary runReplication(int replication, long seed,
+                                    List<Integer> timeBetweenVehicles, int numTimeSteps) {
+    VisualTransitSimulator simulator = new VisualTransitSimulator(configFile, null, seed);
+    simulator.setVerbose(false);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    for (int i = 0; i < simulator.getLines().size(); i++) {
+      if (i < timeBetweenVehicles.size()) {
+        vehicleStartTimings.add(timeBetweenVehicles.get(i));
+      } else {
+        vehicleStartTimings.add(BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES);
+      }
+    }
+    simulator.setVehicleFactories(startHour);
+    simulator.start(vehicleStartTimings, numTimeSteps);
+    RunMeter runMeter = new RunMeter();
+    for (int step = 0; step < numTimeSteps; step++) {
+      simulator.update();
+      runMeter.record(simulator);
+    }
+    return runMeter.getSummary(replication, seed, simulator);
+  }
+
+  /**
+   * Sets the hour used to select the vehicle generation strategies.
+   *
+   * @param startHour hour of the day, from 0 to 23
+   */
+  public void setStartHour(int startHour) {
+    this.startHour = startHour;
+  }
+
+  public int getStartHour() {
+    return startHour;
+  }
+
+  /**
+   * Sets the number of replications run at the same time.
+   *
+   * @param parallelism number of threads
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the seed the replication seeds are drawn from.
+   *
+   * @param baseSeed the base seed
+   */
+  public void setBaseSeed(long baseSeed) {
+    this.baseSeed = baseSeed;
+  }
+
+  public long getBaseSeed() {
+    return baseSeed;
+  }
+
+  /**
+   * Entry point for ensemble runs.
+   * Usage: {@code EnsembleRunner <configFile> <numTimeSteps> <numReplications>
+   * [timeBetweenVehicles...]}
+   * The {@code vts.parallelism} system property selects the number of threads
+   * and the {@code vts.seed} system property sets the base seed.
+   *
+   * @param args command line arguments
+   */
+  public static void main(String[] args) {
+    if (args.length < 3) {
+      System.err.println("Usage: EnsembleRunner <configFile> <numTimeSteps> <numReplications>"
+          + " [timeBetweenVehicles...]");
+      System.exit(1);
+    }
+    int numTimeSteps = Integer.parseInt(args[1]);
+    int numReplications = Integer.parseInt(args[2]);
+    List<Integer> timeBetweenVehicles = new ArrayList<Integer>();
+    for (int i = 3; i < args.length; i++) {
+      timeBetweenVehicles.add(Integer.parseInt(args[i]));
+    }
+    EnsembleRunner ensembleRunner = new EnsembleRunner(args[0]);
+    ensembleRunner.setParallelism(Integer.getInteger("vts.parallelism",
+        ensembleRunner.getParallelism()));
+    Long seed = Long.getLong("vts.seed");
+    if (seed != null) {
+      ensembleRunner.setBaseSeed(seed);
+    }
+    EnsembleReport ensembleReport = ensembleRunner.run(timeBetweenVehicles, numTimeSteps,
+        numReplications);
+    ensembleReport.report(System.out);
+  }
+}
@@ -0,0 +1,144 @@
+package webserver;
+
+import java.util.Arrays;
+
+/**
+ * Distribution of one measurement over the replications of an ensemble.
+ * Values can be added in any order; every statistic is computed from the
+ * sorted values, so the results do not depend on which replication finished
+ * first.
+ */
+public class EnsembleStatistics {
+  /** 97.5% quantiles of Student's t distribution for 1 to 30 degrees of freedom. */
+  private static final double[] T_QUANTILES = {
+      12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+      2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+      2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+  private static final double NORMAL_QUANTILE = 1.960;
+
+  private String name;
+  private double[] values = new double[16];
+  private int count;
+  private boolean sorted = true;
+
+  /**
+   * Constructor for an empty distribution.
+   *
+   * @param name name of the measurement
+   */
+  public EnsembleStatistics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * Adds the value of one replication.
+   *
+   * @param value the measured value
+   */
+  public synchronized void add(double value) {
+    if (count == values.length) {
+      values = Arrays.copyOf(values, count * 2);
+    }
+    values[count++] = value;
+    sorted = false;
+  }
+
+  private void sort() {
+    if (!sorted) {
+      Arrays.sort(values, 0, count);
+      sorted = true;
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * Gets the mean of the values.
+   *
+   * @return the mean, or NaN without values
+   */
+  public synchronized double getMean() {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    sort();
+    double sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += values[i];
+    }
+    return sum / count;
+  }
+
+  /**
+   * Gets the sample standard deviation of the values.
+   *
+   * @return the standard deviation, or NaN with fewer than two values
+   */
+  public synchronized double getStandardDeviation() {
+    if (count < 2) {
+      return Double.NaN;
+    }
+    double mean = getMean();
+    double sumOfSquares = 0;
+    for (int i = 0; i < count; i++) {
+      sumOfSquares += (values[i] - mean) * (values[i] - mean);
+    }
+    return Math.sqrt(sumOfSquares / (count - 1));
+  }
+
+  /**
+   * Gets a percentile of the values, interpolating linearly between the
+   * closest ranks.
+   *
+   * @param percentile the percentile, from 0 to 100
+   * @return the value at the percentile, or NaN without values
+   */
+  public synchronized double getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be from 0 to 100: " + percentile);
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    sort();
+    double rank = percentile / 100 * (count - 1);
+    int lower = (int) Math.floor(rank);
+    int upper = Math.min(lower + 1, count - 1);
+    return values[lower] + (rank - lower) * (values[upper] - values[lower]);
+  }
+
+  /**
+   * Gets the half width of the 95% confidence interval of the mean, using
+   * Student's t distribution for up to 31 values and the normal distribution
+   * for more.
+   *
+   * @return the half width, or NaN with fewer than two values
+   */
+  public synchronized double getConfidenceHalfWidth() {
+    if (count < 2) {
+      return Double.NaN;
+    }
+    int degreesOfFreedom = count - 1;
+    double quantile = degreesOfFreedom <= T_QUANTILES.length
+        ? T_QUANTILES[degreesOfFreedom - 1] : NORMAL_QUANTILE;
+    return quantile * getStandardDeviation() / Math.sqrt(count);
+  }
+
+  /**
+   * Formats the statistics on one line.
+   *
+   * @return the name, mean with confidence interval, and percentiles
+   */
+  @Override
+  public synchronized String toString() {
+    return String.format("%s: mean %.3f +/- %.3f, p5 %.3f, p50 %.3f, p95 %.3f", name,
+        getMean(), getConfidenceHalfWidth(), getPercentile(5), getPercentile(50),
+        getPercentile(95));
+  }
+}
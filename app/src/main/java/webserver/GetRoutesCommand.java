@@ -9,10 +9,15 @@ import java.util.List;
 /**
  * Handles web requests to retrieve route information from the simulation.
  * Sends route IDs, stops, passenger counts, and positions to the client as JSON.
+ * Requests with {@code "compact": true} only receive the passenger counts, in the
+ * stop order of the {@link RouteTopology} sent with {@code initLines}.
+ * Requests with a {@code "sinceVersion"} are answered from a {@link ResponseCache}.
  */
 public class GetRoutesCommand extends SimulatorCommand {
 
   private VisualTransitSimulator simulator;
+  private RouteTopology routeTopology;
+  private ResponseCache responseCache;
 
   /**
    * GetRoutesCommand constructor.
@@ -22,16 +27,48 @@ public class GetRoutesCommand extends SimulatorCommand {
    */
   public GetRoutesCommand(VisualTransitSimulator simulator) {
     this.simulator = simulator;
+    this.responseCache = new ResponseCache();
   }
 
   /**
    * Retrieves routes information from the simulation.
+   * Requests with a {@code sinceVersion} receive a {@code notModified} reply
+   * if the simulation has not changed since that version.
    *
    * @param session current simulation session
    * @param command the get routes command content
    */
   @Override
   public void execute(WebServerSession session, JsonObject command) {
+    boolean compact = command.has("compact") && command.get("compact").getAsBoolean();
+    if (command.has("sinceVersion")) {
+      long stateVersion = simulator.getStateVersion();
+      if (ResponseCache.isNotModified(command, stateVersion)) {
+        session.sendJson(ResponseCache.notModified("getRoutes", stateVersion));
+      } else if (compact) {
+        session.sendText(responseCache.get("compact", stateVersion, this::getStopCounts),
+            "updateStopCounts");
+      } else {
+        session.sendText(responseCache.get("full", stateVersion, this::getRoutes),
+            "updateRoutes");
+      }
+      return;
+    }
+    if (compact) {
+      session.sendJson(getStopCounts());
+      return;
+    }
+    session.sendJson(getRoutes());
+  }
+
+  private JsonObject getStopCounts() {
+    if (routeTopology == null) {
+      routeTopology = new RouteTopology(simulator.getLines());
+    }
+    return routeTopology.getStopCountsJson();
+  }
+
+  private JsonObject getRoutes() {
     List<Line> lines = simulator.getLines();
     JsonObject data = new JsonObject();
     data.addProperty("command", "updateRoutes");
@@ -41,7 +78,7 @@ public class GetRoutesCommand extends SimulatorCommand {
       routesArray.add(getRouteJsonObject(lines.get(i).getInboundRoute()));
     }
     data.add("routes", routesArray);
-    session.sendJson(data);
+    return data;
   }
 
   private JsonObject getRouteJsonObject(Route route) {
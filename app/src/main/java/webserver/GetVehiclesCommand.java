@@ -10,10 +10,16 @@ import java.util.List;
 /**
  * Handles web requests to retrieve all active vehicles (buses and trains).
  * Sends each vehicle's ID, type, passenger count, CO2 emissions, and position as JSON.
+ * Requests with {@code "delta": true} receive only the vehicles that changed since the
+ * {@code "version"} they send back, see {@link VehicleDeltaEncoder}.
+ * Requests with a {@code "sinceVersion"} get a {@code notModified} reply while the
+ * simulation is unchanged; full snapshots are answered from a {@link ResponseCache}.
  */
 public class GetVehiclesCommand extends SimulatorCommand {
 
   private VisualTransitSimulator simulator;
+  private VehicleDeltaEncoder deltaEncoder;
+  private ResponseCache responseCache;
 
   /**
    * Constructs a new GetVehiclesCommand.
@@ -23,6 +29,8 @@ public class GetVehiclesCommand extends SimulatorCommand {
    */
   public GetVehiclesCommand(VisualTransitSimulator simulator) {
     this.simulator = simulator;
+    this.deltaEncoder = new VehicleDeltaEncoder();
+    this.responseCache = new ResponseCache();
   }
 
   /**
@@ -33,27 +41,66 @@ public class GetVehiclesCommand extends SimulatorCommand {
    */
   @Override
   public void execute(WebServerSession session, JsonObject command) {
+    if (command.has("sinceVersion")) {
+      long stateVersion = simulator.getStateVersion();
+      if (ResponseCache.isNotModified(command, stateVersion)) {
+        session.sendJson(ResponseCache.notModified("getVehicles", stateVersion));
+        return;
+      }
+      if (!isDelta(command)) {
+        session.sendText(responseCache.get("full", stateVersion, this::getVehicles),
+            "updateVehicles");
+        return;
+      }
+    }
+
+    if (isDelta(command)) {
+      List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+      updateAlpha(vehicles);
+      long clientVersion = -1;
+      if (command.has("version")) {
+        clientVersion = command.get("version").getAsLong();
+      }
+      JsonObject data = deltaEncoder.encode(vehicles, clientVersion);
+      if (command.has("sinceVersion")) {
+        data.addProperty("stateVersion", simulator.getStateVersion());
+      }
+      session.sendJson(data);
+      return;
+    }
+
+    session.sendJson(getVehicles());
+  }
+
+  private static boolean isDelta(JsonObject command) {
+    return command.has("delta") && command.get("delta").getAsBoolean();
+  }
+
+  private JsonObject getVehicles() {
     List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+    updateAlpha(vehicles);
+
     JsonObject data = new JsonObject();
     data.addProperty("command", "updateVehicles");
 
     JsonArray vehiclesArray = new JsonArray();
 
     for (int i = 0; i < vehicles.size(); i++) {
-      VehicleInterface currVehicle = vehicles.get(i);
-      JsonObject s = new JsonObject();
-
-      s.addProperty("id", currVehicle.getId());
-      s.addProperty("numPassengers", currVehicle.getPassengers().size());
-      s.addProperty("capacity", currVehicle.getCapacity());
-      s.addProperty("type", currVehicle.getVehicleType());
-      s.addProperty("co2", currVehicle.getCurrentCO2Emission());
+      vehiclesArray.add(VehicleDeltaEncoder.toJson(vehicles.get(i)));
+    }
 
-      JsonObject positionJsonObject = new JsonObject();
-      positionJsonObject.addProperty("longitude", currVehicle.getPosition().getLongitude());
-      positionJsonObject.addProperty("latitude", currVehicle.getPosition().getLatitude());
-      s.add("position", positionJsonObject);
+    data.add("vehicles", vehiclesArray);
+    return data;
+  }
 
+  /**
+   * Dims the color of vehicles whose line has an issue.
+   *
+   * @param vehicles the active vehicles
+   */
+  static void updateAlpha(List<VehicleInterface> vehicles) {
+    for (int i = 0; i < vehicles.size(); i++) {
+      VehicleInterface currVehicle = vehicles.get(i);
       if (currVehicle instanceof ColorDecorator) {
         ColorDecorator color = (ColorDecorator) currVehicle;
         if (currVehicle.getLine().isIssueExist()) {
@@ -61,12 +108,7 @@ public class GetVehiclesCommand extends SimulatorCommand {
         } else {
           color.setAlpha(255);
         }
-        s.add("color", color.getJsonColor());
       }
-      vehiclesArray.add(s);
     }
-
-    data.add("vehicles", vehiclesArray);
-    session.sendJson(data);
   }
 }
@@ -0,0 +1,527 @@
+package webserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import model.Line;
+
+/**
+ * Imports the lines of a GTFS feed into a {@link NetworkTemplate}, so a
+ * directory with {@code stops.txt}, {@code routes.txt}, {@code trips.txt} and
+ * {@code stop_times.txt} can be simulated like a configuration file.
+ *
+ * <p>Every GTFS route becomes a line. Its outbound and inbound routes follow
+ * the trip with the most stops in direction 0 and 1; a route served in one
+ * direction only is reversed for the inbound route. The feed has no demand,
+ * so the probability of passengers appearing at a stop is proportional to the
+ * number of trips that serve it, up to {@link #MAX_PROBABILITY}.
+ *
+ * <p>The files are streamed row by row. Memory grows with the number of
+ * trips and stops, but never with the number of stop times: those are read
+ * twice, once to count them and once to keep the rows of the chosen trips.
+ */
+public class GtfsImporter {
+  public static final String STOPS_FILE = "stops.txt";
+  public static final String ROUTES_FILE = "routes.txt";
+  public static final String TRIPS_FILE = "trips.txt";
+  public static final String STOP_TIMES_FILE = "stop_times.txt";
+  static final String[] FEED_FILES = {STOPS_FILE, ROUTES_FILE, TRIPS_FILE, STOP_TIMES_FILE};
+  static final double MAX_PROBABILITY = 0.3;
+
+  private final File feedDirectory;
+  private final Set<String> routeIds;
+  private final List<String> gtfsRouteIds = new ArrayList<String>();
+  private final Map<String, String[]> routeInfo = new HashMap<String, String[]>();
+  private final Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+  private final Map<String, Pattern> tripPatterns = new HashMap<String, Pattern>();
+  private final Map<String, int[]> tripStopCounts = new HashMap<String, int[]>();
+  private final Map<String, int[]> stopTripCounts = new HashMap<String, int[]>();
+  // longitude and latitude of each stop, or null until it is read from stops.txt
+  private final Map<String, double[]> stopCoordinates = new HashMap<String, double[]>();
+  private final Map<String, String> stopNames = new HashMap<String, String>();
+  private int maxStopTripCount;
+
+  private GtfsImporter(File feedDirectory, Set<String> routeIds) {
+    this.feedDirectory = feedDirectory;
+    this.routeIds = routeIds;
+  }
+
+  /**
+   * Imports all routes of a GTFS feed.
+   *
+   * @param feedDirectory directory with the files of the feed
+   * @return the template of the feed
+   * @throws IOException if a file cannot be read
+   * @throws ConfigFormatException if a file is malformed
+   */
+  public static NetworkTemplate importFeed(File feedDirectory) throws IOException {
+    return importFeed(feedDirectory, null);
+  }
+
+  /**
+   * Imports some routes of a GTFS feed.
+   *
+   * @param feedDirectory directory with the files of the feed
+   * @param routeIds      GTFS identifiers of the routes to import, or null to
+   *                      import all of them
+   * @return the template of the feed
+   * @throws IOException if a file cannot be read
+   * @throws ConfigFormatException if a file is malformed
+   */
+  public static NetworkTemplate importFeed(File feedDirectory, Set<String> routeIds)
+      throws IOException {
+    GtfsImporter importer = new GtfsImporter(feedDirectory, routeIds);
+    importer.readRoutes();
+    importer.readTrips();
+    importer.countStopTimes();
+    importer.readStopTimes();
+    importer.readStops();
+    return importer.createTemplate();
+  }
+
+  /**
+   * Checks whether a directory holds a GTFS feed.
+   *
+   * @param directory the directory
+   * @return true if all files read by the importer exist
+   */
+  public static boolean isFeed(File directory) {
+    for (String fileName : FEED_FILES) {
+      if (!new File(directory, fileName).isFile()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void readRoutes() throws IOException {
+    try (CsvReader reader = open(ROUTES_FILE)) {
+      int routeIdColumn = reader.getColumn("route_id", true);
+      int shortNameColumn = reader.getColumn("route_short_name", false);
+      int longNameColumn = reader.getColumn("route_long_name", false);
+      int typeColumn = reader.getColumn("route_type", true);
+      while (reader.next()) {
+        String routeId = reader.get(routeIdColumn);
+        if (routeIds != null && !routeIds.contains(routeId)) {
+          continue;
+        }
+        String name = reader.get(shortNameColumn);
+        if (name.isEmpty()) {
+          name = reader.get(longNameColumn);
+        }
+        gtfsRouteIds.add(routeId);
+        routeInfo.put(routeId, new String[] {name.isEmpty() ? routeId : name,
+            getLineType(reader.getInt(typeColumn))});
+      }
+    }
+  }
+
+  /**
+   * Gets the line type of a GTFS route type.
+   * Trams, subways, rail, cable trams, funiculars and monorails are trains,
+   * other types are buses.
+   *
+   * @param routeType basic or extended GTFS route type
+   * @return {@link Line#TRAIN_LINE} or {@link Line#BUS_LINE}
+   */
+  static String getLineType(int routeType) {
+    switch (routeType) {
+      case 0:
+      case 1:
+      case 2:
+      case 5:
+      case 7:
+      case 12:
+        return Line.TRAIN_LINE;
+      default:
+        // extended types: railway, urban railway, tram and funicular services
+        boolean rail = (routeType >= 100 && routeType < 200)
+            || (routeType >= 400 && routeType < 500)
+            || (routeType >= 900 && routeType < 1000)
+            || (routeType >= 1400 && routeType < 1500);
+        return rail ? Line.TRAIN_LINE : Line.BUS_LINE;
+    }
+  }
+
+  private void readTrips() throws IOException {
+    try (CsvReader reader = open(TRIPS_FILE)) {
+      int routeIdColumn = reader.getColumn("route_id", true);
+      int tripIdColumn = reader.getColumn("trip_id", true);
+      int directionColumn = reader.getColumn("direction_id", false);
+      int headsignColumn = reader.getColumn("trip_headsign", false);
+      while (reader.next()) {
+        String routeId = reader.get(routeIdColumn);
+        if (!routeInfo.containsKey(routeId)) {
+          continue;
+        }
+        int direction = reader.get(directionColumn).equals("1") ? 1 : 0;
+        String key = routeId + "\u0000" + direction;
+        Pattern pattern = patterns.get(key);
+        if (pattern == null) {
+          pattern = new Pattern();
+          patterns.put(key, pattern);
+        }
+        String tripId = reader.get(tripIdColumn);
+        tripPatterns.put(tripId, pattern);
+        tripStopCounts.put(tripId, new int[1]);
+        if (pattern.headsign.isEmpty()) {
+          pattern.headsign = reader.get(headsignColumn);
+        }
+      }
+    }
+  }
+
+  private void countStopTimes() throws IOException {
+    try (CsvReader reader = open(STOP_TIMES_FILE)) {
+      int tripIdColumn = reader.getColumn("trip_id", true);
+      int stopIdColumn = reader.getColumn("stop_id", true);
+      while (reader.next()) {
+        int[] tripStopCount = tripStopCounts.get(reader.get(tripIdColumn));
+        if (tripStopCount == null) {
+          continue;
+        }
+        tripStopCount[0]++;
+        int[] stopTripCount = stopTripCounts.get(reader.get(stopIdColumn));
+        if (stopTripCount == null) {
+          stopTripCount = new int[1];
+          stopTripCounts.put(reader.get(stopIdColumn), stopTripCount);
+        }
+        stopTripCount[0]++;
+        maxStopTripCount = Math.max(maxStopTripCount, stopTripCount[0]);
+      }
+    }
+    for (Map.Entry<String, Pattern> entry : tripPatterns.entrySet()) {
+      Pattern pattern = entry.getValue();
+      int numStops = tripStopCounts.get(entry.getKey())[0];
+      // ties go to the smallest identifier, so the choice does not depend on hashing
+      if (numStops > pattern.numStops || (numStops == pattern.numStops && numStops > 0
+          && entry.getKey().compareTo(pattern.tripId) < 0)) {
+        pattern.tripId = entry.getKey();
+        pattern.numStops = numStops;
+      }
+    }
+    tripStopCounts.clear();
+  }
+
+  private void readStopTimes() throws IOException {
+    Map<String, Pattern> chosenTrips = new HashMap<String, Pattern>();
+    for (Pattern pattern : patterns.values()) {
+      if (pattern.tripId != null) {
+        chosenTrips.put(pattern.tripId, pattern);
+      }
+    }
+    tripPatterns.clear();
+    try (CsvReader reader = open(STOP_TIMES_FILE)) {
+      int tripIdColumn = reader.getColumn("trip_id", true);
+      int stopIdColumn = reader.getColumn("stop_id", true);
+      int sequenceColumn = reader.getColumn("stop_sequence", true);
+      while (reader.next()) {
+        Pattern pattern = chosenTrips.get(reader.get(tripIdColumn));
+        if (pattern != null) {
+          pattern.stopTimes.add(new StopTime(reader.getInt(sequenceColumn),
+              reader.get(stopIdColumn)));
+          stopCoordinates.put(reader.get(stopIdColumn), null);
+        }
+      }
+    }
+    for (Pattern pattern : chosenTrips.values()) {
+      Collections.sort(pattern.stopTimes);
+    }
+  }
+
+  private void readStops() throws IOException {
+    try (CsvReader reader = open(STOPS_FILE)) {
+      int stopIdColumn = reader.getColumn("stop_id", true);
+      int nameColumn = reader.getColumn("stop_name", false);
+      int latitudeColumn = reader.getColumn("stop_lat", true);
+      int longitudeColumn = reader.getColumn("stop_lon", true);
+      while (reader.next()) {
+        String stopId = reader.get(stopIdColumn);
+        if (stopCoordinates.containsKey(stopId)) {
+          String name = reader.get(nameColumn);
+          stopNames.put(stopId, name.isEmpty() ? stopId : name);
+          stopCoordinates.put(stopId, new double[] {reader.getDouble(longitudeColumn),
+              reader.getDouble(latitudeColumn)});
+        }
+      }
+    }
+  }
+
+  private NetworkTemplate createTemplate() {
+    List<NetworkTemplate.RouteTemplate> routes = new ArrayList<NetworkTemplate.RouteTemplate>();
+    List<NetworkTemplate.LineTemplate> lines = new ArrayList<NetworkTemplate.LineTemplate>();
+    for (String routeId : gtfsRouteIds) {
+      Pattern outbound = patterns.get(routeId + "\u0000" + 0);
+      Pattern inbound = patterns.get(routeId + "\u0000" + 1);
+      List<String> outboundStops = getStopIds(outbound);
+      List<String> inboundStops = getStopIds(inbound);
+      if (outboundStops.isEmpty()) {
+        outbound = inbound;
+        outboundStops = inboundStops;
+        inboundStops = new ArrayList<String>();
+      }
+      if (outboundStops.isEmpty()) {
+        continue;
+      }
+      String outboundName = outbound.headsign;
+      String inboundName = "";
+      if (inboundStops.isEmpty()) {
+        inboundStops = new ArrayList<String>(outboundStops);
+        Collections.reverse(inboundStops);
+      } else {
+        inboundName = inbound.headsign;
+      }
+      routes.add(createRoute(outboundName.isEmpty() ? "Outbound" : outboundName, outboundStops));
+      routes.add(createRoute(inboundName.isEmpty() ? "Inbound" : inboundName, inboundStops));
+      String[] info = routeInfo.get(routeId);
+      lines.add(new NetworkTemplate.LineTemplate(info[0], info[1], routes.size() - 2,
+          routes.size() - 1, routes.size()));
+    }
+    return new NetworkTemplate(routes, lines, null);
+  }
+
+  private List<String> getStopIds(Pattern pattern) {
+    List<String> stopIds = new ArrayList<String>();
+    if (pattern == null) {
+      return stopIds;
+    }
+    Set<String> stopIdsInTheRoute = new HashSet<String>();
+    for (StopTime stopTime : pattern.stopTimes) {
+      // stops missing from stops.txt are left out, as are repeated visits of loops
+      if (stopCoordinates.get(stopTime.stopId) != null
+          && stopIdsInTheRoute.add(stopTime.stopId)) {
+        stopIds.add(stopTime.stopId);
+      }
+    }
+    return stopIds;
+  }
+
+  private NetworkTemplate.RouteTemplate createRoute(String name, List<String> stopIds) {
+    double[] longitudes = new double[stopIds.size()];
+    double[] latitudes = new double[stopIds.size()];
+    List<String> names = new ArrayList<String>(stopIds.size());
+    List<Double> probabilities = new ArrayList<Double>(stopIds.size());
+    for (int i = 0; i < stopIds.size(); i++) {
+      double[] coordinates = stopCoordinates.get(stopIds.get(i));
+      longitudes[i] = coordinates[0];
+      latitudes[i] = coordinates[1];
+      names.add(stopNames.get(stopIds.get(i)));
+      // nobody boards at the last stop of a route
+      probabilities.add(i == stopIds.size() - 1 ? 0
+          : MAX_PROBABILITY * stopTripCounts.get(stopIds.get(i))[0] / maxStopTripCount);
+    }
+    return new NetworkTemplate.RouteTemplate(name, names, probabilities,
+        ConfigParser.createGeometry(longitudes, latitudes, stopIds.size()));
+  }
+
+  private CsvReader open(String fileName) throws IOException {
+    File file = new File(feedDirectory, fileName);
+    return new CsvReader(fileName, new InputStreamReader(Files.newInputStream(file.toPath()),
+        StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The trips of a GTFS route in one direction.
+   */
+  private static class Pattern {
+    private String headsign = "";
+    private String tripId;
+    private int numStops;
+    private List<StopTime> stopTimes = new ArrayList<StopTime>();
+  }
+
+  /**
+   * A stop of the chosen trip of a pattern.
+   */
+  private static class StopTime implements Comparable<StopTime> {
+    private final int sequence;
+    private final String stopId;
+
+    StopTime(int sequence, String stopId) {
+      this.sequence = sequence;
+      this.stopId = stopId;
+    }
+
+    @Override
+    public int compareTo(StopTime other) {
+      return Integer.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * Reads the rows of a CSV file one at a time, as specified by RFC 4180.
+   * Fields may be quoted, with doubled quotes for quotes and line breaks in
+   * the field; the first row holds the names of the columns.
+   */
+  static class CsvReader implements AutoCloseable {
+    private final String fileName;
+    private final Reader reader;
+    private final char[] buffer = new char[1 << 16];
+    private final Map<String, Integer> columns = new HashMap<String, Integer>();
+    private final List<String> fields = new ArrayList<String>();
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private int lineNumber;
+    private int rowLineNumber;
+
+    /**
+     * Opens a CSV file and reads its header.
+     *
+     * @param fileName name of the file, for error messages
+     * @param reader   the contents of the file
+     * @throws IOException if the file cannot be read
+     */
+    CsvReader(String fileName, Reader reader) throws IOException {
+      this.fileName = fileName;
+      this.reader = reader;
+      if (peek() == '\uFEFF') {
+        position++;
+      }
+      if (next()) {
+        for (int i = 0; i < fields.size(); i++) {
+          columns.put(fields.get(i).trim(), i);
+        }
+      }
+    }
+
+    /**
+     * Gets the index of a column.
+     *
+     * @param name     name of the column
+     * @param required whether the file must have the column
+     * @return index of the column, or -1 if an optional column is missing
+     */
+    int getColumn(String name, boolean required) {
+      Integer column = columns.get(name);
+      if (column == null && required) {
+        throw new ConfigFormatException(1, fileName + ": missing column " + name);
+      }
+      return column == null ? -1 : column;
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return false at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    boolean next() throws IOException {
+      fields.clear();
+      while (peek() == '\n' || peek() == '\r') {
+        endLine();
+      }
+      if (peek() < 0) {
+        return false;
+      }
+      lineNumber++;
+      rowLineNumber = lineNumber;
+      while (true) {
+        field.setLength(0);
+        int c = read();
+        if (c == '"') {
+          while (true) {
+            c = read();
+            if (c < 0) {
+              throw new ConfigFormatException(rowLineNumber, fileName + ": unterminated quote");
+            } else if (c == '"' && peek() == '"') {
+              field.append('"');
+              position++;
+            } else if (c == '"') {
+              c = read();
+              break;
+            } else {
+              if (c == '\n') {
+                lineNumber++;
+              }
+              field.append((char) c);
+            }
+          }
+        }
+        while (c >= 0 && c != ',' && c != '\n' && c != '\r') {
+          field.append((char) c);
+          c = read();
+        }
+        fields.add(field.toString());
+        if (c != ',') {
+          if (c == '\r' && peek() == '\n') {
+            position++;
+          }
+          return true;
+        }
+      }
+    }
+
+    /**
+     * Gets a field of the current row.
+     *
+     * @param column index of the column, or -1 for a missing column
+     * @return the trimmed field, or an empty string if it is missing
+     */
+    String get(int column) {
+      return column < 0 || column >= fields.size() ? "" : fields.get(column).trim();
+    }
+
+    int getInt(int column) {
+      String text = get(column);
+      try {
+        return Integer.parseInt(text);
+      } catch (NumberFormatException ex) {
+        throw new ConfigFormatException(rowLineNumber,
+            fileName + ": invalid integer \"" + text + "\"", ex);
+      }
+    }
+
+    double getDouble(int column) {
+      String text = get(column);
+      try {
+        return Double.parseDouble(text);
+      } catch (NumberFormatException ex) {
+        throw new ConfigFormatException(rowLineNumber,
+            fileName + ": invalid number \"" + text + "\"", ex);
+      }
+    }
+
+    private void endLine() throws IOException {
+      if (read() == '\r' && peek() == '\n') {
+        position++;
+      }
+      lineNumber++;
+    }
+
+    private int peek() throws IOException {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return -1;
+        }
+      }
+      return buffer[position];
+    }
+
+    private int read() throws IOException {
+      int c = peek();
+      if (c >= 0) {
+        position++;
+      }
+      return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+}
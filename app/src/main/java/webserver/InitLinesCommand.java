@@ -2,12 +2,14 @@ package webserver;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import java.util.List;
 import model.Line;
 
 /**
  * Handles web requests to initialize line data in the simulation.
  * Collects all lines (each with inbound and outbound routes) and sends their
- * IDs, names, and types to the client as JSON for visualization.
+ * IDs, names, and types to the client as JSON for visualization, together with
+ * the {@link RouteTopology} of their routes.
  */
 public class InitLinesCommand extends SimulatorCommand {
 
@@ -30,21 +32,31 @@ public class InitLinesCommand extends SimulatorCommand {
    */
   @Override
   public void execute(WebServerSession session, JsonObject command) {
-    int numLines = simulator.getLines().size();
+    session.sendJson(toJson(simulator.getLines()));
+  }
+
+  /**
+   * Creates the message describing the lines and the topology of their routes.
+   *
+   * @param lines lines of the simulation
+   * @return the initLines message
+   */
+  public static JsonObject toJson(List<Line> lines) {
     JsonObject data = new JsonObject();
     data.addProperty("command", "initLines");
-    data.addProperty("numLines", numLines);
+    data.addProperty("numLines", lines.size());
     JsonArray linesArray = new JsonArray();
-    for (int i = 0; i < simulator.getLines().size(); i++) {
+    for (int i = 0; i < lines.size(); i++) {
       JsonObject s = new JsonObject();
-      Line line = simulator.getLines().get(i);
+      Line line = lines.get(i);
       s.addProperty("id", line.getId());
       s.addProperty("name", line.getName());
       s.addProperty("type", line.getType());
       linesArray.add(s);
     }
     data.add("lines", linesArray);
-    session.sendJson(data);
+    data.add("topology", new RouteTopology(lines).toJson());
+    return data;
   }
 
 }
@@ -36,6 +36,7 @@ public class LineIssueCommand extends SimulatorCommand {
         line.createIssue();
       }
     }
+    simulator.markStateChanged();
   }
 
 }
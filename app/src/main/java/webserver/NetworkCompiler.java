@@ -0,0 +1,355 @@
+package webserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import model.RouteGeometry;
+
+/**
+ * Compiles configuration files into a binary network file, so simulations can
+ * start by memory-mapping it instead of parsing text.
+ * The text file stays the source of truth: compiled files are a cache, named
+ * by the SHA-256 hash of the text they were compiled from, in the directory
+ * given by the {@code vts.networkCache} system property or in the temporary
+ * directory. A configuration that changes gets a new hash and is compiled again.
+ *
+ * <p>The file is big-endian and holds the magic number and format version,
+ * the hash of the text, the storage facility counts, then for every route its
+ * name, and the name, latitude, longitude and probability of each stop
+ * followed by the distances between subsequent stops, and lastly every line
+ * with its name, type, the indices of its routes and the number of routes
+ * defined before it. Strings are stored as a length and UTF-8 bytes.
+ */
+public class NetworkCompiler {
+  static final int MAGIC = 0x5654534e;
+  static final int FORMAT_VERSION = 1;
+  static final int HASH_SIZE = 32;
+  static final String EXTENSION = ".vtsn";
+
+  /**
+   * Directory of the compiled network files, set by the
+   * {@code vts.networkCache} system property.
+   */
+  private static final File CACHE_DIRECTORY = new File(System.getProperty("vts.networkCache",
+      new File(System.getProperty("java.io.tmpdir"), "visual-transit-simulator").getPath()));
+
+  private NetworkCompiler() {
+  }
+
+  /**
+   * Loads the template of a configuration file.
+   * The compiled file is used if one exists for the current contents of the
+   * text file; otherwise the text is parsed and compiled for the next load.
+   *
+   * @param configFile the configuration file
+   * @return the template of the file
+   * @throws IOException if the configuration file cannot be read
+   */
+  public static NetworkTemplate load(File configFile) throws IOException {
+    return load(configFile, CACHE_DIRECTORY);
+  }
+
+  /**
+   * Loads the template of a configuration file using the given cache directory.
+   *
+   * @param configFile     the configuration file
+   * @param cacheDirectory directory of the compiled network files
+   * @return the template of the file
+   * @throws IOException if the configuration file cannot be read
+   */
+  static NetworkTemplate load(File configFile, File cacheDirectory) throws IOException {
+    try (FileChannel channel = FileChannel.open(configFile.toPath(), StandardOpenOption.READ)) {
+      ByteBuffer text = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      byte[] hash = hash(text.duplicate());
+      File compiledFile = getCompiledFile(cacheDirectory, hash);
+      if (compiledFile.isFile()) {
+        try {
+          return read(compiledFile, hash);
+        } catch (IOException | IllegalArgumentException ex) {
+          // a damaged or outdated file is silently compiled again
+        }
+      }
+      NetworkTemplate template = ConfigParser.parse(text);
+      try {
+        write(template, hash, compiledFile);
+      } catch (IOException ex) {
+        // the simulation still starts from the parsed text
+        System.err.println("Cannot cache the compiled network: " + ex);
+      }
+      return template;
+    }
+  }
+
+  /**
+   * Compiles a configuration file.
+   *
+   * @param configFile   the configuration file
+   * @param compiledFile the file to write, which is replaced atomically
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void compile(File configFile, File compiledFile) throws IOException {
+    byte[] text = Files.readAllBytes(configFile.toPath());
+    NetworkTemplate template = ConfigParser.parse(ByteBuffer.wrap(text));
+    write(template, hash(ByteBuffer.wrap(text)), compiledFile);
+  }
+
+  /**
+   * Gets the compiled file for configuration text with the given hash.
+   *
+   * @param cacheDirectory directory of the compiled network files
+   * @param hash           SHA-256 hash of the configuration text
+   * @return the file in the cache directory
+   */
+  static File getCompiledFile(File cacheDirectory, byte[] hash) {
+    StringBuilder name = new StringBuilder();
+    for (byte b : hash) {
+      name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+    }
+    return new File(cacheDirectory, name.append(EXTENSION).toString());
+  }
+
+  /**
+   * Computes the SHA-256 hash of configuration text.
+   *
+   * @param text the bytes of the text, from its position to its limit
+   * @return the hash
+   */
+  static byte[] hash(ByteBuffer text) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(text);
+      return digest.digest();
+    } catch (NoSuchAlgorithmException ex) {
+      // every Java platform is required to support SHA-256
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Writes a compiled network file.
+   *
+   * @param template     the template to write
+   * @param hash         SHA-256 hash of the configuration text
+   * @param compiledFile the file to write, which is replaced atomically
+   * @throws IOException if the file cannot be written
+   */
+  static void write(NetworkTemplate template, byte[] hash, File compiledFile)
+      throws IOException {
+    Path target = compiledFile.getAbsoluteFile().toPath();
+    Files.createDirectories(target.getParent());
+    Path temporary = Files.createTempFile(target.getParent(), compiledFile.getName(), ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        ByteBuffer data = encode(template, hash);
+        out.write(data.array(), 0, data.limit());
+      }
+      Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /**
+   * Reads a compiled network file.
+   *
+   * @param compiledFile the compiled file
+   * @param hash         expected SHA-256 hash of the configuration text, or
+   *                     null to accept any
+   * @return the template in the file
+   * @throws IOException if the file cannot be read
+   * @throws IllegalArgumentException if the file is not a compiled network of
+   *                                  the expected text
+   */
+  public static NetworkTemplate read(File compiledFile, byte[] hash) throws IOException {
+    try (FileChannel channel = FileChannel.open(compiledFile.toPath(), StandardOpenOption.READ)) {
+      return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), hash);
+    }
+  }
+
+  /**
+   * Encodes a template.
+   *
+   * @param template the template
+   * @param hash     SHA-256 hash of the configuration text
+   * @return a heap buffer from 0 to the length of the encoded network
+   */
+  static ByteBuffer encode(NetworkTemplate template, byte[] hash) {
+    ByteBuffer data = ByteBuffer.allocate(4096);
+    while (true) {
+      try {
+        data.clear();
+        putNetwork(data, template, hash);
+        data.flip();
+        return data;
+      } catch (BufferOverflowException ex) {
+        data = ByteBuffer.allocate(data.capacity() * 2);
+      }
+    }
+  }
+
+  private static void putNetwork(ByteBuffer data, NetworkTemplate template, byte[] hash) {
+    data.putInt(MAGIC);
+    data.putInt(FORMAT_VERSION);
+    data.put(hash);
+    int[] storageCounts = template.getStorageCounts();
+    data.put((byte) (storageCounts == null ? 0 : 1));
+    for (int i = 0; i < 4; i++) {
+      data.putInt(storageCounts == null ? -1 : storageCounts[i]);
+    }
+    List<NetworkTemplate.RouteTemplate> routes = template.getRoutes();
+    data.putInt(routes.size());
+    for (NetworkTemplate.RouteTemplate route : routes) {
+      putString(data, route.getName());
+      RouteGeometry geometry = route.getGeometry();
+      data.putInt(route.getNumStops());
+      for (int i = 0; i < route.getNumStops(); i++) {
+        putString(data, route.getStopName(i));
+        data.putDouble(geometry.getLatitude(i));
+        data.putDouble(geometry.getLongitude(i));
+        data.putDouble(route.getProbability(i));
+      }
+      for (int i = 0; i < route.getNumStops() - 1; i++) {
+        data.putDouble(geometry.getSegmentLength(i));
+      }
+    }
+    List<NetworkTemplate.LineTemplate> lines = template.getLines();
+    data.putInt(lines.size());
+    for (NetworkTemplate.LineTemplate line : lines) {
+      putString(data, line.getName());
+      putString(data, line.getType());
+      data.putInt(line.getOutboundRouteIndex());
+      data.putInt(line.getInboundRouteIndex());
+      data.putInt(line.getNumRoutesDefined());
+    }
+  }
+
+  /**
+   * Decodes a template.
+   *
+   * @param data the encoded network, from its position to its limit
+   * @param hash expected SHA-256 hash of the configuration text, or null to
+   *             accept any
+   * @return the template
+   * @throws IllegalArgumentException if the data is not a compiled network of
+   *                                  the expected text
+   */
+  static NetworkTemplate decode(ByteBuffer data, byte[] hash) {
+    try {
+      if (data.getInt() != MAGIC) {
+        throw new IllegalArgumentException("Not a compiled network");
+      }
+      int formatVersion = data.getInt();
+      if (formatVersion != FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unsupported format version " + formatVersion);
+      }
+      byte[] compiledHash = new byte[HASH_SIZE];
+      data.get(compiledHash);
+      if (hash != null && !MessageDigest.isEqual(hash, compiledHash)) {
+        throw new IllegalArgumentException("Compiled from a different configuration");
+      }
+      boolean hasStorageFacility = data.get() != 0;
+      int[] storageCounts = new int[4];
+      for (int i = 0; i < storageCounts.length; i++) {
+        storageCounts[i] = data.getInt();
+      }
+      int numRoutes = getCount(data);
+      List<NetworkTemplate.RouteTemplate> routes =
+          new ArrayList<NetworkTemplate.RouteTemplate>(numRoutes);
+      for (int i = 0; i < numRoutes; i++) {
+        String name = getString(data);
+        int numStops = getCount(data);
+        String[] stopNames = new String[numStops];
+        double[] latitudes = new double[numStops];
+        double[] longitudes = new double[numStops];
+        double[] probabilities = new double[numStops];
+        double[] segmentLengths = new double[Math.max(0, numStops - 1)];
+        for (int j = 0; j < numStops; j++) {
+          stopNames[j] = getString(data);
+          latitudes[j] = data.getDouble();
+          longitudes[j] = data.getDouble();
+          probabilities[j] = data.getDouble();
+        }
+        for (int j = 0; j < segmentLengths.length; j++) {
+          segmentLengths[j] = data.getDouble();
+        }
+        routes.add(new NetworkTemplate.RouteTemplate(name, stopNames, probabilities,
+            new RouteGeometry(longitudes, latitudes, segmentLengths)));
+      }
+      int numLines = getCount(data);
+      List<NetworkTemplate.LineTemplate> lines =
+          new ArrayList<NetworkTemplate.LineTemplate>(numLines);
+      for (int i = 0; i < numLines; i++) {
+        String name = getString(data);
+        String type = getString(data);
+        int outboundRouteIndex = data.getInt();
+        int inboundRouteIndex = data.getInt();
+        int numRoutesDefined = data.getInt();
+        if (outboundRouteIndex < 0 || inboundRouteIndex < 0
+            || Math.max(outboundRouteIndex, inboundRouteIndex) >= numRoutesDefined
+            || numRoutesDefined > numRoutes) {
+          throw new IllegalArgumentException("Line " + name + " uses undefined routes");
+        }
+        lines.add(new NetworkTemplate.LineTemplate(name, type, outboundRouteIndex,
+            inboundRouteIndex, numRoutesDefined));
+      }
+      return new NetworkTemplate(routes, lines, hasStorageFacility ? storageCounts : null);
+    } catch (BufferUnderflowException ex) {
+      throw new IllegalArgumentException("Compiled network is truncated", ex);
+    }
+  }
+
+  private static int getCount(ByteBuffer data) {
+    int count = data.getInt();
+    if (count < 0 || count > data.remaining()) {
+      throw new IllegalArgumentException("Invalid count " + count);
+    }
+    return count;
+  }
+
+  private static void putString(ByteBuffer data, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    data.putInt(bytes.length);
+    data.put(bytes);
+  }
+
+  private static String getString(ByteBuffer data) {
+    byte[] bytes = new byte[getCount(data)];
+    data.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Compiles a configuration file ahead of time.
+   * Usage: {@code NetworkCompiler <configFile> [compiledFile]}
+   * Without a compiled file, the network is written to the cache directory.
+   *
+   * @param args command line arguments
+   * @throws IOException if a file cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: NetworkCompiler <configFile> [compiledFile]");
+      System.exit(1);
+    }
+    File configFile = new File(args[0]);
+    File compiledFile = args.length > 1 ? new File(args[1])
+        : getCompiledFile(CACHE_DIRECTORY,
+            hash(ByteBuffer.wrap(Files.readAllBytes(configFile.toPath()))));
+    compile(configFile, compiledFile);
+    System.out.println("Compiled " + configFile + " to " + compiledFile);
+  }
+}
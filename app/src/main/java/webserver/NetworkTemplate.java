@@ -0,0 +1,261 @@
+package webserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import model.Counter;
+import model.Issue;
+import model.Line;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.RouteGeometry;
+import model.Stop;
+import model.StorageFacility;
+
+/**
+ * Immutable, parsed form of a configuration file, see {@link ConfigManager}.
+ * The template holds the names, coordinates and probabilities of the network
+ * and the compiled {@link RouteGeometry} of every route. Each simulation
+ * instantiates it into its own lines, routes and stops, which hold the
+ * mutable state; the geometry is shared, since it never changes.
+ */
+public class NetworkTemplate {
+
+  private final List<RouteTemplate> routes;
+  private final List<LineTemplate> lines;
+  private final int[] storageCounts;
+
+  /**
+   * Constructor for a network template.
+   *
+   * @param routes        routes in the order they are defined
+   * @param lines         lines in the order they are defined
+   * @param storageCounts small buses, large buses, electric trains and diesel
+   *                      trains in storage, with -1 for counts that are not
+   *                      configured, or null if there is no storage facility
+   */
+  NetworkTemplate(List<RouteTemplate> routes, List<LineTemplate> lines, int[] storageCounts) {
+    this.routes = Collections.unmodifiableList(new ArrayList<RouteTemplate>(routes));
+    this.lines = Collections.unmodifiableList(new ArrayList<LineTemplate>(lines));
+    this.storageCounts = storageCounts == null ? null : storageCounts.clone();
+  }
+
+  /**
+   * Creates the lines of a new simulation.
+   * Identifiers are taken from the counter in the order the configuration file
+   * defines the stops, routes and lines, as if the file was read again.
+   *
+   * @param counter counter for identifiers
+   * @return new lines, with new routes and stops
+   */
+  public List<Line> instantiate(Counter counter) {
+    return instantiate(counter, null);
+  }
+
+  /**
+   * Creates the lines of a new seeded simulation.
+   * Every route gets its own random stream, split from the given one in the
+   * order the routes are defined, so the same seed gives the same passengers
+   * whichever order the routes are updated in.
+   *
+   * @param counter counter for identifiers
+   * @param random  random stream of the simulation, or null for unseeded
+   *                passenger generation
+   * @return new lines, with new routes and stops
+   */
+  public List<Line> instantiate(Counter counter, SplittableRandom random) {
+    List<Route> instantiatedRoutes = new ArrayList<Route>();
+    List<Line> instantiatedLines = new ArrayList<Line>();
+    int nextLine = 0;
+    for (int i = 0; i <= routes.size(); i++) {
+      // lines end after the routes they use were defined
+      while (nextLine < lines.size() && lines.get(nextLine).numRoutesDefined == i) {
+        LineTemplate line = lines.get(nextLine);
+        instantiatedLines.add(new Line(counter.getLineIdCounterAndIncrement(),
+            line.name, line.type, instantiatedRoutes.get(line.outboundRouteIndex),
+            instantiatedRoutes.get(line.inboundRouteIndex), new Issue()));
+        nextLine++;
+      }
+      if (i < routes.size()) {
+        instantiatedRoutes.add(routes.get(i).instantiate(counter,
+            random == null ? new SplittableRandom() : random.split()));
+      }
+    }
+    return instantiatedLines;
+  }
+
+  /**
+   * Creates the storage facility of a new simulation.
+   *
+   * @return new storage facility, or null if none is configured
+   */
+  public StorageFacility instantiateStorageFacility() {
+    if (storageCounts == null) {
+      return null;
+    }
+    StorageFacility storageFacility = new StorageFacility();
+    if (storageCounts[0] >= 0) {
+      storageFacility.setSmallBusesNum(storageCounts[0]);
+    }
+    if (storageCounts[1] >= 0) {
+      storageFacility.setLargeBusesNum(storageCounts[1]);
+    }
+    if (storageCounts[2] >= 0) {
+      storageFacility.setElectricTrainsNum(storageCounts[2]);
+    }
+    if (storageCounts[3] >= 0) {
+      storageFacility.setDieselTrainsNum(storageCounts[3]);
+    }
+    return storageFacility;
+  }
+
+  public int getNumRoutes() {
+    return routes.size();
+  }
+
+  public int getNumLines() {
+    return lines.size();
+  }
+
+  List<RouteTemplate> getRoutes() {
+    return routes;
+  }
+
+  List<LineTemplate> getLines() {
+    return lines;
+  }
+
+  int[] getStorageCounts() {
+    return storageCounts == null ? null : storageCounts.clone();
+  }
+
+  /**
+   * A route of the template.
+   */
+  static class RouteTemplate {
+    private final String name;
+    private final String[] stopNames;
+    private final double[] probabilities;
+    private final RouteGeometry geometry;
+
+    /**
+     * Constructor for a route template.
+     *
+     * @param name          name of the route
+     * @param stopNames     names of the stops, in order
+     * @param probabilities probabilities of passengers appearing at each stop
+     * @param geometry      coordinates and distances of the stops
+     */
+    RouteTemplate(String name, List<String> stopNames, List<Double> probabilities,
+                  RouteGeometry geometry) {
+      this.name = name;
+      this.stopNames = stopNames.toArray(new String[0]);
+      this.probabilities = new double[probabilities.size()];
+      for (int i = 0; i < this.probabilities.length; i++) {
+        this.probabilities[i] = probabilities.get(i);
+      }
+      this.geometry = geometry;
+    }
+
+    /**
+     * Constructor for a route template that was compiled before.
+     *
+     * @param name          name of the route
+     * @param stopNames     names of the stops, in order
+     * @param probabilities probabilities of passengers appearing at each stop
+     * @param geometry      coordinates and distances of the stops
+     */
+    RouteTemplate(String name, String[] stopNames, double[] probabilities,
+                  RouteGeometry geometry) {
+      this.name = name;
+      this.stopNames = stopNames.clone();
+      this.probabilities = probabilities.clone();
+      this.geometry = geometry;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    int getNumStops() {
+      return stopNames.length;
+    }
+
+    String getStopName(int stopIndex) {
+      return stopNames[stopIndex];
+    }
+
+    double getProbability(int stopIndex) {
+      return probabilities[stopIndex];
+    }
+
+    RouteGeometry getGeometry() {
+      return geometry;
+    }
+
+    private Route instantiate(Counter counter, SplittableRandom random) {
+      List<Stop> stops = new ArrayList<Stop>(stopNames.length);
+      List<Double> stopProbabilities = new ArrayList<Double>(probabilities.length);
+      for (int i = 0; i < stopNames.length; i++) {
+        stops.add(new Stop(counter.getStopIdCounterAndIncrement(), stopNames[i],
+            new Position(geometry.getLongitude(i), geometry.getLatitude(i))));
+      }
+      for (int i = 0; i < probabilities.length; i++) {
+        stopProbabilities.add(probabilities[i]);
+      }
+      return new Route(counter.getRouteIdCounterAndIncrement(), name, stops, geometry,
+          new RandomPassengerGenerator(stops, stopProbabilities, random));
+    }
+  }
+
+  /**
+   * A line of the template.
+   */
+  static class LineTemplate {
+    private final String name;
+    private final String type;
+    private final int outboundRouteIndex;
+    private final int inboundRouteIndex;
+    private final int numRoutesDefined;
+
+    /**
+     * Constructor for a line template.
+     *
+     * @param name               name of the line
+     * @param type               type of the line
+     * @param outboundRouteIndex index of the outbound route in the template
+     * @param inboundRouteIndex  index of the inbound route in the template
+     * @param numRoutesDefined   number of routes defined before the line ends
+     */
+    LineTemplate(String name, String type, int outboundRouteIndex, int inboundRouteIndex,
+                 int numRoutesDefined) {
+      this.name = name;
+      this.type = type;
+      this.outboundRouteIndex = outboundRouteIndex;
+      this.inboundRouteIndex = inboundRouteIndex;
+      this.numRoutesDefined = numRoutesDefined;
+    }
+
+    String getName() {
+      return name;
+    }
+
+    String getType() {
+      return type;
+    }
+
+    int getOutboundRouteIndex() {
+      return outboundRouteIndex;
+    }
+
+    int getInboundRouteIndex() {
+      return inboundRouteIndex;
+    }
+
+    int getNumRoutesDefined() {
+      return numRoutesDefined;
+    }
+  }
+}
@@ -0,0 +1,250 @@
+package webserver;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+
+/**
+ * Queue of the messages waiting to be sent to one client.
+ * Messages are sent asynchronously, one at a time, so the thread that queues a
+ * message, e.g., the one running the simulation, never waits for a slow client.
+ * A message queued with a key replaces the payload of a queued message with the
+ * same key that has not been sent yet, so a client that falls behind receives
+ * the latest snapshot instead of every snapshot in between.
+ * Payloads are created when the message is sent and are either a {@link String}
+ * sent as text or a {@link ByteBuffer} sent as a binary frame.
+ */
+public class OutboundQueue {
+
+  /**
+   * Sends messages without blocking, e.g., through a WebSocket's async remote.
+   */
+  public interface MessageSender {
+    /**
+     * Starts sending a text message.
+     *
+     * @param text    the message
+     * @param handler called once the message has been sent or has failed
+     */
+    void sendText(String text, SendHandler handler);
+
+    /**
+     * Starts sending a binary message.
+     *
+     * @param data    the message
+     * @param handler called once the message has been sent or has failed
+     */
+    void sendBinary(ByteBuffer data, SendHandler handler);
+  }
+
+  private MessageSender sender;
+  private Deque<Message> messages;
+  private Map<String, Message> queuedByKey;
+  private boolean sending;
+  private int maxDepth;
+  private long sentCount;
+  private long coalescedCount;
+  private long failedCount;
+
+  /**
+   * Creates an empty queue.
+   *
+   * @param sender sends the messages to the client
+   */
+  public OutboundQueue(MessageSender sender) {
+    this.sender = sender;
+    this.messages = new ArrayDeque<Message>();
+    this.queuedByKey = new HashMap<String, Message>();
+  }
+
+  /**
+   * Queues a message and starts sending if no message is in flight.
+   *
+   * @param key     key of messages that supersede each other, or null if the
+   *                message must always be sent
+   * @param payload creates the text or binary payload when the message is sent
+   */
+  public void enqueue(String key, Supplier<?> payload) {
+    synchronized (this) {
+      Message queued = key == null ? null : queuedByKey.get(key);
+      if (queued != null) {
+        queued.payload = payload;
+        coalescedCount++;
+        return;
+      }
+      Message message = new Message(key, payload);
+      messages.addLast(message);
+      if (key != null) {
+        queuedByKey.put(key, message);
+      }
+      maxDepth = Math.max(maxDepth, messages.size());
+      if (sending) {
+        return;
+      }
+      sending = true;
+    }
+    sendNext();
+  }
+
+  /**
+   * Drops every message that has not been sent yet.
+   */
+  public synchronized void clear() {
+    messages.clear();
+    queuedByKey.clear();
+  }
+
+  /**
+   * Sends queued messages until one is in flight or the queue is empty.
+   * A send that completes or fails before it returns, e.g., because the
+   * session was closed, continues the loop instead of recursing, so the stack
+   * does not grow with the number of queued messages.
+   */
+  private void sendNext() {
+    while (true) {
+      Message message;
+      synchronized (this) {
+        message = messages.pollFirst();
+        if (message == null) {
+          sending = false;
+          return;
+        }
+        if (message.key != null) {
+          queuedByKey.remove(message.key);
+        }
+      }
+      Delivery delivery = new Delivery();
+      try {
+        Object data = message.payload.get();
+        if (data instanceof ByteBuffer) {
+          sender.sendBinary((ByteBuffer) data, delivery);
+        } else {
+          sender.sendText(data.toString(), delivery);
+        }
+      } catch (RuntimeException ex) {
+        // e.g., the session was closed, the remaining messages are still tried
+        recordFailure(ex);
+        continue;
+      }
+      synchronized (this) {
+        if (!delivery.completed) {
+          delivery.inFlight = true;
+          return;
+        }
+      }
+    }
+  }
+
+  private synchronized void recordFailure(Throwable cause) {
+    if (failedCount == 0) {
+      System.err.println("Outbound message failed: " + cause);
+    }
+    failedCount++;
+  }
+
+  /**
+   * Gets the number of messages waiting to be sent.
+   *
+   * @return the current depth of the queue, without the message in flight
+   */
+  public synchronized int getDepth() {
+    return messages.size();
+  }
+
+  /**
+   * Gets the largest number of messages that waited to be sent at once.
+   *
+   * @return the maximum depth of the queue
+   */
+  public synchronized int getMaxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Gets the number of messages that were sent successfully.
+   *
+   * @return the number of completed sends
+   */
+  public synchronized long getSentCount() {
+    return sentCount;
+  }
+
+  /**
+   * Gets the number of messages that were replaced by a newer message with
+   * the same key before they were sent.
+   *
+   * @return the number of dropped snapshots
+   */
+  public synchronized long getCoalescedCount() {
+    return coalescedCount;
+  }
+
+  /**
+   * Gets the number of sends that failed.
+   *
+   * @return the number of failed sends
+   */
+  public synchronized long getFailedCount() {
+    return failedCount;
+  }
+
+  /**
+   * Report statistics for the queue.
+   *
+   * @param out stream for printing
+   */
+  public synchronized void report(PrintStream out) {
+    out.println("####Outbound Queue Info Start####");
+    out.println("Depth: " + messages.size());
+    out.println("Max depth: " + maxDepth);
+    out.println("Sent: " + sentCount);
+    out.println("Coalesced: " + coalescedCount);
+    out.println("Failed: " + failedCount);
+    out.println("####Outbound Queue Info End####");
+  }
+
+  /**
+   * Completion of one send. A send that completes after it has returned
+   * resumes sending the queue; one that completes before leaves that to the
+   * loop in {@link #sendNext()}.
+   */
+  private class Delivery implements SendHandler {
+    private boolean completed;
+    private boolean inFlight;
+
+    @Override
+    public void onResult(SendResult result) {
+      synchronized (OutboundQueue.this) {
+        if (result.isOK()) {
+          sentCount++;
+        } else {
+          recordFailure(result.getException());
+        }
+        completed = true;
+        if (!inFlight) {
+          return;
+        }
+      }
+      sendNext();
+    }
+  }
+
+  /**
+   * A queued message.
+   */
+  private static class Message {
+    private String key;
+    private Supplier<?> payload;
+
+    Message(String key, Supplier<?> payload) {
+      this.key = key;
+      this.payload = payload;
+    }
+  }
+}
@@ -7,6 +7,7 @@ import com.google.gson.JsonObject;
  */
 public class PauseCommand extends SimulatorCommand {
   private VisualTransitSimulator visSim;
+  private TickScheduler tickScheduler;
 
   /**
    * Creates a PauseCommand using the given simulator.
@@ -14,7 +15,18 @@ public class PauseCommand extends SimulatorCommand {
    * @param visSim simulator instance to control
    */
   public PauseCommand(VisualTransitSimulator visSim) {
+    this(visSim, null);
+  }
+
+  /**
+   * Creates a PauseCommand that also pauses the server-side clock.
+   *
+   * @param visSim        simulator instance to control
+   * @param tickScheduler scheduler advancing the simulation
+   */
+  public PauseCommand(VisualTransitSimulator visSim, TickScheduler tickScheduler) {
     this.visSim = visSim;
+    this.tickScheduler = tickScheduler;
   }
 
   /**
@@ -26,5 +38,8 @@ public class PauseCommand extends SimulatorCommand {
   @Override
   public void execute(WebServerSession session, JsonObject command) {
     visSim.togglePause();
+    if (tickScheduler != null) {
+      tickScheduler.setPaused(visSim.isPaused());
+    }
   }
 }
@@ -0,0 +1,58 @@
+package webserver;
+
+/**
+ * Measurements of one replication of an {@link EnsembleRunner} run.
+ */
+public class ReplicationSummary {
+  private int replication;
+  private long seed;
+  private long passengersGenerated;
+  private double meanWaitTime;
+  private double meanLoad;
+  private long totalCO2Emission;
+
+  /**
+   * Constructor for a replication summary.
+   *
+   * @param replication         index of the replication in the ensemble
+   * @param seed                seed of the replication
+   * @param passengersGenerated number of passengers generated at stops
+   * @param meanWaitTime        time steps spent waiting at stops per passenger
+   * @param meanLoad            passengers per vehicle capacity, averaged over
+   *                            the vehicle steps
+   * @param totalCO2Emission    CO2 emitted by all vehicles over all time steps
+   */
+  public ReplicationSummary(int replication, long seed, long passengersGenerated,
+                            double meanWaitTime, double meanLoad, long totalCO2Emission) {
+    this.replication = replication;
+    this.seed = seed;
+    this.passengersGenerated = passengersGenerated;
+    this.meanWaitTime = meanWaitTime;
+    this.meanLoad = meanLoad;
+    this.totalCO2Emission = totalCO2Emission;
+  }
+
+  public int getReplication() {
+    return replication;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public long getPassengersGenerated() {
+    return passengersGenerated;
+  }
+
+  public double getMeanWaitTime() {
+    return meanWaitTime;
+  }
+
+  public double getMeanLoad() {
+    return meanLoad;
+  }
+
+  public long getTotalCO2Emission() {
+    return totalCO2Emission;
+  }
+}
@@ -0,0 +1,92 @@
+package webserver;
+
+import com.google.gson.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Serialized responses of a command, cached for one state version of the
+ * simulation (see {@link VisualTransitSimulator#getStateVersion()}).
+ * Requests that arrive between two changes of the simulation are answered with
+ * the same text instead of building and serializing the JSON again. Cached
+ * responses carry the version they were built for as {@code stateVersion};
+ * clients send it back as {@code sinceVersion} and get a {@code notModified}
+ * reply while the state has not changed.
+ */
+public class ResponseCache {
+
+  private long version;
+  private Map<String, String> payloads;
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates an empty cache.
+   */
+  public ResponseCache() {
+    this.version = -1;
+    this.payloads = new HashMap<String, String>();
+  }
+
+  /**
+   * Gets the serialized response for a state version, building it on a miss.
+   * Responses of older versions are dropped.
+   *
+   * @param key     name of the response variant
+   * @param version current state version
+   * @param builder creates the response if it is not cached
+   * @return the serialized response, including its {@code stateVersion}
+   */
+  public String get(String key, long version, Supplier<JsonObject> builder) {
+    if (version != this.version) {
+      payloads.clear();
+      this.version = version;
+    }
+    String payload = payloads.get(key);
+    if (payload == null) {
+      JsonObject data = builder.get();
+      data.addProperty("stateVersion", version);
+      payload = data.toString();
+      payloads.put(key, payload);
+      misses++;
+    } else {
+      hits++;
+    }
+    return payload;
+  }
+
+  /**
+   * Checks whether a request already has the current state.
+   *
+   * @param command the request
+   * @param version current state version
+   * @return true if the request's {@code sinceVersion} is the current version
+   */
+  public static boolean isNotModified(JsonObject command, long version) {
+    return command.has("sinceVersion") && command.get("sinceVersion").getAsLong() == version;
+  }
+
+  /**
+   * Creates the reply to a request whose state has not changed.
+   *
+   * @param request name of the request's command
+   * @param version current state version
+   * @return the {@code notModified} message
+   */
+  public static JsonObject notModified(String request, long version) {
+    JsonObject data = new JsonObject();
+    data.addProperty("command", "notModified");
+    data.addProperty("request", request);
+    data.addProperty("stateVersion", version);
+    return data;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+}
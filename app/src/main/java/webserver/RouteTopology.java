@@ -0,0 +1,114 @@
+package webserver;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.Line;
+import model.Route;
+import model.Stop;
+
+/**
+ * The static layout of the routes shown to a client: every distinct stop with
+ * its position, and every route as a list of indices into those stops.
+ * The layout is sent once; afterwards only the number of people waiting at
+ * each stop is sent, as an array in the same stop order.
+ */
+public class RouteTopology {
+
+  private List<Stop> stops;
+  private JsonArray routesArray;
+
+  /**
+   * Builds the topology of the outbound and inbound routes of the given lines.
+   * Stops shared by several routes are listed once, in the order they are
+   * first reached.
+   *
+   * @param lines lines of the simulation
+   */
+  public RouteTopology(List<Line> lines) {
+    this.stops = new ArrayList<Stop>();
+    this.routesArray = new JsonArray();
+    Map<Integer, Integer> stopIndices = new HashMap<Integer, Integer>();
+    for (int i = 0; i < lines.size(); i++) {
+      addRoute(lines.get(i).getOutboundRoute(), stopIndices);
+      addRoute(lines.get(i).getInboundRoute(), stopIndices);
+    }
+  }
+
+  private void addRoute(Route route, Map<Integer, Integer> stopIndices) {
+    JsonArray stopIndexArray = new JsonArray();
+    for (int j = 0; j < route.getStops().size(); j++) {
+      Stop stop = route.getStops().get(j);
+      Integer stopIndex = stopIndices.get(stop.getId());
+      if (stopIndex == null) {
+        stopIndex = stops.size();
+        stopIndices.put(stop.getId(), stopIndex);
+        stops.add(stop);
+      }
+      stopIndexArray.add(stopIndex);
+    }
+    JsonObject r = new JsonObject();
+    r.addProperty("id", route.getId());
+    r.add("stops", stopIndexArray);
+    routesArray.add(r);
+  }
+
+  /**
+   * Creates the JSON description of the topology.
+   *
+   * @return JSON object with the stops and routes
+   */
+  public JsonObject toJson() {
+    JsonArray stopArray = new JsonArray();
+    for (int i = 0; i < stops.size(); i++) {
+      Stop stop = stops.get(i);
+      JsonObject stopStruct = new JsonObject();
+      stopStruct.addProperty("id", stop.getId());
+      JsonObject jsonObj = new JsonObject();
+      jsonObj.addProperty("longitude", stop.getPosition().getLongitude());
+      jsonObj.addProperty("latitude", stop.getPosition().getLatitude());
+      stopStruct.add("position", jsonObj);
+      stopArray.add(stopStruct);
+    }
+    JsonObject topology = new JsonObject();
+    topology.add("stops", stopArray);
+    topology.add("routes", routesArray.deepCopy());
+    return topology;
+  }
+
+  /**
+   * Creates the message with the number of people waiting at each stop.
+   *
+   * @return the {@code updateStopCounts} message
+   */
+  public JsonObject getStopCountsJson() {
+    JsonArray counts = new JsonArray();
+    for (int i = 0; i < stops.size(); i++) {
+      counts.add(stops.get(i).getPassengers().size());
+    }
+    JsonObject data = new JsonObject();
+    data.addProperty("command", "updateStopCounts");
+    data.add("counts", counts);
+    return data;
+  }
+
+  /**
+   * Gets the number of people waiting at each stop.
+   *
+   * @return the counts, in the stop order of the topology
+   */
+  public int[] getStopCounts() {
+    int[] counts = new int[stops.size()];
+    for (int i = 0; i < stops.size(); i++) {
+      counts[i] = stops.get(i).getPassengers().size();
+    }
+    return counts;
+  }
+
+  public int getNumStops() {
+    return stops.size();
+  }
+}
@@ -0,0 +1,56 @@
+package webserver;
+
+import model.Line;
+import model.Stop;
+import model.VehicleInterface;
+
+/**
+ * Accumulates the measurements of a headless run, one time step at a time.
+ * The wait time is the number of passengers waiting at stops summed over
+ * the time steps, divided by the number of passengers generated.
+ */
+public class RunMeter {
+  private long passengerWaitSteps;
+  private double loadSum;
+  private long loadSamples;
+  private long totalCO2Emission;
+
+  /**
+   * Records the state of a simulation after a time step.
+   *
+   * @param simulator the simulation
+   */
+  public void record(VisualTransitSimulator simulator) {
+    for (Line line : simulator.getLines()) {
+      for (Stop stop : line.getOutboundRoute().getStops()) {
+        passengerWaitSteps += stop.getPassengers().size();
+      }
+      for (Stop stop : line.getInboundRoute().getStops()) {
+        passengerWaitSteps += stop.getPassengers().size();
+      }
+    }
+    for (VehicleInterface vehicle : simulator.getActiveVehicles()) {
+      if (vehicle.getCapacity() > 0) {
+        loadSum += (double) vehicle.getPassengers().size() / vehicle.getCapacity();
+        loadSamples++;
+      }
+      totalCO2Emission += vehicle.getCurrentCO2Emission();
+    }
+  }
+
+  /**
+   * Creates the summary of the recorded time steps.
+   *
+   * @param replication index of the run
+   * @param seed        seed of the run
+   * @param simulator   the simulation that was recorded
+   * @return measurements of the run
+   */
+  public ReplicationSummary getSummary(int replication, long seed,
+                                       VisualTransitSimulator simulator) {
+    long passengersGenerated = simulator.getPassengersGenerated();
+    return new ReplicationSummary(replication, seed, passengersGenerated,
+        passengersGenerated == 0 ? 0 : (double) passengerWaitSteps / passengersGenerated,
+        loadSamples == 0 ? 0 : loadSum / loadSamples, totalCO2Emission);
+  }
+}
@@ -0,0 +1,251 @@
+package webserver;
+
+import com.google.gson.JsonObject;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import model.VehicleConcreteSubject;
+import model.VehicleInterface;
+
+/**
+ * A named simulation that runs on its own clock and is watched by any number
+ * of sessions. The state of every time step is encoded once, as JSON text and,
+ * if a viewer uses the binary subprotocol, as a binary frame, and the same
+ * message is sent to every viewer. Viewers receive the same {@code updateState}
+ * messages as subscribers of a session's own simulation, see
+ * {@link SubscribeCommand}. Viewers send their {@code initLines},
+ * {@code registerVehicle} and {@code lineIssue} commands to the shared
+ * simulation, and each viewer observes its own vehicle.
+ */
+public class SharedSimulation implements TickListener {
+
+  /**
+   * Number of queued messages after which a viewer is considered too slow:
+   * its queue is dropped and it receives a full state instead.
+   */
+  public static final int MAX_VIEWER_BACKLOG = 64;
+
+  private String name;
+  private VisualTransitSimulator simulator;
+  private TickScheduler tickScheduler;
+  private VehicleDeltaEncoder deltaEncoder;
+  private RouteTopology topology;
+  private List<WebServerSession> viewers;
+  private Map<WebServerSession, VehicleConcreteSubject> observations;
+  private JsonObject linesMessage;
+  private LineIssueCommand lineIssueCommand;
+  private long broadcastCount;
+
+  /**
+   * Creates a shared simulation that has not been started.
+   *
+   * @param name      name viewers attach to
+   * @param simulator the simulation, not attached to any session
+   */
+  public SharedSimulation(String name, VisualTransitSimulator simulator) {
+    this.name = name;
+    this.simulator = simulator;
+    this.tickScheduler = new TickScheduler(simulator);
+    this.deltaEncoder = new VehicleDeltaEncoder();
+    this.topology = new RouteTopology(simulator.getLines());
+    this.viewers = new CopyOnWriteArrayList<WebServerSession>();
+    this.observations = new ConcurrentHashMap<WebServerSession, VehicleConcreteSubject>();
+    this.linesMessage = InitLinesCommand.toJson(simulator.getLines());
+    this.lineIssueCommand = new LineIssueCommand(simulator);
+    simulator.setVerbose(false);
+    simulator.addTickListener(this);
+  }
+
+  /**
+   * Starts the simulation on the server-side clock.
+   * Lines without an entry in {@code timeBetweenVehicles} use
+   * {@link BatchRunner#DEFAULT_TIME_BETWEEN_VEHICLES}.
+   *
+   * @param timeBetweenVehicles time steps between vehicles of each line
+   * @param numTimeSteps        number of time steps to run
+   * @param ticksPerSecond      number of time steps per second, or a value less
+   *                            than or equal to zero to run as fast as possible
+   */
+  public void start(List<Integer> timeBetweenVehicles, int numTimeSteps, double ticksPerSecond) {
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    for (int i = 0; i < simulator.getLines().size(); i++) {
+      if (i < timeBetweenVehicles.size()) {
+        vehicleStartTimings.add(timeBetweenVehicles.get(i));
+      } else {
+        vehicleStartTimings.add(BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES);
+      }
+    }
+    synchronized (simulator) {
+      simulator.setVehicleFactories(LocalDateTime.now().getHour());
+      simulator.start(vehicleStartTimings, numTimeSteps);
+    }
+    tickScheduler.start(ticksPerSecond);
+  }
+
+  /**
+   * Stops the clock of the simulation.
+   */
+  public void stop() {
+    tickScheduler.stop();
+  }
+
+  /**
+   * Adds a viewer and sends it the full current state. A new viewer first
+   * receives the lines and the topology of their routes.
+   *
+   * @param viewer session watching the simulation
+   */
+  public void attach(WebServerSession viewer) {
+    synchronized (simulator) {
+      if (!viewers.contains(viewer)) {
+        viewers.add(viewer);
+        viewer.sendJson(linesMessage);
+      }
+      sendFullState(viewer);
+    }
+  }
+
+  /**
+   * Runs a command of a viewer on the shared simulation. Commands that control
+   * the clock or poll the state are ignored, since the simulation belongs to
+   * no single viewer and pushes its state.
+   *
+   * @param viewer  session watching the simulation
+   * @param command name of the command
+   * @param json    the command content
+   */
+  public void execute(WebServerSession viewer, String command, JsonObject json) {
+    synchronized (simulator) {
+      if ("initLines".equals(command)) {
+        viewer.sendJson(linesMessage);
+      } else if ("lineIssue".equals(command)) {
+        lineIssueCommand.execute(viewer, json);
+      } else if ("registerVehicle".equals(command)) {
+        observe(viewer, json.get("id").getAsInt());
+      }
+    }
+  }
+
+  private void observe(WebServerSession viewer, int vehicleId) {
+    for (VehicleInterface vehicle : simulator.getActiveVehicles()) {
+      if (vehicle.getId() == vehicleId) {
+        VehicleConcreteSubject subject = new VehicleConcreteSubject(viewer);
+        subject.attachObserver(vehicle);
+        observations.put(viewer, subject);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes a viewer.
+   *
+   * @param viewer session watching the simulation
+   * @return true if no viewers are left
+   */
+  public boolean detach(WebServerSession viewer) {
+    viewers.remove(viewer);
+    observations.remove(viewer);
+    return viewers.isEmpty();
+  }
+
+  /**
+   * Encodes the state of the finished time step once and sends it to every
+   * viewer.
+   *
+   * @param simulator the simulator that finished the time step
+   */
+  @Override
+  public void onTick(VisualTransitSimulator simulator) {
+    if (viewers.isEmpty()) {
+      return;
+    }
+    List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+    GetVehiclesCommand.updateAlpha(vehicles);
+    VehicleDelta delta = deltaEncoder.diff(vehicles, deltaEncoder.getVersion());
+    int timeStep = simulator.getSimulationTimeElapsed();
+    String text = null;
+    ByteBuffer frame = null;
+    for (WebServerSession viewer : viewers) {
+      OutboundQueue queue = viewer.getOutboundQueue();
+      if (queue != null && queue.getDepth() > MAX_VIEWER_BACKLOG) {
+        queue.clear();
+        sendFullState(viewer);
+      } else if (viewer.isBinaryProtocol()) {
+        if (frame == null) {
+          frame = BinaryStateEncoder.encodeState(timeStep, delta, topology.getStopCounts());
+        }
+        viewer.sendBinary(frame.duplicate());
+      } else {
+        if (text == null) {
+          text = SubscribeCommand.toJson(timeStep, delta, topology).toString();
+        }
+        viewer.sendText(text);
+      }
+    }
+    broadcastCount++;
+    notifyObservers();
+  }
+
+  /**
+   * Sends every viewer the information of the vehicle it observes. A vehicle
+   * reports to the subject it was last attached to, so it is pointed to the
+   * subject of each viewer in turn.
+   */
+  private void notifyObservers() {
+    for (Map.Entry<WebServerSession, VehicleConcreteSubject> observation
+        : observations.entrySet()) {
+      VehicleConcreteSubject subject = observation.getValue();
+      if (subject.getObservers().isEmpty()) {
+        observations.remove(observation.getKey(), subject);
+        continue;
+      }
+      subject.getObservers().get(0).setVehicleSubject(subject);
+      subject.notifyObservers();
+    }
+  }
+
+  private void sendFullState(WebServerSession viewer) {
+    List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+    GetVehiclesCommand.updateAlpha(vehicles);
+    VehicleDelta snapshot = new VehicleDelta(deltaEncoder.getVersion(), 0, true,
+        new ArrayList<VehicleInterface>(vehicles), new ArrayList<Integer>());
+    int timeStep = simulator.getSimulationTimeElapsed();
+    if (viewer.isBinaryProtocol()) {
+      viewer.sendBinary(BinaryStateEncoder.encodeState(timeStep, snapshot,
+          topology.getStopCounts()));
+    } else {
+      JsonObject data = SubscribeCommand.toJson(timeStep, snapshot, topology);
+      viewer.sendText(data.toString());
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public VisualTransitSimulator getSimulator() {
+    return simulator;
+  }
+
+  public int getNumViewers() {
+    return viewers.size();
+  }
+
+  /**
+   * Gets the number of time steps whose state was sent to the viewers.
+   *
+   * @return the number of encoded broadcasts
+   */
+  public long getBroadcastCount() {
+    return broadcastCount;
+  }
+
+  public boolean isRunning() {
+    return tickScheduler.isRunning();
+  }
+}
@@ -0,0 +1,88 @@
+package webserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The shared simulations of the server, by name.
+ * A shared simulation is created and started by the first session attaching to
+ * its name and is stopped and removed once its last viewer detaches, so the
+ * work of the server grows with the number of simulations, not of viewers.
+ */
+public class SimulationRegistry {
+
+  private Map<String, SharedSimulation> simulations;
+
+  /**
+   * Creates an empty registry.
+   */
+  public SimulationRegistry() {
+    this.simulations = new ConcurrentHashMap<String, SharedSimulation>();
+  }
+
+  /**
+   * Attaches a viewer to a shared simulation, creating and starting the
+   * simulation if it does not exist.
+   *
+   * @param name                name of the simulation
+   * @param configFile          file containing the simulation configuration
+   * @param timeBetweenVehicles time steps between vehicles of each line, used if
+   *                            the simulation is created
+   * @param numTimeSteps        number of time steps, used if the simulation is created
+   * @param ticksPerSecond      number of time steps per second, used if the
+   *                            simulation is created
+   * @param viewer              session watching the simulation
+   * @return the shared simulation with the given name
+   */
+  public synchronized SharedSimulation attach(String name, String configFile,
+                                              List<Integer> timeBetweenVehicles,
+                                              int numTimeSteps, double ticksPerSecond,
+                                              WebServerSession viewer) {
+    SharedSimulation sharedSimulation = simulations.get(name);
+    if (sharedSimulation == null) {
+      sharedSimulation = new SharedSimulation(name, new VisualTransitSimulator(configFile));
+      // the first viewer is attached before the clock starts, so it receives every step
+      sharedSimulation.attach(viewer);
+      sharedSimulation.start(timeBetweenVehicles, numTimeSteps, ticksPerSecond);
+      simulations.put(name, sharedSimulation);
+      return sharedSimulation;
+    }
+    sharedSimulation.attach(viewer);
+    return sharedSimulation;
+  }
+
+  /**
+   * Gets a shared simulation.
+   *
+   * @param name name of the simulation
+   * @return the simulation, or null if there is none with that name
+   */
+  public SharedSimulation get(String name) {
+    return simulations.get(name);
+  }
+
+  /**
+   * Removes a viewer from a shared simulation, stopping and removing the
+   * simulation if it has no viewers left.
+   *
+   * @param sharedSimulation the simulation watched by the viewer
+   * @param viewer           session watching the simulation
+   */
+  public synchronized void detach(SharedSimulation sharedSimulation, WebServerSession viewer) {
+    if (sharedSimulation.detach(viewer)) {
+      sharedSimulation.stop();
+      simulations.remove(sharedSimulation.getName(), sharedSimulation);
+    }
+  }
+
+  /**
+   * Gets the names of the running shared simulations.
+   *
+   * @return list of names
+   */
+  public List<String> getNames() {
+    return new ArrayList<String>(simulations.keySet());
+  }
+}
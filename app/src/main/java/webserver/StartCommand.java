@@ -9,11 +9,13 @@ import java.util.List;
 /**
  * Starts the visual transit simulation.
  * Reads the number of time steps and vehicle intervals from the JSON command
- * and initializes the simulation.
+ * and initializes the simulation. If the command contains {@code ticksPerSecond},
+ * the simulation is then advanced by the server-side tick scheduler.
  */
 public class StartCommand extends SimulatorCommand {
 
   private VisualTransitSimulator simulator;
+  private TickScheduler tickScheduler;
 
   /**
    * Start simulation constructor functionality.
@@ -21,7 +23,18 @@ public class StartCommand extends SimulatorCommand {
    * @param simulator simulation object
    */
   public StartCommand(VisualTransitSimulator simulator) {
+    this(simulator, null);
+  }
+
+  /**
+   * Start simulation constructor for simulations with a server-side clock.
+   *
+   * @param simulator     simulation object
+   * @param tickScheduler scheduler advancing the simulation
+   */
+  public StartCommand(VisualTransitSimulator simulator, TickScheduler tickScheduler) {
     this.simulator = simulator;
+    this.tickScheduler = tickScheduler;
   }
 
   /**
@@ -46,6 +59,9 @@ public class StartCommand extends SimulatorCommand {
     System.out.println("Starting simulation");
     simulator.setVehicleFactories(getCurrentSimulationTime());
     simulator.start(timeBetweenVehicles, numTimeSteps);
+    if (tickScheduler != null && command.has("ticksPerSecond")) {
+      tickScheduler.start(command.get("ticksPerSecond").getAsDouble());
+    }
   }
 
   public int getCurrentSimulationTime() {
@@ -0,0 +1,151 @@
+package webserver;
+
+import com.google.gson.JsonObject;
+import java.nio.ByteBuffer;
+import java.util.List;
+import model.VehicleInterface;
+
+/**
+ * Command that subscribes the client to the state of the simulation.
+ * A subscribed client receives one {@code updateState} message at the end of
+ * every time step, holding the vehicle delta (see {@link VehicleDeltaEncoder})
+ * and the number of people waiting at each stop of the {@link RouteTopology},
+ * so it no longer needs to poll with {@code getVehicles} and {@code getRoutes}.
+ * Sessions using the binary subprotocol receive the same state as binary frames.
+ * Sending the command with {@code "enabled": false} ends the subscription.
+ */
+public class SubscribeCommand extends SimulatorCommand implements TickListener {
+
+  private VisualTransitSimulator simulator;
+  private volatile WebServerSession session;
+  private VehicleDeltaEncoder deltaEncoder;
+  private RouteTopology topology;
+  private boolean fullStatePending;
+
+  /**
+   * Creates a SubscribeCommand using the given simulator.
+   *
+   * @param simulator simulator instance to publish
+   */
+  public SubscribeCommand(VisualTransitSimulator simulator) {
+    this.simulator = simulator;
+    this.deltaEncoder = new VehicleDeltaEncoder();
+  }
+
+  /**
+   * Subscribes or unsubscribes the client. A new subscription immediately
+   * receives the full current state.
+   *
+   * @param session current simulation session
+   * @param command the subscribe command content
+   */
+  @Override
+  public void execute(WebServerSession session, JsonObject command) {
+    if (command.has("enabled") && !command.get("enabled").getAsBoolean()) {
+      unsubscribe();
+      return;
+    }
+    this.session = session;
+    simulator.addTickListener(this);
+    fullStatePending = true;
+    sendState(session);
+  }
+
+  /**
+   * Stops publishing to the client.
+   */
+  public void unsubscribe() {
+    simulator.removeTickListener(this);
+    session = null;
+  }
+
+  /**
+   * Sends the state of the finished time step to the subscribed client.
+   *
+   * @param simulator the simulator that finished the time step
+   */
+  @Override
+  public void onTick(VisualTransitSimulator simulator) {
+    WebServerSession subscriber = session;
+    if (subscriber != null) {
+      sendState(subscriber);
+    }
+  }
+
+  /**
+   * Queues the state for the subscriber. The state is built when the message
+   * is sent, so if the client falls behind, the queued state is replaced and it
+   * receives the latest state, with the changes of the skipped steps included.
+   * Building may happen on the thread sending messages, so it holds the
+   * simulator's monitor.
+   */
+  private void sendState(WebServerSession subscriber) {
+    boolean binary = subscriber.isBinaryProtocol();
+    subscriber.sendLatest("updateState", () -> {
+      synchronized (simulator) {
+        long clientVersion = fullStatePending ? -1 : deltaEncoder.getVersion();
+        fullStatePending = false;
+        if (binary) {
+          return getBinaryState(clientVersion);
+        }
+        return getState(clientVersion);
+      }
+    });
+  }
+
+  /**
+   * Builds the combined state message.
+   *
+   * @param clientVersion vehicle version last sent to the client, or a negative
+   *                      value to send every vehicle
+   * @return the {@code updateState} message
+   */
+  JsonObject getState(long clientVersion) {
+    List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+    GetVehiclesCommand.updateAlpha(vehicles);
+    return toJson(simulator.getSimulationTimeElapsed(), deltaEncoder.diff(vehicles, clientVersion),
+        getTopology());
+  }
+
+  /**
+   * Builds an {@code updateState} message.
+   *
+   * @param timeStep time step of the simulation
+   * @param delta    vehicles to send
+   * @param topology topology whose stop counts are sent
+   * @return the {@code updateState} message
+   */
+  static JsonObject toJson(int timeStep, VehicleDelta delta, RouteTopology topology) {
+    JsonObject data = new JsonObject();
+    data.addProperty("command", "updateState");
+    data.addProperty("timeStep", timeStep);
+    data.add("vehicles", VehicleDeltaEncoder.toJson(delta));
+    data.add("stopCounts", topology.getStopCountsJson().get("counts"));
+    return data;
+  }
+
+  /**
+   * Builds the combined state as a binary frame.
+   *
+   * @param clientVersion vehicle version last sent to the client, or a negative
+   *                      value to send every vehicle
+   * @return buffer holding the frame, see {@link BinaryStateEncoder}
+   */
+  ByteBuffer getBinaryState(long clientVersion) {
+    List<VehicleInterface> vehicles = simulator.getActiveVehicles();
+    GetVehiclesCommand.updateAlpha(vehicles);
+    return BinaryStateEncoder.encodeState(simulator.getSimulationTimeElapsed(),
+        deltaEncoder.diff(vehicles, clientVersion), getTopology().getStopCounts());
+  }
+
+  private RouteTopology getTopology() {
+    if (topology == null) {
+      topology = new RouteTopology(simulator.getLines());
+    }
+    return topology;
+  }
+
+  public boolean isSubscribed() {
+    return session != null;
+  }
+}
@@ -0,0 +1,189 @@
+package webserver;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of a {@link SweepRunner} run, ranked by its objective.
+ */
+public class SweepReport {
+  private static final int NUM_REPORTED_RESULTS = 10;
+  private static final String[] FLEET_COLUMNS = {"small_buses", "large_buses",
+      "electric_trains", "diesel_trains"};
+
+  private String objective;
+  private long seed;
+  private int numTimeSteps;
+  private long elapsedNanos;
+  private List<SweepResult> rankedResults;
+
+  /**
+   * Constructor for a sweep report. Ranks the results by the objective and
+   * marks the results that no other result dominates.
+   *
+   * @param objective    objective the results are ranked by
+   * @param seed         seed shared by all configurations
+   * @param numTimeSteps number of time steps of every run
+   * @param results      results of all configurations
+   */
+  public SweepReport(String objective, long seed, int numTimeSteps, List<SweepResult> results) {
+    this.objective = objective;
+    this.seed = seed;
+    this.numTimeSteps = numTimeSteps;
+    for (SweepResult result : results) {
+      boolean dominated = false;
+      for (SweepResult other : results) {
+        if (other.dominates(result)) {
+          dominated = true;
+          break;
+        }
+      }
+      result.setParetoOptimal(!dominated);
+    }
+    this.rankedResults = new ArrayList<SweepResult>(results);
+    rankedResults.sort((first, second) -> {
+      int order = Double.compare(SweepRunner.getObjectiveValue(first, objective),
+          SweepRunner.getObjectiveValue(second, objective));
+      return order != 0 ? order : Integer.compare(first.getIndex(), second.getIndex());
+    });
+  }
+
+  /**
+   * Report the sweep and its best configurations.
+   *
+   * @param out stream for printing
+   */
+  public void report(PrintStream out) {
+    out.println("####Sweep Run Info Start####");
+    out.println("Seed: " + seed);
+    out.println("Time steps: " + numTimeSteps);
+    out.println("Objective: " + objective);
+    out.println("Configurations: " + rankedResults.size());
+    out.println("Configurations run: " + getNumEvaluated());
+    out.println("Pareto optimal configurations: " + getNumParetoOptimal());
+    out.println(String.format("Elapsed seconds: %.3f", elapsedNanos / 1_000_000_000.0));
+    for (int i = 0; i < Math.min(NUM_REPORTED_RESULTS, rankedResults.size()); i++) {
+      SweepResult result = rankedResults.get(i);
+      ReplicationSummary summary = result.getSummary();
+      out.println(String.format("%d. headways %s, fleet %s: wait time %.3f, load %.3f,"
+          + " CO2 emission %d, fleet size %d%s", i + 1, join(result.getHeadways()),
+          join(result.getFleetSizes()), summary.getMeanWaitTime(), summary.getMeanLoad(),
+          summary.getTotalCO2Emission(), result.getFleetSize(),
+          result.isParetoOptimal() ? ", Pareto optimal" : ""));
+    }
+    out.println("####Sweep Run Info End####");
+  }
+
+  /**
+   * Writes all results as a comma-separated table, one ranked configuration
+   * per row. Unlimited fleets are written as empty fields.
+   *
+   * @param out stream for writing
+   */
+  public void writeTable(PrintStream out) {
+    int numLines = rankedResults.isEmpty() ? 0 : rankedResults.get(0).getHeadways().length;
+    StringBuilder header = new StringBuilder("rank,configuration");
+    for (int i = 0; i < numLines; i++) {
+      header.append(",headway_").append(i);
+    }
+    for (String fleetColumn : FLEET_COLUMNS) {
+      header.append(',').append(fleetColumn);
+    }
+    header.append(",fleet_size,passengers_generated,mean_wait_time,mean_load,co2_emission,"
+        + "pruned_by,pareto_optimal");
+    out.println(header);
+    for (int i = 0; i < rankedResults.size(); i++) {
+      SweepResult result = rankedResults.get(i);
+      ReplicationSummary summary = result.getSummary();
+      StringBuilder row = new StringBuilder();
+      row.append(i + 1).append(',').append(result.getIndex());
+      for (int headway : result.getHeadways()) {
+        row.append(',').append(headway);
+      }
+      for (int fleetSize : result.getFleetSizes()) {
+        row.append(',');
+        if (fleetSize != Integer.MAX_VALUE) {
+          row.append(fleetSize);
+        }
+      }
+      row.append(',').append(result.getFleetSize())
+          .append(',').append(summary.getPassengersGenerated())
+          .append(',').append(summary.getMeanWaitTime())
+          .append(',').append(summary.getMeanLoad())
+          .append(',').append(summary.getTotalCO2Emission())
+          .append(',');
+      if (result.getPrunedBy() >= 0) {
+        row.append(result.getPrunedBy());
+      }
+      row.append(',').append(result.isParetoOptimal());
+      out.println(row);
+    }
+  }
+
+  private static String join(int[] values) {
+    StringBuilder joined = new StringBuilder();
+    for (int value : values) {
+      if (joined.length() > 0) {
+        joined.append('/');
+      }
+      joined.append(value == Integer.MAX_VALUE ? "-" : String.valueOf(value));
+    }
+    return joined.toString();
+  }
+
+  public String getObjective() {
+    return objective;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getNumTimeSteps() {
+    return numTimeSteps;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public List<SweepResult> getRankedResults() {
+    return Collections.unmodifiableList(rankedResults);
+  }
+
+  /**
+   * Gets the number of configurations that were run rather than pruned.
+   *
+   * @return the number of runs
+   */
+  public int getNumEvaluated() {
+    int numEvaluated = 0;
+    for (SweepResult result : rankedResults) {
+      if (result.getPrunedBy() < 0) {
+        numEvaluated++;
+      }
+    }
+    return numEvaluated;
+  }
+
+  /**
+   * Gets the number of configurations that no other configuration dominates.
+   *
+   * @return the number of Pareto optimal configurations
+   */
+  public int getNumParetoOptimal() {
+    int numParetoOptimal = 0;
+    for (SweepResult result : rankedResults) {
+      if (result.isParetoOptimal()) {
+        numParetoOptimal++;
+      }
+    }
+    return numParetoOptimal;
+  }
+}
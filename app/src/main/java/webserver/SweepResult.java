@@ -0,0 +1,147 @@
+package webserver;
+
+/**
+ * One configuration of a {@link SweepRunner} sweep and its measurements.
+ */
+public class SweepResult {
+  private int index;
+  private int[] headways;
+  private int[] fleetSizes;
+  private int[] fleetUsage;
+  private boolean[] fleetExhausted;
+  private ReplicationSummary summary;
+  private int prunedBy = -1;
+  private boolean paretoOptimal;
+
+  /**
+   * Constructor for a sweep result.
+   *
+   * @param index          index of the configuration in the sweep
+   * @param headways       time steps between vehicles for each line
+   * @param fleetSizes     small buses, large buses, electric trains and diesel
+   *                       trains in storage at the start
+   * @param fleetUsage     most vehicles of each type out of storage at once
+   * @param fleetExhausted whether the storage of each type ran empty
+   * @param summary        measurements of the run
+   */
+  public SweepResult(int index, int[] headways, int[] fleetSizes, int[] fleetUsage,
+                     boolean[] fleetExhausted, ReplicationSummary summary) {
+    this.index = index;
+    this.headways = headways.clone();
+    this.fleetSizes = fleetSizes.clone();
+    this.fleetUsage = fleetUsage.clone();
+    this.fleetExhausted = fleetExhausted.clone();
+    this.summary = summary;
+  }
+
+  /**
+   * Creates the result of a configuration that was not run, because it is
+   * known to behave exactly like one that was.
+   *
+   * @param index      index of the configuration in the sweep
+   * @param fleetSizes fleet sizes of the configuration
+   * @param evaluated  the result of the configuration that was run
+   * @return result with the measurements of the evaluated configuration
+   */
+  static SweepResult pruned(int index, int[] fleetSizes, SweepResult evaluated) {
+    SweepResult pruned = new SweepResult(index, evaluated.headways, fleetSizes,
+        evaluated.fleetUsage, evaluated.fleetExhausted, evaluated.summary);
+    pruned.prunedBy = evaluated.index;
+    return pruned;
+  }
+
+  /**
+   * Checks whether a run with other fleet sizes and the same headways and
+   * seed would be identical to this run. Vehicle generation only checks
+   * whether a vehicle type is in storage, so a fleet size that never ran out
+   * can be replaced by any size larger than the vehicles used at once.
+   *
+   * @param otherFleetSizes the other fleet sizes
+   * @return true if the run would be identical
+   */
+  boolean isIdenticalWith(int[] otherFleetSizes) {
+    for (int i = 0; i < fleetSizes.length; i++) {
+      if (otherFleetSizes[i] != fleetSizes[i]
+          && (fleetExhausted[i] || otherFleetSizes[i] <= fleetUsage[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether this result is at least as good as another in wait time,
+   * CO2 emission and fleet size, and better in one of them.
+   *
+   * @param other the other result
+   * @return true if this result dominates the other
+   */
+  public boolean dominates(SweepResult other) {
+    double[] objectives = getParetoObjectives();
+    double[] otherObjectives = other.getParetoObjectives();
+    boolean better = false;
+    for (int i = 0; i < objectives.length; i++) {
+      if (objectives[i] > otherObjectives[i]) {
+        return false;
+      }
+      better |= objectives[i] < otherObjectives[i];
+    }
+    return better;
+  }
+
+  private double[] getParetoObjectives() {
+    return new double[] {summary.getMeanWaitTime(), summary.getTotalCO2Emission(),
+        getFleetSize()};
+  }
+
+  /**
+   * Gets the number of vehicles of the configuration. Unlimited fleets count
+   * the vehicles that were used at once.
+   *
+   * @return the total fleet size
+   */
+  public long getFleetSize() {
+    long fleetSize = 0;
+    for (int i = 0; i < fleetSizes.length; i++) {
+      fleetSize += fleetSizes[i] == Integer.MAX_VALUE ? fleetUsage[i] : fleetSizes[i];
+    }
+    return fleetSize;
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int[] getHeadways() {
+    return headways.clone();
+  }
+
+  public int[] getFleetSizes() {
+    return fleetSizes.clone();
+  }
+
+  public int[] getFleetUsage() {
+    return fleetUsage.clone();
+  }
+
+  public ReplicationSummary getSummary() {
+    return summary;
+  }
+
+  /**
+   * Gets the configuration whose run this configuration reuses.
+   *
+   * @return the index of that configuration, or -1 if this one was run
+   */
+  public int getPrunedBy() {
+    return prunedBy;
+  }
+
+  public boolean isParetoOptimal() {
+    return paretoOptimal;
+  }
+
+  void setParetoOptimal(boolean paretoOptimal) {
+    this.paretoOptimal = paretoOptimal;
+  }
+}
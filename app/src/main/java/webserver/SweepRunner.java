@@ -0,0 +1,444 @@
+package webserver;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import model.StorageFacility;
+
+/**
+ * Runs a scenario for every combination of per-line headways and fleet sizes
+ * and ranks the configurations by an objective.
+ * All configurations use the same seed, so their differences come from the
+ * parameters and not from the random passengers. Each headway combination is
+ * one task on a thread pool; within a task the fleet combinations run from
+ * small to large, and a combination is pruned when a smaller fleet that was
+ * already run never ran out of vehicles, since its run would be identical.
+ */
+public class SweepRunner {
+  public static final int SMALL_BUSES = 0;
+  public static final int LARGE_BUSES = 1;
+  public static final int ELECTRIC_TRAINS = 2;
+  public static final int DIESEL_TRAINS = 3;
+  public static final String OBJECTIVE_WAIT_TIME = "waitTime";
+  public static final String OBJECTIVE_CO2_EMISSION = "co2Emission";
+  public static final String OBJECTIVE_FLEET_SIZE = "fleetSize";
+  public static final String OBJECTIVE_LOAD = "load";
+  private static final List<String> OBJECTIVES = Arrays.asList(OBJECTIVE_WAIT_TIME,
+      OBJECTIVE_CO2_EMISSION, OBJECTIVE_FLEET_SIZE, OBJECTIVE_LOAD);
+  private static final String[] FLEET_NAMES = {"smallBuses", "largeBuses", "electricTrains",
+      "dieselTrains"};
+
+  private String configFile;
+  private int startHour;
+  private int parallelism;
+  private long seed;
+  private List<int[]> headways = new ArrayList<int[]>();
+  private int[][] fleetSizes = new int[FLEET_NAMES.length][];
+
+  /**
+   * Creates a sweep runner for the given configuration file, using all
+   * available processors and a random seed.
+   *
+   * @param configFile file containing the simulation configuration
+   */
+  public SweepRunner(String configFile) {
+    this.configFile = configFile;
+    this.startHour = LocalDateTime.now().getHour();
+    this.parallelism = Runtime.getRuntime().availableProcessors();
+    this.seed = new SplittableRandom().nextLong();
+  }
+
+  /**
+   * Sets the headways to try for a line.
+   * Lines without headways use {@link BatchRunner#DEFAULT_TIME_BETWEEN_VEHICLES}.
+   *
+   * @param line   index of the line
+   * @param values time steps between vehicles
+   */
+  public void setHeadways(int line, int... values) {
+    if (values.length == 0) {
+      throw new IllegalArgumentException("No headways for line " + line);
+    }
+    while (headways.size() <= line) {
+      headways.add(null);
+    }
+    headways.set(line, values.clone());
+  }
+
+  /**
+   * Sets the fleet sizes to try for a vehicle type.
+   * Vehicle types without fleet sizes use the configured storage facility.
+   *
+   * @param vehicleType one of {@link #SMALL_BUSES}, {@link #LARGE_BUSES},
+   *                    {@link #ELECTRIC_TRAINS} and {@link #DIESEL_TRAINS}
+   * @param values      numbers of vehicles in storage at the start
+   */
+  public void setFleetSizes(int vehicleType, int... values) {
+    if (values.length == 0) {
+      throw new IllegalArgumentException("No fleet sizes for " + FLEET_NAMES[vehicleType]);
+    }
+    int[] sorted = values.clone();
+    Arrays.sort(sorted);
+    fleetSizes[vehicleType] = sorted;
+  }
+
+  /**
+   * Creates the values of a range.
+   *
+   * @param min  first value
+   * @param max  largest value
+   * @param step difference between values
+   * @return the values from min to max
+   */
+  public static int[] range(int min, int max, int step) {
+    if (step <= 0 || max < min) {
+      throw new IllegalArgumentException("Invalid range " + min + "-" + max + "/" + step);
+    }
+    int[] values = new int[(max - min) / step + 1];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = min + i * step;
+    }
+    return values;
+  }
+
+  /**
+   * Gets the value of an objective for a result, where smaller is better.
+   *
+   * @param result    the result
+   * @param objective one of the {@code OBJECTIVE_} constants
+   * @return the value to minimize
+   */
+  public static double getObjectiveValue(SweepResult result, String objective) {
+    switch (objective) {
+      case OBJECTIVE_WAIT_TIME:
+        return result.getSummary().getMeanWaitTime();
+      case OBJECTIVE_CO2_EMISSION:
+        return result.getSummary().getTotalCO2Emission();
+      case OBJECTIVE_FLEET_SIZE:
+        return result.getFleetSize();
+      case OBJECTIVE_LOAD:
+        return -result.getSummary().getMeanLoad();
+      default:
+        throw new IllegalArgumentException("Unknown objective: " + objective);
+    }
+  }
+
+  /**
+   * Runs every configuration and ranks the results.
+   *
+   * @param numTimeSteps number of time steps of each run
+   * @param objective    one of the {@code OBJECTIVE_} constants
+   * @return the ranked results
+   */
+  public SweepReport run(int numTimeSteps, String objective) {
+    if (!OBJECTIVES.contains(objective)) {
+      throw new IllegalArgumentException("Unknown objective: " + objective);
+    }
+    VisualTransitSimulator simulator = new VisualTransitSimulator(configFile, null, seed);
+    List<int[]> headwayCombinations = combine(getHeadwayValues(simulator.getLines().size()));
+    List<int[]> fleetCombinations = combine(getFleetValues(simulator.getStorageFacility()));
+    int numThreads = Math.max(1, Math.min(parallelism, headwayCombinations.size()));
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    List<SweepResult> results = new ArrayList<SweepResult>();
+    long startTime = System.nanoTime();
+    try {
+      CompletionService<List<SweepResult>> tasks =
+          new ExecutorCompletionService<List<SweepResult>>(executor);
+      for (int i = 0; i < headwayCombinations.size(); i++) {
+        int firstIndex = i * fleetCombinations.size();
+        int[] headwayCombination = headwayCombinations.get(i);
+        tasks.submit(() -> runFleets(firstIndex, headwayCombination, fleetCombinations,
+            numTimeSteps));
+      }
+      for (int i = 0; i < headwayCombinations.size(); i++) {
+        results.addAll(tasks.take().get());
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Sweep run was interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Sweep configuration failed", ex.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+    SweepReport sweepReport = new SweepReport(objective, seed, numTimeSteps, results);
+    sweepReport.setElapsedNanos(System.nanoTime() - startTime);
+    return sweepReport;
+  }
+
+  private List<SweepResult> runFleets(int firstIndex, int[] headwayCombination,
+                                      List<int[]> fleetCombinations, int numTimeSteps) {
+    List<SweepResult> results = new ArrayList<SweepResult>();
+    List<SweepResult> evaluated = new ArrayList<SweepResult>();
+    for (int i = 0; i < fleetCombinations.size(); i++) {
+      int index = firstIndex + i;
+      int[] fleetCombination = fleetCombinations.get(i);
+      SweepResult result = null;
+      for (SweepResult candidate : evaluated) {
+        if (candidate.isIdenticalWith(fleetCombination)) {
+          result = SweepResult.pruned(index, fleetCombination, candidate);
+          break;
+        }
+      }
+      if (result == null) {
+        result = runConfiguration(index, headwayCombination, fleetCombination, numTimeSteps);
+        evaluated.add(result);
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  /**
+   * Runs one configuration on the calling thread.
+   *
+   * @param index        index of the configuration
+   * @param headways     time steps between vehicles for each line
+   * @param fleetSizes   numbers of vehicles of each type in storage
+   * @param numTimeSteps number of time steps to run
+   * @return result of the configuration
+   */
+  SweepResult runConfiguration(int index, int[] headways, int[] fleetSizes, int numTimeSteps) {
+    VisualTransitSimulator simulator = new VisualTransitSimulator(configFile, null, seed);
+    simulator.setVerbose(false);
+    MeteredStorageFacility storageFacility = new MeteredStorageFacility(fleetSizes);
+    simulator.setStorageFacility(storageFacility);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    for (int headway : headways) {
+      vehicleStartTimings.add(headway);
+    }
+    simulator.setVehicleFactories(startHour);
+    simulator.start(vehicleStartTimings, numTimeSteps);
+    RunMeter runMeter = new RunMeter();
+    for (int step = 0; step < numTimeSteps; step++) {
+      simulator.update();
+      runMeter.record(simulator);
+    }
+    int[] fleetUsage = storageFacility.getPeakUsage();
+    boolean[] fleetExhausted = new boolean[fleetSizes.length];
+    for (int i = 0; i < fleetSizes.length; i++) {
+      fleetExhausted[i] = fleetUsage[i] >= fleetSizes[i];
+    }
+    return new SweepResult(index, headways, fleetSizes, fleetUsage, fleetExhausted,
+        runMeter.getSummary(index, seed, simulator));
+  }
+
+  private List<int[]> getHeadwayValues(int numLines) {
+    List<int[]> values = new ArrayList<int[]>();
+    for (int i = 0; i < numLines; i++) {
+      if (i < headways.size() && headways.get(i) != null) {
+        values.add(headways.get(i));
+      } else {
+        values.add(new int[] {BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES});
+      }
+    }
+    return values;
+  }
+
+  private List<int[]> getFleetValues(StorageFacility configured) {
+    int[] configuredSizes = {configured.getSmallBusesNum(), configured.getLargeBusesNum(),
+        configured.getElectricTrainsNum(), configured.getDieselTrainsNum()};
+    List<int[]> values = new ArrayList<int[]>();
+    for (int i = 0; i < fleetSizes.length; i++) {
+      values.add(fleetSizes[i] != null ? fleetSizes[i] : new int[] {configuredSizes[i]});
+    }
+    return values;
+  }
+
+  /**
+   * Creates every combination of the values, varying the last value fastest.
+   *
+   * @param values values of each position
+   * @return the combinations
+   */
+  static List<int[]> combine(List<int[]> values) {
+    List<int[]> combinations = new ArrayList<int[]>();
+    combinations.add(new int[values.size()]);
+    for (int position = 0; position < values.size(); position++) {
+      List<int[]> extended = new ArrayList<int[]>();
+      for (int[] combination : combinations) {
+        for (int value : values.get(position)) {
+          int[] next = combination.clone();
+          next[position] = value;
+          extended.add(next);
+        }
+      }
+      combinations = extended;
+    }
+    return combinations;
+  }
+
+  /**
+   * Sets the hour used to select the vehicle generation strategies.
+   *
+   * @param startHour hour of the day, from 0 to 23
+   */
+  public void setStartHour(int startHour) {
+    this.startHour = startHour;
+  }
+
+  public int getStartHour() {
+    return startHour;
+  }
+
+  /**
+   * Sets the number of headway combinations run at the same time.
+   *
+   * @param parallelism number of threads
+   */
+  public void setParallelism(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Sets the seed shared by all configurations.
+   *
+   * @param seed the seed
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Parses sweep values: a comma-separated list of numbers and ranges, where
+   * a range is written {@code min-max} or {@code min-max/step}.
+   *
+   * @param text the values
+   * @return the parsed values
+   */
+  static int[] parseValues(String text) {
+    List<Integer> values = new ArrayList<Integer>();
+    for (String part : text.split(",")) {
+      int dash = part.indexOf('-', 1);
+      if (dash < 0) {
+        values.add(Integer.parseInt(part.trim()));
+        continue;
+      }
+      int slash = part.indexOf('/', dash);
+      int max = Integer.parseInt(part.substring(dash + 1, slash < 0 ? part.length() : slash)
+          .trim());
+      int step = slash < 0 ? 1 : Integer.parseInt(part.substring(slash + 1).trim());
+      for (int value : range(Integer.parseInt(part.substring(0, dash).trim()), max, step)) {
+        values.add(value);
+      }
+    }
+    int[] parsed = new int[values.size()];
+    for (int i = 0; i < parsed.length; i++) {
+      parsed[i] = values.get(i);
+    }
+    return parsed;
+  }
+
+  /**
+   * Entry point for parameter sweeps.
+   * Usage: {@code SweepRunner <configFile> <numTimeSteps> <objective>
+   * [<line>=<values>|<vehicleType>=<values>...]}, e.g.,
+   * {@code 0=5-20/5 1=10,20 smallBuses=2-8/2}. The objective is one of
+   * waitTime, co2Emission, fleetSize and load, and the vehicle types are
+   * smallBuses, largeBuses, electricTrains and dieselTrains.
+   * The {@code vts.parallelism} system property selects the number of threads,
+   * the {@code vts.seed} system property sets the seed and the
+   * {@code vts.sweepTable} system property names a file for the results table.
+   *
+   * @param args command line arguments
+   * @throws FileNotFoundException if the results table cannot be written
+   */
+  public static void main(String[] args) throws FileNotFoundException {
+    if (args.length < 3) {
+      System.err.println("Usage: SweepRunner <configFile> <numTimeSteps> <objective>"
+          + " [<line>=<values>|<vehicleType>=<values>...]");
+      System.exit(1);
+    }
+    SweepRunner sweepRunner = new SweepRunner(args[0]);
+    for (int i = 3; i < args.length; i++) {
+      int equals = args[i].indexOf('=');
+      String name = args[i].substring(0, Math.max(equals, 0));
+      int[] values = parseValues(args[i].substring(equals + 1));
+      int vehicleType = Arrays.asList(FLEET_NAMES).indexOf(name);
+      if (vehicleType >= 0) {
+        sweepRunner.setFleetSizes(vehicleType, values);
+      } else {
+        sweepRunner.setHeadways(Integer.parseInt(name), values);
+      }
+    }
+    sweepRunner.setParallelism(Integer.getInteger("vts.parallelism",
+        sweepRunner.getParallelism()));
+    Long seed = Long.getLong("vts.seed");
+    if (seed != null) {
+      sweepRunner.setSeed(seed);
+    }
+    SweepReport sweepReport = sweepRunner.run(Integer.parseInt(args[1]), args[2]);
+    sweepReport.report(System.out);
+    String sweepTable = System.getProperty("vts.sweepTable");
+    if (sweepTable != null) {
+      try (PrintStream out = new PrintStream(sweepTable)) {
+        sweepReport.writeTable(out);
+      }
+    }
+  }
+
+  /**
+   * Storage facility that records the most vehicles of each type out of
+   * storage at once.
+   */
+  private static class MeteredStorageFacility extends StorageFacility {
+    private int[] initialSizes;
+    private int[] peakUsage = new int[FLEET_NAMES.length];
+
+    MeteredStorageFacility(int[] fleetSizes) {
+      super(fleetSizes[SMALL_BUSES], fleetSizes[LARGE_BUSES], fleetSizes[ELECTRIC_TRAINS],
+          fleetSizes[DIESEL_TRAINS]);
+      this.initialSizes = fleetSizes.clone();
+    }
+
+    @Override
+    public void decrementSmallBusesNum() {
+      super.decrementSmallBusesNum();
+      recordUsage(SMALL_BUSES, getSmallBusesNum());
+    }
+
+    @Override
+    public void decrementLargeBusesNum() {
+      super.decrementLargeBusesNum();
+      recordUsage(LARGE_BUSES, getLargeBusesNum());
+    }
+
+    @Override
+    public void decrementElectricTrainsNum() {
+      super.decrementElectricTrainsNum();
+      recordUsage(ELECTRIC_TRAINS, getElectricTrainsNum());
+    }
+
+    @Override
+    public void decrementDieselTrainsNum() {
+      super.decrementDieselTrainsNum();
+      recordUsage(DIESEL_TRAINS, getDieselTrainsNum());
+    }
+
+    private synchronized void recordUsage(int vehicleType, int remaining) {
+      peakUsage[vehicleType] = Math.max(peakUsage[vehicleType],
+          initialSizes[vehicleType] - remaining);
+    }
+
+    synchronized int[] getPeakUsage() {
+      return peakUsage.clone();
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package webserver;
+
+/**
+ * Interface for objects notified when the simulation has finished a time step.
+ */
+public interface TickListener {
+  /**
+   * Called after every vehicle and line of the simulation has been updated.
+   *
+   * @param simulator the simulator that finished the time step
+   */
+  public void onTick(VisualTransitSimulator simulator);
+}
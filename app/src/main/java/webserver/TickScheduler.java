@@ -0,0 +1,167 @@
+package webserver;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances a {@link VisualTransitSimulator} on a server-side clock.
+ * The simulator is updated either at a fixed number of ticks per second or, when
+ * no rate is given, as fast as possible, until it has run all of its time steps.
+ * Updates hold the simulator's monitor, so commands that read the simulation
+ * state should synchronize on the simulator as well.
+ * Every start, stop, pause and resume begins a new generation; ticks and loops
+ * of an earlier generation that are still in flight do nothing.
+ */
+public class TickScheduler {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private VisualTransitSimulator simulator;
+  private ScheduledExecutorService executor;
+  private ScheduledFuture<?> scheduledTicks;
+  private double ticksPerSecond;
+  private volatile boolean running;
+  private volatile boolean paused;
+  private volatile long generation;
+
+  /**
+   * Creates a scheduler for the given simulator.
+   *
+   * @param simulator the simulator to update
+   */
+  public TickScheduler(VisualTransitSimulator simulator) {
+    this.simulator = simulator;
+  }
+
+  /**
+   * Starts updating the simulator, replacing any previous schedule.
+   *
+   * @param ticksPerSecond number of updates per second, or a value less than or
+   *                       equal to zero to update as fast as possible
+   */
+  public synchronized void start(double ticksPerSecond) {
+    stop();
+    this.ticksPerSecond = ticksPerSecond;
+    this.running = true;
+    this.paused = false;
+    this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "vts-tick-scheduler");
+      thread.setDaemon(true);
+      return thread;
+    });
+    schedule();
+  }
+
+  /**
+   * Stops updating the simulator and releases the scheduler thread.
+   */
+  public synchronized void stop() {
+    generation++;
+    running = false;
+    cancelScheduledTicks();
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  /**
+   * Pauses or resumes the updates without losing the configured rate.
+   *
+   * @param paused whether the updates should be paused
+   */
+  public synchronized void setPaused(boolean paused) {
+    if (!running || this.paused == paused) {
+      return;
+    }
+    this.paused = paused;
+    generation++;
+    if (paused) {
+      cancelScheduledTicks();
+    } else {
+      schedule();
+    }
+  }
+
+  public boolean isRunning() {
+    return running;
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  public double getTicksPerSecond() {
+    return ticksPerSecond;
+  }
+
+  /**
+   * Performs a single update of the simulator and stops the scheduler once the
+   * simulation has run all of its time steps.
+   */
+  void tick() {
+    tick(generation);
+  }
+
+  /**
+   * Performs a single update if the scheduler is still in the given
+   * generation. The generation is checked while holding the simulator's
+   * monitor, so no update of an earlier generation follows a restart that was
+   * made while holding it.
+   *
+   * @param run generation the tick was scheduled in
+   * @return true if the simulator was updated and has time steps left
+   */
+  private boolean tick(long run) {
+    boolean finished;
+    synchronized (simulator) {
+      if (!running || paused || generation != run) {
+        return false;
+      }
+      simulator.update();
+      finished = simulator.isFinished();
+    }
+    if (finished) {
+      finish(run);
+    }
+    return !finished;
+  }
+
+  private void schedule() {
+    long run = generation;
+    if (ticksPerSecond > 0) {
+      long periodNanos = Math.max(1, Math.round(NANOS_PER_SECOND / ticksPerSecond));
+      scheduledTicks = executor.scheduleAtFixedRate(() -> tick(run), periodNanos, periodNanos,
+          TimeUnit.NANOSECONDS);
+    } else {
+      scheduledTicks = executor.schedule(() -> runFreely(run), 0, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void runFreely(long run) {
+    while (tick(run)) {
+      // the loop ends once the simulation finishes or the generation changes
+    }
+  }
+
+  private synchronized void finish(long run) {
+    if (generation != run) {
+      return;
+    }
+    generation++;
+    running = false;
+    cancelScheduledTicks();
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  private void cancelScheduledTicks() {
+    if (scheduledTicks != null) {
+      scheduledTicks.cancel(false);
+      scheduledTicks = null;
+    }
+  }
+}
@@ -5,11 +5,12 @@ import com.google.gson.JsonObject;
 /**
  * Represents a command that updates state of simulation.
  * This command is executed by web server to advance the simulation
- * by one step.
+ * by one step. It is ignored while the server-side clock is running.
  */
 public class UpdateCommand extends SimulatorCommand {
 
   private VisualTransitSimulator simulator;
+  private TickScheduler tickScheduler;
 
   /**
    * Constructs an UpdateCommand with given simulator.
@@ -17,7 +18,18 @@ public class UpdateCommand extends SimulatorCommand {
    * @param simulator the visual transit simulator to be updated
    */
   public UpdateCommand(VisualTransitSimulator simulator) {
+    this(simulator, null);
+  }
+
+  /**
+   * Constructs an UpdateCommand for a simulator that may have a server-side clock.
+   *
+   * @param simulator     the visual transit simulator to be updated
+   * @param tickScheduler scheduler advancing the simulation
+   */
+  public UpdateCommand(VisualTransitSimulator simulator, TickScheduler tickScheduler) {
     this.simulator = simulator;
+    this.tickScheduler = tickScheduler;
   }
 
   /**
@@ -28,6 +40,9 @@ public class UpdateCommand extends SimulatorCommand {
    */
   @Override
   public void execute(WebServerSession session, JsonObject command) {
+    if (tickScheduler != null && tickScheduler.isRunning()) {
+      return;
+    }
     simulator.update();
   }
 
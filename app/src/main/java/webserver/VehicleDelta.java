@@ -0,0 +1,56 @@
+package webserver;
+
+import java.util.List;
+import model.VehicleInterface;
+
+/**
+ * The vehicles that changed between two versions sent to a client, as found by
+ * {@link VehicleDeltaEncoder}. A full delta lists every active vehicle and
+ * replaces whatever the client had.
+ */
+public class VehicleDelta {
+
+  private long version;
+  private long baseVersion;
+  private boolean full;
+  private List<VehicleInterface> changedVehicles;
+  private List<Integer> removedIds;
+
+  /**
+   * Constructor for a vehicle delta.
+   *
+   * @param version         version the client has after applying the delta
+   * @param baseVersion     version the delta applies to, 0 for a full delta
+   * @param full            whether the delta replaces all vehicles of the client
+   * @param changedVehicles vehicles that were added or changed
+   * @param removedIds      ids of vehicles that are no longer active
+   */
+  public VehicleDelta(long version, long baseVersion, boolean full,
+                      List<VehicleInterface> changedVehicles, List<Integer> removedIds) {
+    this.version = version;
+    this.baseVersion = baseVersion;
+    this.full = full;
+    this.changedVehicles = changedVehicles;
+    this.removedIds = removedIds;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  public long getBaseVersion() {
+    return baseVersion;
+  }
+
+  public boolean isFull() {
+    return full;
+  }
+
+  public List<VehicleInterface> getChangedVehicles() {
+    return changedVehicles;
+  }
+
+  public List<Integer> getRemovedIds() {
+    return removedIds;
+  }
+}
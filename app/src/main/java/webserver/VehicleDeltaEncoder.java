@@ -0,0 +1,174 @@
+package webserver;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import model.ColorDecorator;
+import model.VehicleInterface;
+
+/**
+ * Encodes the active vehicles of a session as deltas against the vehicles last
+ * sent to its client.
+ * Every message carries a version. A client that sends back the version it
+ * last applied receives only the vehicles that were added, changed or removed
+ * since then; any other client receives a full snapshot. Clients wait for the
+ * answer to a request before sending the next one, so the last sent version is
+ * the one they acknowledge.
+ */
+public class VehicleDeltaEncoder {
+
+  private Map<Integer, VehicleState> sentStates;
+  private long version;
+
+  /**
+   * Creates an encoder that has not sent any vehicles yet.
+   */
+  public VehicleDeltaEncoder() {
+    this.sentStates = new HashMap<Integer, VehicleState>();
+    this.version = 0;
+  }
+
+  /**
+   * Encodes the vehicles for a client.
+   *
+   * @param vehicles      the active vehicles
+   * @param clientVersion version last applied by the client, or a negative value
+   *                      if the client has no vehicles
+   * @return the {@code updateVehiclesDelta} message
+   */
+  public JsonObject encode(List<VehicleInterface> vehicles, long clientVersion) {
+    return toJson(diff(vehicles, clientVersion));
+  }
+
+  /**
+   * Builds the message of a vehicle delta.
+   *
+   * @param delta the changed and removed vehicles
+   * @return the {@code updateVehiclesDelta} message
+   */
+  static JsonObject toJson(VehicleDelta delta) {
+    JsonArray changedVehicles = new JsonArray();
+    for (int i = 0; i < delta.getChangedVehicles().size(); i++) {
+      changedVehicles.add(toJson(delta.getChangedVehicles().get(i)));
+    }
+    JsonArray removedVehicles = new JsonArray();
+    for (int i = 0; i < delta.getRemovedIds().size(); i++) {
+      removedVehicles.add(delta.getRemovedIds().get(i));
+    }
+
+    JsonObject data = new JsonObject();
+    data.addProperty("command", "updateVehiclesDelta");
+    data.addProperty("version", delta.getVersion());
+    data.addProperty("baseVersion", delta.getBaseVersion());
+    data.addProperty("full", delta.isFull());
+    data.add("vehicles", changedVehicles);
+    data.add("removed", removedVehicles);
+    return data;
+  }
+
+  /**
+   * Finds the vehicles to send to a client and records them as sent.
+   *
+   * @param vehicles      the active vehicles
+   * @param clientVersion version last applied by the client, or a negative value
+   *                      if the client has no vehicles
+   * @return the changed and removed vehicles
+   */
+  public VehicleDelta diff(List<VehicleInterface> vehicles, long clientVersion) {
+    boolean full = clientVersion != version || clientVersion <= 0;
+    long baseVersion = full ? 0 : version;
+    if (full) {
+      sentStates.clear();
+    }
+
+    List<VehicleInterface> changedVehicles = new ArrayList<VehicleInterface>();
+    Map<Integer, VehicleState> currentStates = new HashMap<Integer, VehicleState>();
+    for (int i = 0; i < vehicles.size(); i++) {
+      VehicleInterface vehicle = vehicles.get(i);
+      VehicleState state = sentStates.remove(vehicle.getId());
+      if (state == null) {
+        state = new VehicleState();
+        state.capture(vehicle);
+        changedVehicles.add(vehicle);
+      } else if (state.capture(vehicle)) {
+        changedVehicles.add(vehicle);
+      }
+      currentStates.put(vehicle.getId(), state);
+    }
+
+    // whatever is left was sent before but is no longer active
+    List<Integer> removedIds = new ArrayList<Integer>(sentStates.keySet());
+    sentStates = currentStates;
+
+    if (full || changedVehicles.size() > 0 || removedIds.size() > 0) {
+      version++;
+    }
+    return new VehicleDelta(version, baseVersion, full, changedVehicles, removedIds);
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Builds the JSON description of a vehicle sent to clients.
+   *
+   * @param vehicle the vehicle to describe
+   * @return JSON object with the vehicle's id, type, passengers, CO2, position and color
+   */
+  static JsonObject toJson(VehicleInterface vehicle) {
+    JsonObject s = new JsonObject();
+
+    s.addProperty("id", vehicle.getId());
+    s.addProperty("numPassengers", vehicle.getPassengers().size());
+    s.addProperty("capacity", vehicle.getCapacity());
+    s.addProperty("type", vehicle.getVehicleType());
+    s.addProperty("co2", vehicle.getCurrentCO2Emission());
+
+    JsonObject positionJsonObject = new JsonObject();
+    positionJsonObject.addProperty("longitude", vehicle.getLongitude());
+    positionJsonObject.addProperty("latitude", vehicle.getLatitude());
+    s.add("position", positionJsonObject);
+
+    if (vehicle instanceof ColorDecorator) {
+      s.add("color", ((ColorDecorator) vehicle).getJsonColor());
+    }
+    return s;
+  }
+
+  /**
+   * The values of a vehicle that were last sent to the client.
+   */
+  private static class VehicleState {
+    private double longitude;
+    private double latitude;
+    private int numPassengers;
+    private int co2;
+    private int alpha;
+
+    /**
+     * Stores the current values of a vehicle.
+     *
+     * @param vehicle the vehicle
+     * @return whether any value differs from the stored one
+     */
+    boolean capture(VehicleInterface vehicle) {
+      int newAlpha = vehicle instanceof ColorDecorator
+          ? ((ColorDecorator) vehicle).getAlpha() : 0;
+      boolean changed = longitude != vehicle.getLongitude()
+          || latitude != vehicle.getLatitude()
+          || numPassengers != vehicle.getPassengers().size()
+          || co2 != vehicle.getCurrentCO2Emission()
+          || alpha != newAlpha;
+      longitude = vehicle.getLongitude();
+      latitude = vehicle.getLatitude();
+      numPassengers = vehicle.getPassengers().size();
+      co2 = vehicle.getCurrentCO2Emission();
+      alpha = newAlpha;
+      return changed;
+    }
+  }
+}
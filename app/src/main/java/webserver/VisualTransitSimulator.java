@@ -14,7 +14,14 @@ import model.VehicleConcreteSubject;
 import model.VehicleFactory;
 import model.VehicleInterface;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * VisualTransitSimulator manages the state and updates of a transit simulation
@@ -37,6 +44,23 @@ public class VisualTransitSimulator {
   private VehicleFactory busFactory;
   private VehicleFactory trainFactory;
   private VehicleConcreteSubject vehicleConcreteSubject;
+  private boolean verbose = true;
+  private ForkJoinPool tickPool;
+  private long vehicleSteps = 0;
+  private long passengersGenerated = 0;
+  private Long seed;
+  private final AtomicLong stateVersion = new AtomicLong();
+  private List<TickListener> tickListeners = new CopyOnWriteArrayList<TickListener>();
+
+  /**
+   * Constructor for a simulation that is not attached to a web server session.
+   * Used to run the simulation headless, e.g., from {@link BatchRunner}.
+   *
+   * @param configFile file containing the simulation configuration
+   */
+  public VisualTransitSimulator(String configFile) {
+    this(configFile, null);
+  }
 
   /**
    * Constructor for Simulation.
@@ -45,10 +69,32 @@ public class VisualTransitSimulator {
    * @param webServerSession session associated with the simulation
    */
   public VisualTransitSimulator(String configFile, WebServerSession webServerSession) {
+    this(configFile, webServerSession, null);
+  }
+
+  /**
+   * Constructor for a seeded simulation.
+   * Every route generates passengers from its own random stream, split from
+   * the seed, so runs with the same seed, configuration and commands are
+   * identical, also when lines are updated in parallel.
+   *
+   * @param configFile       file containing the simulation configuration
+   * @param webServerSession session associated with the simulation, or null
+   * @param seed             seed of the random streams
+   */
+  public VisualTransitSimulator(String configFile, WebServerSession webServerSession,
+                                long seed) {
+    this(configFile, webServerSession, Long.valueOf(seed));
+  }
+
+  private VisualTransitSimulator(String configFile, WebServerSession webServerSession,
+                                 Long seed) {
     this.webServerSession = webServerSession;
+    this.seed = seed;
     this.counter = new Counter();
     ConfigManager configManager = new ConfigManager();
-    configManager.readConfig(counter, configFile);
+    configManager.readConfig(counter, configFile,
+        seed == null ? null : new SplittableRandom(seed));
     this.lines = configManager.getLines();
     this.activeVehicles = new ArrayList<VehicleInterface>();
     this.completedTripVehicles = new ArrayList<VehicleInterface>();
@@ -69,6 +115,20 @@ public class VisualTransitSimulator {
     }
   }
 
+  /**
+   * Replaces the configured storage facility, e.g., to try other fleet sizes.
+   * Takes effect for vehicle factories created afterwards.
+   *
+   * @param storageFacility storage facility with the vehicles of the simulation
+   */
+  public void setStorageFacility(StorageFacility storageFacility) {
+    this.storageFacility = storageFacility;
+  }
+
+  public StorageFacility getStorageFacility() {
+    return storageFacility;
+  }
+
   /**
    * Initializes vehicle factory classes for the simulation.
    *
@@ -88,10 +148,12 @@ public class VisualTransitSimulator {
   public void start(List<Integer> vehicleStartTimings, int numTimeSteps) {
     this.vehicleStartTimings = vehicleStartTimings;
     this.numTimeSteps = numTimeSteps;
+    this.timeSinceLastVehicle.clear();
     for (int i = 0; i < vehicleStartTimings.size(); i++) {
       this.timeSinceLastVehicle.add(i, 0);
     }
     simulationTimeElapsed = 0;
+    markStateChanged();
   }
 
   /**
@@ -110,8 +172,10 @@ public class VisualTransitSimulator {
       if (simulationTimeElapsed > numTimeSteps) {
         return;
       }
-      System.out.println("~~~~The simulation time is now at time step "
-          + simulationTimeElapsed + "~~~~");
+      if (verbose) {
+        System.out.println("~~~~The simulation time is now at time step "
+            + simulationTimeElapsed + "~~~~");
+      }
       // generate vehicles
       for (int i = 0; i < timeSinceLastVehicle.size(); i++) {
         Line line = lines.get(i);
@@ -120,14 +184,14 @@ public class VisualTransitSimulator {
         if (timeSinceLastVehicle.get(i) <= 0) {
           VehicleInterface generatedVehicle = null;
           if (line.getType().equals(Line.BUS_LINE) && !line.isIssueExist()) {
-            generatedVehicle = busFactory.generateVehicle(line.shallowCopy());
+            generatedVehicle = busFactory.generateVehicle(line);
             if (generatedVehicle != null) {
               generatedVehicle = new ColorDecorator(generatedVehicle);
             }
 
             // train
           } else if (line.getType().equals(Line.TRAIN_LINE) && !line.isIssueExist()) {
-            generatedVehicle = trainFactory.generateVehicle(line.shallowCopy());
+            generatedVehicle = trainFactory.generateVehicle(line);
             if (generatedVehicle != null) {
               generatedVehicle = new ColorDecorator(generatedVehicle);
             }
@@ -146,21 +210,34 @@ public class VisualTransitSimulator {
         }
       }
       // update vehicles
+      vehicleSteps += activeVehicles.size();
+      if (tickPool != null) {
+        updateVehiclesInParallel();
+      } else {
+        for (int i = activeVehicles.size() - 1; i >= 0; i--) {
+          activeVehicles.get(i).update();
+        }
+      }
       for (int i = activeVehicles.size() - 1; i >= 0; i--) {
         VehicleInterface currVehicle = activeVehicles.get(i);
-        currVehicle.update();
         if (currVehicle.isTripComplete()) {
           VehicleInterface completedTripVehicle = activeVehicles.remove(i);
           completedTripVehicles.add(completedTripVehicle);
-          System.out.println("This are the completed trips: " + completedTripVehicle);
+          if (verbose) {
+            System.out.println("This are the completed trips: " + completedTripVehicle);
+          }
           if (completedTripVehicle.getVehicleType().equals(SmallBus.SMALL_BUS_VEHICLE)
               || completedTripVehicle.getVehicleType().equals(LargeBus.LARGE_BUS_VEHICLE)) {
-            System.out.printf("Trip Complete, bus");
+            if (verbose) {
+              System.out.printf("Trip Complete, bus");
+            }
             busFactory.returnVehicle(completedTripVehicle);
           } else if (completedTripVehicle.getVehicleType().equals(ElectricTrain
               .ELECTRIC_TRAIN_VEHICLE) || completedTripVehicle.getVehicleType().equals(DieselTrain
               .DIESEL_TRAIN_VEHICLE)) {
-            System.out.printf("Trip Complete, train");
+            if (verbose) {
+              System.out.printf("Trip Complete, train");
+            }
             trainFactory.returnVehicle(completedTripVehicle);
           }
         } else {
@@ -170,25 +247,203 @@ public class VisualTransitSimulator {
         }
       }
       // update lines
-      for (int i = 0; i < lines.size(); i++) {
-        Line currLine = lines.get(i);
-        currLine.update();
-        if (VisualTransitSimulator.LOGGING) {
-          currLine.report(System.out);
+      if (tickPool != null) {
+        updateLinesInParallel();
+      } else {
+        for (int i = 0; i < lines.size(); i++) {
+          passengersGenerated += lines.get(i).update();
+        }
+      }
+      if (VisualTransitSimulator.LOGGING) {
+        for (int i = 0; i < lines.size(); i++) {
+          lines.get(i).report(System.out);
         }
       }
       vehicleConcreteSubject.notifyObservers();
+      markStateChanged();
+      for (TickListener tickListener : tickListeners) {
+        tickListener.onTick(this);
+      }
+    }
+  }
+
+  /**
+   * Updates the active vehicles with one task per line on the tick pool.
+   * Vehicles of a line share that line's stops, so each line's vehicles are
+   * updated by one task in the same order as the serial engine. Lines never
+   * share stops, so the tasks are independent. Returns once every task is done.
+   */
+  private void updateVehiclesInParallel() {
+    Map<Integer, List<VehicleInterface>> vehiclesByLine =
+        new LinkedHashMap<Integer, List<VehicleInterface>>();
+    for (int i = activeVehicles.size() - 1; i >= 0; i--) {
+      VehicleInterface currVehicle = activeVehicles.get(i);
+      vehiclesByLine.computeIfAbsent(currVehicle.getLine().getId(),
+          lineId -> new ArrayList<VehicleInterface>()).add(currVehicle);
+    }
+    List<ForkJoinTask<?>> tasks = new ArrayList<ForkJoinTask<?>>();
+    for (List<VehicleInterface> lineVehicles : vehiclesByLine.values()) {
+      tasks.add(tickPool.submit(() -> {
+        for (VehicleInterface lineVehicle : lineVehicles) {
+          lineVehicle.update();
+        }
+      }));
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      task.join();
+    }
+  }
+
+  /**
+   * Updates the lines with one task per line on the tick pool.
+   * Each route generates passengers from its own random stream at its own
+   * stops, so the tasks are independent and the result does not depend on
+   * the order they run in. Returns once every task is done.
+   */
+  private void updateLinesInParallel() {
+    List<ForkJoinTask<Integer>> tasks = new ArrayList<ForkJoinTask<Integer>>();
+    for (Line line : lines) {
+      tasks.add(tickPool.submit(line::update));
+    }
+    for (ForkJoinTask<Integer> task : tasks) {
+      passengersGenerated += task.join();
+    }
+  }
+
+  /**
+   * Sets the number of threads used to update vehicles.
+   * With a parallelism of one or less the vehicles are updated serially on the
+   * calling thread. Otherwise, the vehicles of each line are updated in parallel
+   * on a fork-join pool, followed by the lines; the results are identical to
+   * the serial engine. Setting a parallelism of one shuts the pool down, which
+   * callers do once they are done with the simulator. The pool's workers are
+   * daemon threads, so a pool that is never shut down does not keep the JVM
+   * running.
+   *
+   * @param parallelism number of threads updating vehicles
+   */
+  public void setParallelism(int parallelism) {
+    if (tickPool != null) {
+      tickPool.shutdown();
+      tickPool = null;
+    }
+    if (parallelism > 1) {
+      tickPool = new ForkJoinPool(parallelism);
+    }
+  }
+
+  /**
+   * Gets the number of threads used to update vehicles.
+   *
+   * @return the parallelism of the tick pool, or 1 for the serial engine
+   */
+  public int getParallelism() {
+    if (tickPool == null) {
+      return 1;
     }
+    return tickPool.getParallelism();
+  }
+
+  /**
+   * Enables or disables the per step console output of the simulation.
+   *
+   * @param verbose whether to print progress to standard output
+   */
+  public void setVerbose(boolean verbose) {
+    this.verbose = verbose;
   }
 
   public List<Line> getLines() {
     return lines;
   }
 
+  /**
+   * Gets the seed of the simulation.
+   *
+   * @return the seed, or null if passenger generation is unseeded
+   */
+  public Long getSeed() {
+    return seed;
+  }
+
   public List<VehicleInterface> getActiveVehicles() {
     return activeVehicles;
   }
 
+  public int getSimulationTimeElapsed() {
+    return simulationTimeElapsed;
+  }
+
+  public boolean isPaused() {
+    return paused;
+  }
+
+  /**
+   * Checks whether the simulation has run all of its time steps.
+   *
+   * @return true if no time steps are left to run
+   */
+  public boolean isFinished() {
+    return simulationTimeElapsed >= numTimeSteps;
+  }
+
+  /**
+   * Gets the total number of vehicle updates performed so far.
+   *
+   * @return the number of vehicle updates summed over all time steps
+   */
+  public long getVehicleSteps() {
+    return vehicleSteps;
+  }
+
+  /**
+   * Gets the total number of passengers generated at stops so far.
+   *
+   * @return the number of passengers generated
+   */
+  public long getPassengersGenerated() {
+    return passengersGenerated;
+  }
+
+  /**
+   * Gets the version of the simulation state. The version increases whenever
+   * a time step is run or the state is changed by a command, so responses
+   * built for one version can be reused until it changes.
+   *
+   * @return the current state version
+   */
+  public long getStateVersion() {
+    return stateVersion.get();
+  }
+
+  /**
+   * Increases the state version after a change to the simulation state.
+   * Callers do not need to hold the simulator's monitor.
+   */
+  public void markStateChanged() {
+    stateVersion.incrementAndGet();
+  }
+
+  /**
+   * Registers a listener that is notified at the end of every time step.
+   *
+   * @param tickListener the listener to add
+   */
+  public void addTickListener(TickListener tickListener) {
+    if (!tickListeners.contains(tickListener)) {
+      tickListeners.add(tickListener);
+    }
+  }
+
+  /**
+   * Removes a listener registered with {@link #addTickListener}.
+   *
+   * @param tickListener the listener to remove
+   */
+  public void removeTickListener(TickListener tickListener) {
+    tickListeners.remove(tickListener);
+  }
+
   /**
    * Registers an observer into the vehicle subject.
    *
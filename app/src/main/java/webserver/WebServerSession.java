@@ -6,10 +6,16 @@ import com.google.gson.JsonParser;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
 import javax.websocket.OnMessage;
 import javax.websocket.OnOpen;
+import javax.websocket.SendHandler;
 import javax.websocket.Session;
 import javax.websocket.server.ServerEndpoint;
 
@@ -19,12 +25,43 @@ import javax.websocket.server.ServerEndpoint;
  */
 @ServerEndpoint(
     value = "/simulator",
-    subprotocols = {"web_server"}
+    subprotocols = {"web_server", WebServerSession.BINARY_SUBPROTOCOL}
 )
 public class WebServerSession {
 
+  /**
+   * Subprotocol of clients that receive the pushed state as binary frames,
+   * see {@link BinaryStateEncoder}. Commands are still sent as JSON text.
+   */
+  public static final String BINARY_SUBPROTOCOL = "web_server_binary";
+
+  /**
+   * Shared simulations that sessions of this server attach to as viewers.
+   */
+  private static final SimulationRegistry SHARED_SIMULATIONS = new SimulationRegistry();
+
+  /**
+   * Commands whose messages replace the previous one; only the latest of them
+   * is kept while messages wait in the outbound queue.
+   */
+  private static final Set<String> SNAPSHOT_COMMANDS = new HashSet<String>(Arrays.asList(
+      "updateVehicles", "updateRoutes", "updateStopCounts", "observedVehicle"));
+
+  /**
+   * Whether the statistics of a session's outbound queue are printed when the
+   * session closes, set with the {@code vts.reportQueues} system property.
+   */
+  private static final boolean REPORT_QUEUES = Boolean.getBoolean("vts.reportQueues");
+
   private Session session;
   private WebServerSessionState webServerState;
+  private VisualTransitSimulator simulator;
+  private TickScheduler tickScheduler;
+  private SubscribeCommand subscribeCommand;
+  private boolean binaryProtocol;
+  private OutboundQueue outboundQueue;
+  private AttachCommand attachCommand;
+  private String configFile;
 
   /**
    * Default constructor for WebServerSession.
@@ -45,18 +82,23 @@ public class WebServerSession {
     try {
       //save session object
       this.session = session;
+      binaryProtocol = BINARY_SUBPROTOCOL.equals(session.getNegotiatedSubprotocol());
+      outboundQueue = new OutboundQueue(new OutboundQueue.MessageSender() {
+        @Override
+        public void sendText(String text, SendHandler handler) {
+          session.getAsyncRemote().sendText(text, handler);
+        }
+
+        @Override
+        public void sendBinary(ByteBuffer data, SendHandler handler) {
+          session.getAsyncRemote().sendBinary(data, handler);
+        }
+      });
       webServerState = new WebServerSessionState();
-      VisualTransitSimulator simulator = new VisualTransitSimulator(
-          URLDecoder.decode(getClass().getClassLoader()
-              .getResource("config.txt").getFile(), "UTF-8"), this);
-      webServerState.getCommands().put("getRoutes", new GetRoutesCommand(simulator));
-      webServerState.getCommands().put("getVehicles", new GetVehiclesCommand(simulator));
-      webServerState.getCommands().put("start", new StartCommand(simulator));
-      webServerState.getCommands().put("update", new UpdateCommand(simulator));
-      webServerState.getCommands().put("initLines", new InitLinesCommand(simulator));
-      webServerState.getCommands().put("pause", new PauseCommand(simulator));
-      webServerState.getCommands().put("registerVehicle", new RegisterVehicleCommand(simulator));
-      webServerState.getCommands().put("lineIssue", new LineIssueCommand(simulator));
+      configFile = URLDecoder.decode(getClass().getClassLoader()
+          .getResource("config.txt").getFile(), "UTF-8");
+      attachCommand = new AttachCommand(SHARED_SIMULATIONS, configFile);
+      webServerState.getCommands().put("attach", attachCommand);
     } catch (UnsupportedEncodingException uee) {
       uee.printStackTrace();
     }
@@ -65,6 +107,12 @@ public class WebServerSession {
 
   /**
    * Function which executes when a simulation command is received from the client.
+   * Commands of a session attached to a shared simulation go to that
+   * simulation. Otherwise the session's own simulation is created by its first
+   * command other than {@code attach}, so viewers of a shared simulation never
+   * load a model. Commands on the own simulation run while holding the
+   * simulator's monitor, so they never observe a simulation step that the tick
+   * scheduler is still running.
    *
    * @param message incoming message
    */
@@ -73,26 +121,147 @@ public class WebServerSession {
     JsonObject commandJson = JsonParser.parseString(message).getAsJsonObject();
     String command = commandJson.get("command").getAsString();
     if (command != null) {
+      if ("attach".equals(command)) {
+        attachCommand.execute(this, commandJson);
+        return;
+      }
+      SharedSimulation attached = attachCommand.getAttached();
+      if (attached != null) {
+        attached.execute(this, command, commandJson);
+        return;
+      }
+      if (simulator == null) {
+        createSimulator();
+      }
       if (webServerState.getCommands().keySet().contains(command)) {
         SimulatorCommand myC = webServerState.getCommands().get(command);
-        myC.execute(this, commandJson);
+        synchronized (simulator) {
+          myC.execute(this, commandJson);
+        }
       }
     }
   }
 
+  /**
+   * Creates the session's own simulation, its tick scheduler and the commands
+   * that control it.
+   */
+  private void createSimulator() {
+    simulator = new VisualTransitSimulator(configFile, this);
+    tickScheduler = new TickScheduler(simulator);
+    webServerState.getCommands().put("getRoutes", new GetRoutesCommand(simulator));
+    webServerState.getCommands().put("getVehicles", new GetVehiclesCommand(simulator));
+    webServerState.getCommands().put("start", new StartCommand(simulator, tickScheduler));
+    webServerState.getCommands().put("update", new UpdateCommand(simulator, tickScheduler));
+    webServerState.getCommands().put("initLines", new InitLinesCommand(simulator));
+    webServerState.getCommands().put("pause", new PauseCommand(simulator, tickScheduler));
+    webServerState.getCommands().put("registerVehicle", new RegisterVehicleCommand(simulator));
+    webServerState.getCommands().put("lineIssue", new LineIssueCommand(simulator));
+    subscribeCommand = new SubscribeCommand(simulator);
+    webServerState.getCommands().put("subscribe", subscribeCommand);
+  }
+
   /**
    * Sends simulation information to the client.
+   * Snapshot messages still waiting in the outbound queue are replaced by newer
+   * ones of the same command.
    *
    * @param message incoming data
    */
   public void sendJson(JsonObject message) {
+    String command = null;
+    if (message.has("command")) {
+      command = message.get("command").getAsString();
+    }
+    sendText(message.toString(), SNAPSHOT_COMMANDS.contains(command) ? command : null);
+  }
+
+  /**
+   * Sends an already serialized message to the client.
+   *
+   * @param message JSON text of the message
+   */
+  public void sendText(String message) {
+    sendText(message, null);
+  }
+
+  /**
+   * Sends an already serialized message to the client.
+   *
+   * @param message     JSON text of the message
+   * @param coalesceKey key of messages that supersede each other while queued,
+   *                    or null if the message must always be sent
+   */
+  public void sendText(String message, String coalesceKey) {
+    if (outboundQueue != null) {
+      outboundQueue.enqueue(coalesceKey, () -> message);
+      return;
+    }
     try {
-      session.getBasicRemote().sendText(message.toString());
+      session.getBasicRemote().sendText(message);
     } catch (IOException ex) {
       ex.printStackTrace();
     }
   }
 
+  /**
+   * Sends a binary frame to the client.
+   *
+   * @param message buffer holding the frame
+   */
+  public void sendBinary(ByteBuffer message) {
+    if (outboundQueue != null) {
+      outboundQueue.enqueue(null, () -> message);
+      return;
+    }
+    try {
+      session.getBasicRemote().sendBinary(message);
+    } catch (IOException ex) {
+      ex.printStackTrace();
+    }
+  }
+
+  /**
+   * Sends the latest state to the client. The message is created when it is
+   * sent, and a message with the same key that is still queued is replaced, so
+   * a slow client skips states instead of delaying the caller.
+   *
+   * @param key     key of messages that supersede each other
+   * @param message creates a {@link JsonObject} or a binary {@link ByteBuffer}
+   */
+  public void sendLatest(String key, Supplier<?> message) {
+    if (outboundQueue != null) {
+      outboundQueue.enqueue(key, message);
+      return;
+    }
+    Object data = message.get();
+    if (data instanceof ByteBuffer) {
+      sendBinary((ByteBuffer) data);
+    } else if (data instanceof JsonObject) {
+      sendJson((JsonObject) data);
+    } else {
+      sendText(data.toString());
+    }
+  }
+
+  /**
+   * Gets the queue of messages waiting to be sent to the client.
+   *
+   * @return the outbound queue, or null if the session is not open
+   */
+  public OutboundQueue getOutboundQueue() {
+    return outboundQueue;
+  }
+
+  /**
+   * Checks whether the client negotiated the binary subprotocol.
+   *
+   * @return true if pushed state is sent as binary frames
+   */
+  public boolean isBinaryProtocol() {
+    return binaryProtocol;
+  }
+
   /**
    * Called when an error occurs during the WebSocket session.
    *
@@ -111,6 +280,21 @@ public class WebServerSession {
   @OnClose
   public void onClose(Session session) {
     System.out.println("session closed");
+    if (tickScheduler != null) {
+      tickScheduler.stop();
+    }
+    if (subscribeCommand != null) {
+      subscribeCommand.unsubscribe();
+    }
+    if (attachCommand != null) {
+      attachCommand.detach(this);
+    }
+    if (outboundQueue != null) {
+      outboundQueue.clear();
+      if (REPORT_QUEUES) {
+        outboundQueue.report(System.out);
+      }
+    }
     //make session null as the session is closed
     this.session = null;
   }
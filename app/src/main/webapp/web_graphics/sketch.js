@@ -7,17 +7,27 @@ var imageHeight;
 let imageX = 250; // Top left position, in pixels, of image
 let imageY = 1; // Top left position, in pixels, of image
 
-const updateTime = 1000; // miliseconds
-var totalUpdates = 0; // How many times have we called update on the sim
-var elapsedTime;
-var startTime;
+const updateTime = 1000; // miliseconds between simulation steps, the server owns the clock
+// open the page with ?binary to receive the pushed state as packed binary frames
+const useBinaryProtocol = new URLSearchParams(location.search).has("binary");
+// open the page with ?sim=<name> to watch a simulation shared with other viewers
+const sharedSimulationName = new URLSearchParams(location.search).get("sim");
+const vehicleTypes = ["SMALL_BUS_VEHICLE", "LARGE_BUS_VEHICLE", "ELECTRIC_TRAIN_VEHICLE", "DIESEL_TRAIN_VEHICLE"];
+const coordinateScale = 1e6; // fixed-point units per degree in binary frames
 
 var socket;
 var connected;
 
 var vehicles = [];
+var vehiclesById = {}; // vehicles by id, patched by delta updates
+var vehiclesVersion = -1; // version of the vehicles last applied, sent back to the server
+var vehiclesRequestPending = false;
 var stops = [];
 var routes = [];
+var topologyReceived = false; // stops and routes are sent once, then only stop counts
+var routesStateVersion = -1; // simulation state version of the stop counts we show
+var vehiclesStateVersion = -1; // simulation state version of the vehicles we show
+var subscribed = false; // the server pushes the state after every step, no polling needed
 
 var numLines;
 var lines = [];
@@ -104,13 +114,91 @@ function Color(r, g, b, a) {
   this.alpha = a;
 }
 
+function createVehicle(vehicleData) {
+    var position = new Position(vehicleData.position.longitude, vehicleData.position.latitude);
+    var color = new Color(vehicleData['color']['r'], vehicleData['color']['g'],
+        vehicleData['color']['b'], vehicleData['color']['alpha']);
+    if (vehicleData.type == "SMALL_BUS_VEHICLE") {
+        return new SmallBus(vehicleData.id, position, vehicleData.numPassengers, vehicleData.capacity, vehicleData.co2, color);
+    }
+    else if (vehicleData.type == "LARGE_BUS_VEHICLE") {
+        return new LargeBus(vehicleData.id, position, vehicleData.numPassengers, vehicleData.capacity, vehicleData.co2, color);
+    }
+    else if (vehicleData.type == "ELECTRIC_TRAIN_VEHICLE") {
+        return new ElectricTrain(vehicleData.id, position, vehicleData.numPassengers, vehicleData.capacity, vehicleData.co2, color);
+    }
+    else if (vehicleData.type == "DIESEL_TRAIN_VEHICLE") {
+        return new DieselTrain(vehicleData.id, position, vehicleData.numPassengers, vehicleData.capacity, vehicleData.co2, color);
+    }
+    return null;
+}
+
+// Decodes a binary state frame into the same shape as an updateState message,
+// see BinaryStateEncoder.java for the layout
+function decodeStateFrame(buffer) {
+    var view = new DataView(buffer);
+    var offset = 0;
+    var frameType = view.getUint8(offset);
+    if (frameType != 1) {
+        return {command: "unknownFrame"};
+    }
+    var flags = view.getUint8(offset + 1);
+    var data = {command: "updateState", timeStep: view.getInt32(offset + 2)};
+    var delta = {
+        full: (flags & 1) != 0,
+        version: view.getUint32(offset + 6),
+        baseVersion: view.getUint32(offset + 10),
+        vehicles: [],
+        removed: []
+    };
+    offset += 14;
+    var numVehicles = view.getUint16(offset);
+    offset += 2;
+    for (let i = 0; i < numVehicles; i++) {
+        delta.vehicles.push({
+            id: view.getInt32(offset),
+            type: vehicleTypes[view.getUint8(offset + 4)],
+            numPassengers: view.getUint16(offset + 5),
+            capacity: view.getUint16(offset + 7),
+            co2: view.getUint16(offset + 9),
+            position: {
+                longitude: view.getInt32(offset + 11) / coordinateScale,
+                latitude: view.getInt32(offset + 15) / coordinateScale
+            },
+            color: {
+                r: view.getUint8(offset + 19),
+                g: view.getUint8(offset + 20),
+                b: view.getUint8(offset + 21),
+                alpha: view.getUint8(offset + 22)
+            }
+        });
+        offset += 23;
+    }
+    var numRemoved = view.getUint16(offset);
+    offset += 2;
+    for (let i = 0; i < numRemoved; i++) {
+        delta.removed.push(view.getInt32(offset));
+        offset += 4;
+    }
+    var numStops = view.getUint16(offset);
+    offset += 2;
+    var stopCounts = [];
+    for (let i = 0; i < numStops; i++) {
+        stopCounts.push(view.getUint16(offset));
+        offset += 2;
+    }
+    data.vehicles = delta;
+    data.stopCounts = stopCounts;
+    return data;
+}
+
 function setupSocket() {
     try {
         // Handles commands sent up from C++
         socket.onmessage =function got_packet(msg) {
 
-            var data = JSON.parse(msg.data);
-            if (data.command == "initLines") {
+            var data = (msg.data instanceof ArrayBuffer) ? decodeStateFrame(msg.data) : JSON.parse(msg.data);
+            if (data.command == "initLines" && lines.length == 0) {
                 numLines = int(data.numLines);
                 for (let i = 0; i < data.lines.length; i++) {
                     id = data.lines[i].id;
@@ -125,39 +213,62 @@ function setupSocket() {
                     lines.push(new Line(id, name, type));
                 }
                 initLineSliders();
+                if (data.topology) {
+                    stops = [];
+                    for (let i = 0; i < data.topology.stops.length; i++) {
+                        var stopData = data.topology.stops[i];
+                        var position = new Position(stopData.position.longitude, stopData.position.latitude);
+                        stops.push(new Stop(stopData.id, position, 0));
+                    }
+                    routes = [];
+                    for (let i = 0; i < data.topology.routes.length; i++) {
+                        routes.push(new Route(data.topology.routes[i].id, data.topology.routes[i].stops));
+                    }
+                    topologyReceived = true;
+                }
+            }
+            if (data.command == "updateStopCounts") {
+                if (data.stateVersion !== undefined) {
+                    routesStateVersion = data.stateVersion;
+                }
+                for (let i = 0; i < data.counts.length && i < stops.length; i++) {
+                    stops[i].numPeople = data.counts[i];
+                }
             }
             if (data.command == "updateVehicles") {
 
                 vehicles = [];
 
                 for (let i = 0; i < data.vehicles.length; i++) {
-                    id = data.vehicles[i].id;
-                    numPassengers = data.vehicles[i].numPassengers;
-                    capacity = data.vehicles[i].capacity;
-
-                    var longitude = data.vehicles[i].position.longitude;
-                    var latitude = data.vehicles[i].position.latitude;
-                    position = new Position(longitude, latitude);
-                    co2 = data.vehicles[i].co2;
-                    var colorR = data.vehicles[i]['color']['r'];
-                    var colorG = data.vehicles[i]['color']['g'];
-                    var colorB = data.vehicles[i]['color']['b'];
-                    var colorAlpha = data.vehicles[i]['color']['alpha'];
-                    var color = new Color(colorR, colorG, colorB, colorAlpha);
-                    if (data.vehicles[i].type == "SMALL_BUS_VEHICLE") {
-                        vehicles.push(new SmallBus(id, position, numPassengers, capacity, co2, color));
-                    }
-                    else if (data.vehicles[i].type == "LARGE_BUS_VEHICLE") {
-                        vehicles.push(new LargeBus(id, position, numPassengers, capacity, co2, color));
-                    }
-                    else if (data.vehicles[i].type == "ELECTRIC_TRAIN_VEHICLE") {
-                        vehicles.push(new ElectricTrain(id, position, numPassengers, capacity, co2, color));
-                    }
-                    else if (data.vehicles[i].type == "DIESEL_TRAIN_VEHICLE") {
-                        vehicles.push(new DieselTrain(id, position, numPassengers, capacity, co2, color));
+                    var vehicle = createVehicle(data.vehicles[i]);
+                    if (vehicle != null) {
+                        vehicles.push(vehicle);
                     }
                 }
             }
+            if (data.command == "updateVehiclesDelta") {
+                vehiclesRequestPending = false;
+                if (applyVehiclesDelta(data) && data.stateVersion !== undefined) {
+                    vehiclesStateVersion = data.stateVersion;
+                } else {
+                    vehiclesStateVersion = -1;
+                }
+            }
+            if (data.command == "notModified") {
+                // nothing changed since the version we sent, keep what we have
+                if (data.request == "getVehicles") {
+                    vehiclesRequestPending = false;
+                }
+            }
+            if (data.command == "updateState") {
+                if (!applyVehiclesDelta(data.vehicles)) {
+                    // a push was missed, ask for the full state again
+                    requestState();
+                }
+                for (let i = 0; i < data.stopCounts.length && i < stops.length; i++) {
+                    stops[i].numPeople = data.stopCounts[i];
+                }
+            }
             if (data.command == "updateRoutes") {
 
                 routes = [];
@@ -206,7 +317,10 @@ function setupSocket() {
     // Makes sure that our sim doesn't start until we are connected and have necessary info
     socket.onopen = function() {
         connected = true;
-        socket.send(JSON.stringify({command: "initLines"}));
+        // a shared simulation sends its lines when we attach to it
+        if (sharedSimulationName == null) {
+            socket.send(JSON.stringify({command: "initLines"}));
+        }
     }
 }
 
@@ -228,7 +342,9 @@ function mapClick(event) {
 
 function setup() {
     console.log(location.port)
-    socket = new WebSocket("ws://" + location.hostname+(location.port ? ':'+location.port: '')+"/project/simulator", "web_server");
+    var protocols = useBinaryProtocol ? ["web_server_binary", "web_server"] : "web_server";
+    socket = new WebSocket("ws://" + location.hostname+(location.port ? ':'+location.port: '')+"/project/simulator", protocols);
+    socket.binaryType = "arraybuffer";
     setupSocket();
 
     vehicles = [];
@@ -301,20 +417,47 @@ function draw() {
     drawInfo();
 }
 
+// Applies an updateVehiclesDelta message, returns false if it does not
+// follow the version we have
+function applyVehiclesDelta(data) {
+    if (data.full) {
+        vehiclesById = {};
+    } else if (data.baseVersion != vehiclesVersion) {
+        // out of sync, ask for a full snapshot next time
+        vehiclesVersion = -1;
+        return false;
+    }
+    for (let i = 0; i < data.removed.length; i++) {
+        delete vehiclesById[data.removed[i]];
+    }
+    for (let i = 0; i < data.vehicles.length; i++) {
+        var vehicle = createVehicle(data.vehicles[i]);
+        if (vehicle != null) {
+            vehiclesById[vehicle.id] = vehicle;
+        }
+    }
+    vehiclesVersion = data.version;
+    vehicles = Object.values(vehiclesById);
+    return true;
+}
+
 function update() {
     // Send down commands to C++
-    socket.send(JSON.stringify({command: "getRoutes"}));
-    socket.send(JSON.stringify({command: "getVehicles"}));
-
-    // Only update every specified timestep
-    elapsedTime = millis() - startTime;
-    if (elapsedTime > updateTime && totalUpdates < numTimeSteps) {
-        socket.send(JSON.stringify({command: "update"}));
-        startTime = millis();
-        if(paused){
-            totalUpdates--;
-        }
-        totalUpdates++;
+    // The simulation is advanced by the server, we only observe its state
+    if (subscribed) {
+        return;
+    }
+    if (topologyReceived) {
+        socket.send(JSON.stringify({command: "getRoutes", compact: true, sinceVersion: routesStateVersion}));
+    } else {
+        socket.send(JSON.stringify({command: "getRoutes"}));
+    }
+    // only ask for vehicles once the previous answer was applied,
+    // the version we send back tells the server what we already have
+    if (!vehiclesRequestPending) {
+        vehiclesRequestPending = true;
+        socket.send(JSON.stringify({command: "getVehicles", delta: true, version: vehiclesVersion,
+            sinceVersion: vehiclesStateVersion}));
     }
 }
 
@@ -429,10 +572,27 @@ function start() {
         lineTimeOffsets[i] = lineTimeOffsetsSliders[i].value();
     }
     numTimeSteps = numTimeStepsSlider.value();
-    socket.send(JSON.stringify({command: "start", numTimeSteps: numTimeSteps, timeBetweenVehicles: lineTimeOffsets}));
+    if (sharedSimulationName == null) {
+        socket.send(JSON.stringify({command: "start", numTimeSteps: numTimeSteps, timeBetweenVehicles: lineTimeOffsets,
+            ticksPerSecond: 1000 / updateTime}));
+    }
+    // stop counts in the pushed state need the topology, older servers fall back to polling
+    if (topologyReceived || sharedSimulationName != null) {
+        requestState();
+        subscribed = true;
+    }
     started = true;
-    elapsedTime = millis();
-    startTime = millis();
+}
+
+// Subscribes to the pushed state, the server answers with the full state first.
+// A shared simulation is started with our settings if no one is watching it yet.
+function requestState() {
+    if (sharedSimulationName != null) {
+        socket.send(JSON.stringify({command: "attach", name: sharedSimulationName, numTimeSteps: numTimeSteps,
+            timeBetweenVehicles: lineTimeOffsets, ticksPerSecond: 1000 / updateTime}));
+    } else {
+        socket.send(JSON.stringify({command: "subscribe"}));
+    }
 }
 
 function pause() {
@@ -0,0 +1,82 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.DestinationOrderedPassengerLoader;
+import model.Passenger;
+import model.PassengerClock;
+import model.PassengerFactory;
+import model.PassengerQueue;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DestinationOrderedPassengerLoaderTest {
+
+  private DestinationOrderedPassengerLoader testPassengerLoader;
+
+  /**
+   * Setup deterministic operations before each test run.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    testPassengerLoader = new DestinationOrderedPassengerLoader();
+  }
+
+  /**
+   * Tests loadPassenger function keeps passengers ordered by destination.
+   */
+  @Test
+  public void testLoadPassenger() {
+    Passenger testPassenger1 = new Passenger(2, "testPassenger1");
+    Passenger testPassenger2 = new Passenger(3, "testPassenger2");
+    Passenger testPassenger3 = new Passenger(1, "testPassenger3");
+    Passenger testPassenger4 = new Passenger(2, "testPassenger4");
+
+    List<Passenger> passengerList = new ArrayList<Passenger>();
+
+    assertEquals(1, testPassengerLoader.loadPassenger(testPassenger1, 4, passengerList));
+    assertEquals(1, testPassengerLoader.loadPassenger(testPassenger2, 4, passengerList));
+    assertEquals(1, testPassengerLoader.loadPassenger(testPassenger3, 4, passengerList));
+    assertEquals(1, testPassengerLoader.loadPassenger(testPassenger4, 4, passengerList));
+    assertEquals(true, testPassenger4.isOnVehicle());
+
+    assertEquals(testPassenger2, passengerList.get(0));
+    assertEquals(testPassenger1, passengerList.get(1));
+    assertEquals(testPassenger4, passengerList.get(2));
+    assertEquals(testPassenger3, passengerList.get(3));
+
+    assertEquals(0, testPassengerLoader.loadPassenger(new Passenger(5, "testPassenger5"), 4,
+        passengerList));
+  }
+
+  /**
+   * Tests loadPassengers function keeps passengers ordered by destination.
+   */
+  @Test
+  public void testLoadPassengers() {
+    PassengerQueue waitingPassengers = new PassengerQueue();
+    Passenger testPassenger1 = new Passenger(1, "testPassenger1");
+    Passenger testPassenger2 = new Passenger(3, "testPassenger2");
+    Passenger testPassenger3 = new Passenger(2, "testPassenger3");
+    waitingPassengers.add(testPassenger1);
+    waitingPassengers.add(testPassenger2);
+    waitingPassengers.add(testPassenger3);
+
+    List<Passenger> passengerList = new ArrayList<Passenger>();
+
+    assertEquals(2, testPassengerLoader.loadPassengers(waitingPassengers, 2, passengerList,
+        new PassengerClock()));
+    assertEquals(testPassenger2, passengerList.get(0));
+    assertEquals(testPassenger1, passengerList.get(1));
+    assertEquals(1, waitingPassengers.size());
+    assertEquals(testPassenger3, waitingPassengers.get(0));
+  }
+}
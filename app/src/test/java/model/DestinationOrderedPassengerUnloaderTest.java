@@ -0,0 +1,65 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class DestinationOrderedPassengerUnloaderTest {
+
+  private DestinationOrderedPassengerUnloader testPassengerUnloader;
+
+  /**
+   * Setup deterministic operations before each test run.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+  }
+
+  /**
+   * Tests unloadPassengers function.
+   */
+  @Test
+  public void testUnloadPassengers() {
+
+    testPassengerUnloader = new DestinationOrderedPassengerUnloader();
+    DestinationOrderedPassengerLoader testPassengerLoader =
+        new DestinationOrderedPassengerLoader();
+
+    Stop testStop1 = new Stop(1, "test stop 1", new Position(-93.243774, 44.972392));
+    Stop testStop2 = new Stop(2, "test stop 2", new Position(-93.25631, 44.963211));
+    Stop testStop3 = new Stop(3, "test stop 3", new Position(-93.25631, 44.963211));
+
+    Passenger testPassenger1 = new Passenger(2, "testPassenger1");
+    Passenger testPassenger2 = new Passenger(1, "testPassenger2");
+    Passenger testPassenger3 = new Passenger(3, "testPassenger3");
+    Passenger testPassenger4 = new Passenger(2, "testPassenger4");
+
+    List<Passenger> passengerList = new ArrayList<Passenger>();
+    testPassengerLoader.loadPassenger(testPassenger1, 4, passengerList);
+    testPassengerLoader.loadPassenger(testPassenger2, 4, passengerList);
+    testPassengerLoader.loadPassenger(testPassenger3, 4, passengerList);
+    testPassengerLoader.loadPassenger(testPassenger4, 4, passengerList);
+
+    assertEquals(1, testPassengerUnloader.unloadPassengers(passengerList, testStop1));
+    assertEquals(3, passengerList.size());
+
+    assertEquals(0, testPassengerUnloader.unloadPassengers(passengerList, testStop1));
+
+    assertEquals(2, testPassengerUnloader.unloadPassengers(passengerList, testStop2));
+    assertEquals(1, passengerList.size());
+    assertEquals(testPassenger3, passengerList.get(0));
+
+    assertEquals(1, testPassengerUnloader.unloadPassengers(passengerList, testStop3));
+    assertEquals(0, passengerList.size());
+  }
+
+}
@@ -0,0 +1,72 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import model.EmissionHistory;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EmissionHistoryTest {
+
+  private EmissionHistory testHistory;
+
+  /**
+   * Setup operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    testHistory = new EmissionHistory(3);
+  }
+
+  /**
+   * Testing state after using constructor.
+   */
+  @Test
+  public void testConstructorNormal() {
+    assertEquals(0, testHistory.size());
+    assertEquals(0, testHistory.getCount());
+    assertEquals(0.0, testHistory.getMean());
+    assertEquals("", testHistory.toString());
+  }
+
+  /**
+   * Tests if only the most recent emissions are kept, newest first.
+   */
+  @Test
+  public void testAdd() {
+    testHistory.add(4);
+    testHistory.add(7);
+    assertEquals(2, testHistory.size());
+    assertEquals(7, testHistory.get(0));
+    assertEquals(4, testHistory.get(1));
+    testHistory.add(2);
+    testHistory.add(9);
+    assertEquals(3, testHistory.size());
+    assertEquals(9, testHistory.get(0));
+    assertEquals(2, testHistory.get(1));
+    assertEquals(7, testHistory.get(2));
+    assertEquals("9, 2, 7", testHistory.toString());
+  }
+
+  /**
+   * Tests if the aggregates cover every recorded emission.
+   */
+  @Test
+  public void testAggregates() {
+    testHistory.add(4);
+    testHistory.add(7);
+    testHistory.add(2);
+    testHistory.add(9);
+    assertEquals(4, testHistory.getCount());
+    assertEquals(22, testHistory.getTotal());
+    assertEquals(2, testHistory.getMin());
+    assertEquals(9, testHistory.getMax());
+    assertEquals(5.5, testHistory.getMean());
+  }
+}
@@ -101,7 +101,6 @@ public class LineTest {
               + "Name: testRouteOut" + System.lineSeparator()
               + "Num stops: 1" + System.lineSeparator()
               + "****Stops Info Start****" + System.lineSeparator()
-              + "++++Next Stop Info Start++++" + System.lineSeparator()
               + "####Stop Info Start####" + System.lineSeparator()
               + "ID: 0" + System.lineSeparator()
               + "Name: test stop 1" + System.lineSeparator()
@@ -110,7 +109,6 @@ public class LineTest {
               + "Num passengers waiting: 0" + System.lineSeparator()
               + "****Passengers Info End****" + System.lineSeparator()
               + "####Stop Info End####" + System.lineSeparator()
-              + "++++Next Stop Info End++++" + System.lineSeparator()
               + "****Stops Info End****" + System.lineSeparator()
               + "####Route Info End####" + System.lineSeparator()
 
@@ -120,7 +118,6 @@ public class LineTest {
               + "Name: testRouteIn" + System.lineSeparator()
               + "Num stops: 1" + System.lineSeparator()
               + "****Stops Info Start****" + System.lineSeparator()
-              + "++++Next Stop Info Start++++" + System.lineSeparator()
               + "####Stop Info Start####" + System.lineSeparator()
               + "ID: 0" + System.lineSeparator()
               + "Name: test stop 1" + System.lineSeparator()
@@ -129,7 +126,6 @@ public class LineTest {
               + "Num passengers waiting: 0" + System.lineSeparator()
               + "****Passengers Info End****" + System.lineSeparator()
               + "####Stop Info End####" + System.lineSeparator()
-              + "++++Next Stop Info End++++" + System.lineSeparator()
               + "****Stops Info End****" + System.lineSeparator()
               + "####Route Info End####" + System.lineSeparator()
 
@@ -142,25 +138,6 @@ public class LineTest {
   }
 
 
-  /**
-   * Tests if shallowCopy function works properly.
-   */
-  @Test
-  public void testShallowCopy() {
-
-    Line shallowTestLine = testLine.shallowCopy();
-
-    assertEquals(false, shallowTestLine.getOutboundRoute().isAtEnd());
-    assertEquals(false, testLine.getOutboundRoute().isAtEnd());
-
-    shallowTestLine.getOutboundRoute().nextStop();
-
-    assertEquals(true, shallowTestLine.getOutboundRoute().isAtEnd());
-    assertEquals(false, testLine.getOutboundRoute().isAtEnd());
-
-  }
-
-
   /**
    * Tests if update function works properly.
    */
@@ -0,0 +1,37 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import model.PassengerClock;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PassengerClockTest {
+
+  private PassengerClock testClock;
+
+  /**
+   * Setup operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    testClock = new PassengerClock();
+  }
+
+  /**
+   * Tests if tick function works properly.
+   */
+  @Test
+  public void testTick() {
+    assertEquals(0, testClock.getTicks());
+    testClock.tick();
+    testClock.tick();
+    assertEquals(2, testClock.getTicks());
+  }
+}
@@ -1,7 +1,9 @@
 package model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.SplittableRandom;
 import model.PassengerFactory;
 import model.RandomPassengerGenerator;
 import org.junit.jupiter.api.BeforeEach;
@@ -38,4 +40,44 @@ public class PassengerFactoryTest {
 
   }
 
+  /**
+   * Tests that factories with the same seed create the same passengers.
+   */
+  @Test
+  public void testCreatePassengerSeeded() {
+    PassengerFactory.DETERMINISTIC = false;
+    PassengerFactory factory = new PassengerFactory(new SplittableRandom(42));
+    PassengerFactory sameSeedFactory = new PassengerFactory(new SplittableRandom(42));
+    for (int i = 0; i < 20; i++) {
+      assertEquals(sameSeedFactory.createName(), factory.createName());
+      int destination = factory.createPassenger(1, 10).getDestination();
+      assertEquals(sameSeedFactory.createPassenger(1, 10).getDestination(), destination);
+      assertTrue(destination > 1 && destination <= 10);
+    }
+  }
+
+  /**
+   * Tests that seeded factories still follow the deterministic test mode.
+   */
+  @Test
+  public void testCreatePassengerDeterministic() {
+    PassengerFactory factory = new PassengerFactory(new SplittableRandom(42));
+    assertEquals("Goldy", factory.createName());
+    assertEquals(3, factory.createPassenger(1, 10).getDestination());
+  }
+
+  /**
+   * Tests that each factory counts its deterministic passengers on its own.
+   */
+  @Test
+  public void testCreatePassengerDeterministicCounters() {
+    PassengerFactory factory = new PassengerFactory(new SplittableRandom(1));
+    PassengerFactory otherFactory = new PassengerFactory(new SplittableRandom(2));
+    assertEquals("Goldy", factory.createName());
+    assertEquals("President", factory.createName());
+    assertEquals("Goldy", otherFactory.createName());
+    assertEquals(3, otherFactory.createPassenger(1, 10).getDestination());
+    assertEquals(0, PassengerFactory.DETERMINISTIC_NAMES_COUNT);
+    assertEquals(0, PassengerFactory.DETERMINISTIC_DESTINATION_COUNT);
+  }
 }
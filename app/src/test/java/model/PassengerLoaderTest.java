@@ -6,8 +6,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import model.Passenger;
+import model.PassengerClock;
 import model.PassengerFactory;
 import model.PassengerLoader;
+import model.PassengerQueue;
 import model.RandomPassengerGenerator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -47,4 +49,40 @@ public class PassengerLoaderTest {
 
   }
 
+  /**
+   * Tests loadPassengers function boards passengers in arrival order up to capacity.
+   */
+  @Test
+  public void testLoadPassengers() {
+
+    testPassengerLoader = new PassengerLoader();
+
+    PassengerQueue waitingPassengers = new PassengerQueue();
+    Passenger testPassenger1 = new Passenger(1, "testPassenger1");
+    Passenger testPassenger2 = new Passenger(1, "testPassenger2");
+    Passenger testPassenger3 = new Passenger(1, "testPassenger3");
+    waitingPassengers.add(testPassenger1);
+    waitingPassengers.add(testPassenger2);
+    waitingPassengers.add(testPassenger3);
+
+    List<Passenger> passengerList = new ArrayList<Passenger>();
+    PassengerClock vehicleClock = new PassengerClock();
+
+    assertEquals(2, testPassengerLoader.loadPassengers(waitingPassengers, 2, passengerList,
+        vehicleClock));
+    assertEquals(2, passengerList.size());
+    assertEquals(testPassenger1, passengerList.get(0));
+    assertEquals(testPassenger2, passengerList.get(1));
+    assertEquals(true, testPassenger1.isOnVehicle());
+    assertEquals(1, waitingPassengers.size());
+    assertEquals(testPassenger3, waitingPassengers.get(0));
+
+    vehicleClock.tick();
+    assertEquals(2, testPassenger1.getTimeOnVehicle());
+
+    assertEquals(0, testPassengerLoader.loadPassengers(waitingPassengers, 2, passengerList,
+        vehicleClock));
+    assertEquals(1, waitingPassengers.size());
+  }
+
 }
@@ -0,0 +1,76 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import model.Passenger;
+import model.PassengerFactory;
+import model.PassengerQueue;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class PassengerQueueTest {
+
+  private PassengerQueue testQueue;
+
+  /**
+   * Setup operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    testQueue = new PassengerQueue();
+  }
+
+  /**
+   * Tests if passengers are kept in arrival order while the buffer wraps and grows.
+   */
+  @Test
+  public void testAddAndRemoveFirst() {
+    for (int i = 0; i < 10; i++) {
+      testQueue.add(new Passenger(i, "passenger" + i));
+    }
+    testQueue.removeFirst(8);
+    assertEquals(2, testQueue.size());
+    assertEquals(8, testQueue.get(0).getDestination());
+    for (int i = 10; i < 50; i++) {
+      testQueue.add(new Passenger(i, "passenger" + i));
+    }
+    assertEquals(42, testQueue.size());
+    for (int i = 0; i < testQueue.size(); i++) {
+      assertEquals(i + 8, testQueue.get(i).getDestination());
+    }
+    testQueue.removeFirst(42);
+    assertEquals(0, testQueue.size());
+  }
+
+  /**
+   * Tests if insertion and removal in the middle of the queue keep the order.
+   */
+  @Test
+  public void testAddAndRemoveAtIndex() {
+    testQueue.add(new Passenger(0, "passenger0"));
+    testQueue.add(new Passenger(2, "passenger2"));
+    testQueue.add(1, new Passenger(1, "passenger1"));
+    assertEquals(3, testQueue.size());
+    assertEquals(1, testQueue.get(1).getDestination());
+    assertEquals(1, testQueue.remove(1).getDestination());
+    assertEquals(0, testQueue.remove(0).getDestination());
+    assertEquals(1, testQueue.size());
+    assertEquals(2, testQueue.get(0).getDestination());
+  }
+
+  /**
+   * Tests if out of range accesses are rejected.
+   */
+  @Test
+  public void testOutOfRange() {
+    testQueue.add(new Passenger(0, "passenger0"));
+    assertThrows(IndexOutOfBoundsException.class, () -> testQueue.get(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> testQueue.removeFirst(2));
+  }
+}
@@ -12,6 +12,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
 import model.Passenger;
+import model.PassengerClock;
 import model.PassengerFactory;
 import model.RandomPassengerGenerator;
 import org.junit.jupiter.api.AfterEach;
@@ -83,6 +84,44 @@ public class PassengerTest {
 
   }
 
+  /**
+   * Tests if the wait at a stop is read from the stop's clock.
+   */
+  @Test
+  public void testStartWaiting() {
+    PassengerClock stopClock = new PassengerClock();
+    stopClock.tick();
+    passenger.startWaiting(stopClock);
+    assertEquals(0, passenger.getWaitAtStop());
+    stopClock.tick();
+    stopClock.tick();
+    assertEquals(2, passenger.getWaitAtStop());
+    assertEquals(0, passenger.getTimeOnVehicle());
+  }
+
+  /**
+   * Tests if the time on a vehicle is read from the vehicle's clock and stops
+   * counting when the passenger leaves the vehicle.
+   */
+  @Test
+  public void testStartRidingAndLeaveVehicle() {
+    PassengerClock stopClock = new PassengerClock();
+    PassengerClock vehicleClock = new PassengerClock();
+    passenger.startWaiting(stopClock);
+    stopClock.tick();
+    passenger.setOnVehicle();
+    passenger.startRiding(vehicleClock);
+    stopClock.tick();
+    vehicleClock.tick();
+    vehicleClock.tick();
+    assertEquals(1, passenger.getWaitAtStop());
+    assertEquals(3, passenger.getTimeOnVehicle());
+    passenger.leaveVehicle();
+    vehicleClock.tick();
+    assertEquals(1, passenger.getWaitAtStop());
+    assertEquals(3, passenger.getTimeOnVehicle());
+  }
+
   /**
    * Tests reporting functionality, as well as the time on vehicle/time at stop updates.
    */
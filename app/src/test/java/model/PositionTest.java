@@ -1,6 +1,7 @@
 package model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import model.PassengerFactory;
 import model.Position;
@@ -36,4 +37,18 @@ public class PositionTest {
 
   }
 
+  /**
+   * Test equals and hashCode compare coordinates.
+   */
+  @Test
+  public void testEquals() {
+
+    testPosition = new Position(-93.243774, 44.972392);
+
+    assertEquals(new Position(-93.243774, 44.972392), testPosition);
+    assertEquals(new Position(-93.243774, 44.972392).hashCode(), testPosition.hashCode());
+    assertFalse(testPosition.equals(new Position(44.972392, -93.243774)));
+
+  }
+
 }
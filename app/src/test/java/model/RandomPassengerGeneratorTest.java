@@ -82,6 +82,69 @@ public class RandomPassengerGeneratorTest {
     assertEquals(0, testRandomPassengerGeneratorSpy.generatePassengers());
   }
 
+  /**
+   * Test that a draw below every table entry generates a passenger per attempt.
+   */
+  @Test
+  public void testGeneratePassengersAllAttempts() {
+    RandomPassengerGenerator testRandomPassengerGeneratorSpy = spy(testRandomPassengerGenerator);
+    testRandomPassengerGeneratorSpy.DETERMINISTIC = false;
+
+    when(testRandomPassengerGeneratorSpy.giveProb()).thenReturn(0.0);
+    assertEquals(4, testRandomPassengerGeneratorSpy.generatePassengers());
+    assertEquals(4, testRandomPassengerGeneratorSpy.getStops().get(0).getPassengers().size());
+  }
+
+  /**
+   * Test that stops without a chance of passengers are left out of the plan.
+   */
+  @Test
+  public void testGeneratePassengersZeroProbability() {
+    List<Stop> stops = new ArrayList<Stop>();
+    stops.add(new Stop(0, "test stop 1", new Position(-93.243774, 44.972392)));
+    stops.add(new Stop(1, "test stop 2", new Position(-93.25631, 44.963211)));
+    stops.add(new Stop(2, "test stop 3", new Position(-93.26, 44.96)));
+    List<Double> probabilities = new ArrayList<Double>();
+    probabilities.add(0.0);
+    probabilities.add(.5);
+    probabilities.add(.5);
+    RandomPassengerGenerator generator = new RandomPassengerGenerator(stops, probabilities);
+    assertEquals(3, generator.generatePassengers());
+    assertEquals(0, stops.get(0).getPassengers().size());
+    assertEquals(3, stops.get(1).getPassengers().size());
+    assertEquals(0, stops.get(2).getPassengers().size());
+  }
+
+  /**
+   * Test the arrival table against every outcome of the attempts.
+   */
+  @Test
+  public void testGetArrivalsAtLeast() {
+    List<Double> attempts = new ArrayList<Double>();
+    double attempt = .3;
+    while (attempt > 0.0001) {
+      attempts.add(attempt);
+      attempt *= .3;
+    }
+    double[] exactly = new double[attempts.size() + 1];
+    for (int outcome = 0; outcome < 1 << attempts.size(); outcome++) {
+      double probability = 1;
+      for (int i = 0; i < attempts.size(); i++) {
+        probability *= (outcome & 1 << i) != 0 ? attempts.get(i) : 1 - attempts.get(i);
+      }
+      exactly[Integer.bitCount(outcome)] += probability;
+    }
+    double[] atLeast = RandomPassengerGenerator.getArrivalsAtLeast(attempts);
+    assertEquals(attempts.size(), atLeast.length);
+    for (int k = 0; k < atLeast.length; k++) {
+      double expected = 0;
+      for (int j = k + 1; j < exactly.length; j++) {
+        expected += exactly[j];
+      }
+      assertEquals(expected, atLeast[k], 1e-12);
+    }
+  }
+
   /**
    * Clean up our variables after each test.
    */
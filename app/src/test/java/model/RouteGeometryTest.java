@@ -0,0 +1,65 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.PassengerFactory;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.RouteGeometry;
+import model.Stop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RouteGeometryTest {
+
+  private RouteGeometry testGeometry;
+
+  /**
+   * Setup operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    List<Stop> stops = new ArrayList<Stop>();
+    stops.add(new Stop(0, "test stop 1", new Position(0, 0)));
+    stops.add(new Stop(1, "test stop 2", new Position(2, 4)));
+    stops.add(new Stop(2, "test stop 3", new Position(2, 8)));
+    List<Double> distances = new ArrayList<Double>();
+    distances.add(2.0);
+    distances.add(1.0);
+    testGeometry = new RouteGeometry(stops, distances);
+  }
+
+  /**
+   * Testing state after using constructor.
+   */
+  @Test
+  public void testConstructorNormal() {
+    assertEquals(3, testGeometry.getNumStops());
+    assertEquals(2.0, testGeometry.getLongitude(1));
+    assertEquals(8.0, testGeometry.getLatitude(2));
+    assertEquals(2.0, testGeometry.getSegmentLength(0));
+    assertEquals(1.0, testGeometry.getSegmentLength(1));
+  }
+
+  /**
+   * Tests the constructor for geometry that was compiled before.
+   */
+  @Test
+  public void testConstructorCompiled() {
+    RouteGeometry compiledGeometry = new RouteGeometry(new double[] {0, 2, 2},
+        new double[] {0, 4, 8}, new double[] {2.0, 1.0});
+    assertEquals(3, compiledGeometry.getNumStops());
+    assertEquals(4.0, compiledGeometry.getLatitude(1));
+    assertEquals(1.0, compiledGeometry.getSegmentLength(1));
+    assertThrows(IllegalArgumentException.class, () -> new RouteGeometry(new double[] {0, 2},
+        new double[] {0, 4}, new double[] {2.0, 1.0}));
+  }
+}
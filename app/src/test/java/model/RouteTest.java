@@ -100,26 +100,6 @@ public class RouteTest {
   }
 
 
-  /**
-   * Test for the shallowCopy function.
-   * check if the function returns the expected shallow copy of the Route class
-   */
-  @Test
-  public void testShallowCopy() {
-    Route shallowRouteOut = testRouteOut.shallowCopy();
-    assertEquals(testRouteOut.getId(), shallowRouteOut.getId());
-    assertEquals(testRouteOut.getName(), shallowRouteOut.getName());
-    assertEquals(testRouteOut.getStops(), shallowRouteOut.getStops());
-    assertEquals(testRouteOut.getNextStopIndex(), shallowRouteOut.getNextStopIndex());
-    assertEquals(testRouteOut.getId(), shallowRouteOut.getId());
-
-    shallowRouteOut.nextStop();
-
-    assertEquals(1, shallowRouteOut.getNextStopIndex());
-    assertEquals(0, testRouteOut.getNextStopIndex());
-
-  }
-
   /**
    * Tests reporting functionality.
    */
@@ -134,14 +114,12 @@ public class RouteTest {
       String data = new String(outputStream.toByteArray(), charset);
       testStream.close();
       outputStream.close();
-      //when route not at end
       String strToCompare =
           "####Route Info Start####" + System.lineSeparator()
               + "ID: 0" + System.lineSeparator()
               + "Name: simpleTestRouteIn" + System.lineSeparator()
               + "Num stops: 1" + System.lineSeparator()
               + "****Stops Info Start****" + System.lineSeparator()
-              + "++++Next Stop Info Start++++" + System.lineSeparator()
               + "####Stop Info Start####" + System.lineSeparator()
               + "ID: 0" + System.lineSeparator()
               + "Name: test stop" + System.lineSeparator()
@@ -150,121 +128,15 @@ public class RouteTest {
               + "Num passengers waiting: 0" + System.lineSeparator()
               + "****Passengers Info End****" + System.lineSeparator()
               + "####Stop Info End####" + System.lineSeparator()
-              + "++++Next Stop Info End++++" + System.lineSeparator()
               + "****Stops Info End****" + System.lineSeparator()
               + "####Route Info End####" + System.lineSeparator();
       assertEquals(data, strToCompare);
-      //move to end & test again
-      simpleTestRouteIn.nextStop(); // move too next stop
-      ByteArrayOutputStream outputStreamEnd = new ByteArrayOutputStream();
-      PrintStream testStreamEnd = new PrintStream(outputStreamEnd, true, charset.name());
-      simpleTestRouteIn.report(testStreamEnd);
-      outputStreamEnd.flush();
-      String dataAtEnd = new String(outputStreamEnd.toByteArray(), charset);
-      testStreamEnd.close();
-      outputStreamEnd.close();
-      // at end of  route, "Next Stop Info" shouldn't be included
-      String strToCompareAtEnd = 
-          "####Route Info Start####" + System.lineSeparator()
-              + "ID: 0" + System.lineSeparator()
-              + "Name: simpleTestRouteIn" + System.lineSeparator()
-              + "Num stops: 1" + System.lineSeparator()
-              + "****Stops Info Start****" + System.lineSeparator()
-              + "####Stop Info Start####" + System.lineSeparator()
-              + "ID: 0" + System.lineSeparator()
-              + "Name: test stop" + System.lineSeparator()
-              + "Position: 44.972392,-93.243774" + System.lineSeparator()
-              + "****Passengers Info Start****" + System.lineSeparator()
-              + "Num passengers waiting: 0" + System.lineSeparator()
-              + "****Passengers Info End****" + System.lineSeparator()
-              + "####Stop Info End####" + System.lineSeparator()
-              + "****Stops Info End****" + System.lineSeparator()
-              + "####Route Info End####" + System.lineSeparator();
-      assertEquals(dataAtEnd, strToCompareAtEnd);
     } catch (IOException ioe) {
       fail();
     }
   }
 
 
-  /**
-   * Tests if we properly move through stops to end.
-   */
-  @Test
-  public void testIsAtEnd() {
-
-    // simple case
-    assertEquals(false, simpleTestRouteIn.isAtEnd());
-    simpleTestRouteIn.nextStop();
-    assertEquals(true, simpleTestRouteIn.isAtEnd());
-
-    // more complex case
-    testRouteIn.nextStop();
-    assertEquals(false, testRouteIn.isAtEnd());
-    testRouteIn.nextStop();
-    assertEquals(false, testRouteIn.isAtEnd());
-    testRouteIn.nextStop();
-    assertEquals(true, testRouteIn.isAtEnd());
-
-  }
-
-
-  /**
-   * Tests if we can check our previous stop.
-   */
-  @Test
-  public void testPrevStop() {
-    // test outbound
-    assertEquals("test stop 1", testRouteOut.prevStop().getName());
-    testRouteOut.nextStop();
-    assertEquals("test stop 1", testRouteOut.prevStop().getName());
-    testRouteOut.nextStop();
-    assertEquals("test stop 2", testRouteOut.prevStop().getName());
-
-    // test inbound
-    assertEquals("test stop 3", testRouteIn.prevStop().getName());
-    testRouteIn.nextStop();
-    assertEquals("test stop 3", testRouteIn.prevStop().getName());
-    testRouteIn.nextStop();
-    assertEquals("test stop 2", testRouteIn.prevStop().getName());
-
-    // test if the prevStop() returns  correct stop when nextStopIndex is at end
-    testRouteOut.nextStop(); // at stop 3
-    testRouteOut.nextStop(); // still at stop 3
-    assertEquals("test stop 3", testRouteOut.prevStop().getName());
-  }
-
-  /**
-   * Tests if we can move forward through stops.
-   * This also tests getDestinationStop implicitly
-   */
-  @Test
-  public void testNextStop() {
-    // test outbound
-    assertEquals("test stop 1", testRouteOut.getNextStop().getName());
-    testRouteOut.nextStop();
-    assertEquals("test stop 2", testRouteOut.getNextStop().getName());
-
-    // test inbound
-    assertEquals("test stop 3", testRouteIn.getNextStop().getName());
-    testRouteIn.nextStop();
-    assertEquals("test stop 2", testRouteIn.getNextStop().getName());
-    testRouteIn.nextStop();
-    assertEquals("test stop 1", testRouteIn.getNextStop().getName());
-  }
-
-
-  /**
-   * Tests if we can calculate the next stops distance.
-   */
-  @Test
-  public void testGetNextStopDistance() {
-    assertEquals(0.0, testRouteOut.getNextStopDistance());
-    testRouteOut.nextStop();
-    assertEquals(0.9712663713083954, testRouteOut.getNextStopDistance());
-
-  }
-
   /**
    * Tests new passengers are being generated.
    */
@@ -0,0 +1,126 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Issue;
+import model.Line;
+import model.PassengerFactory;
+import model.PassengerGenerator;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.Stop;
+import model.TripCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TripCursorTest {
+
+  private Line testLine;
+  private Route testRouteOut;
+  private Route testRouteIn;
+  private TripCursor testCursor;
+
+  /**
+   * Setup operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    Stop stop1 = new Stop(0, "test stop 1", new Position(-93.243774, 44.972392));
+    Stop stop2 = new Stop(1, "test stop 2", new Position(-93.235071, 44.973580));
+
+    List<Stop> stopsOut = new ArrayList<Stop>();
+    stopsOut.add(stop1);
+    stopsOut.add(stop2);
+    List<Double> distancesOut = new ArrayList<Double>();
+    distancesOut.add(0.75);
+    List<Double> probabilitiesOut = new ArrayList<Double>();
+    probabilitiesOut.add(0.3);
+    probabilitiesOut.add(.0);
+    PassengerGenerator generatorOut = new RandomPassengerGenerator(stopsOut, probabilitiesOut);
+    testRouteOut = new Route(0, "testRouteOut", stopsOut, distancesOut, generatorOut);
+
+    List<Stop> stopsIn = new ArrayList<Stop>();
+    stopsIn.add(stop2);
+    stopsIn.add(stop1);
+    List<Double> distancesIn = new ArrayList<Double>();
+    distancesIn.add(0.5);
+    List<Double> probabilitiesIn = new ArrayList<Double>();
+    probabilitiesIn.add(0.3);
+    probabilitiesIn.add(.0);
+    PassengerGenerator generatorIn = new RandomPassengerGenerator(stopsIn, probabilitiesIn);
+    testRouteIn = new Route(1, "testRouteIn", stopsIn, distancesIn, generatorIn);
+
+    testLine = new Line(10000, "testLine", Line.BUS_LINE, testRouteOut, testRouteIn,
+        new Issue());
+    testCursor = new TripCursor(testLine);
+  }
+
+  /**
+   * Testing state after using constructor.
+   */
+  @Test
+  public void testConstructorNormal() {
+    assertFalse(testCursor.isInbound());
+    assertEquals(0, testCursor.getNextStopIndex());
+    assertEquals(testRouteOut, testCursor.getRoute());
+    assertEquals("test stop 1", testCursor.getNextStop().getName());
+    assertEquals(0.0, testCursor.getNextStopDistance());
+  }
+
+  /**
+   * Tests if advance goes through the outbound and then the inbound route.
+   */
+  @Test
+  public void testAdvance() {
+    testCursor.advance();
+    assertEquals("test stop 2", testCursor.getNextStop().getName());
+    assertEquals(0.75, testCursor.getNextStopDistance());
+
+    testCursor.advance();
+    assertTrue(testCursor.isInbound());
+    assertEquals(testRouteIn, testCursor.getRoute());
+    assertEquals("test stop 2", testCursor.getNextStop().getName());
+    assertEquals(0.0, testCursor.getNextStopDistance());
+
+    testCursor.advance();
+    assertEquals("test stop 1", testCursor.getNextStop().getName());
+    assertEquals(0.5, testCursor.getNextStopDistance());
+    assertFalse(testCursor.isTripComplete());
+
+    testCursor.advance();
+    assertTrue(testCursor.isTripComplete());
+    assertNull(testCursor.getNextStop());
+  }
+
+  /**
+   * Tests if cursors on the same line move independently of each other.
+   */
+  @Test
+  public void testCursorsAreIndependent() {
+    TripCursor otherCursor = new TripCursor(testLine);
+    testCursor.advance();
+    testCursor.advance();
+    assertEquals(0, otherCursor.getNextStopIndex());
+    assertFalse(otherCursor.isInbound());
+    assertEquals("test stop 1", otherCursor.getNextStop().getName());
+
+    otherCursor.advance();
+    assertEquals("test stop 2", otherCursor.getNextStop().getName());
+    assertEquals(0, testCursor.getNextStopIndex());
+    assertTrue(testCursor.isInbound());
+    assertEquals(2, testRouteOut.getStops().size());
+    assertEquals(2, testRouteIn.getStops().size());
+  }
+}
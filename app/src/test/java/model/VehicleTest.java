@@ -112,6 +112,21 @@ public class VehicleTest {
   }
 
 
+  /**
+   * Tests if the coordinates are updated in place when the vehicle moves.
+   */
+  @Test
+  public void testGetLongitudeAndLatitude() {
+    assertEquals(-93.235071, testVehicle.getLongitude());
+    assertEquals(44.973580, testVehicle.getLatitude());
+    testVehicle.move();
+    assertEquals(testVehicle.getLongitude(), testVehicle.getPosition().getLongitude());
+    assertEquals(testVehicle.getLatitude(), testVehicle.getPosition().getLatitude());
+    testVehicle.setPosition(new Position(1.5, 2.5));
+    assertEquals(1.5, testVehicle.getLongitude());
+    assertEquals(2.5, testVehicle.getLatitude());
+  }
+
   /**
    * Tests if loadPassenger function works properly.
    */
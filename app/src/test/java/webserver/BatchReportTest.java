@@ -0,0 +1,68 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+public class BatchReportTest {
+
+  /**
+   * Tests the derived throughput figures.
+   */
+  @Test
+  public void testRates() {
+    BatchReport batchReport = new BatchReport(100, 2_000_000_000L, 500, 42, 3);
+    assertEquals(2.0, batchReport.getElapsedSeconds());
+    assertEquals(50.0, batchReport.getStepsPerSecond());
+    assertEquals(250.0, batchReport.getVehicleStepsPerSecond());
+    assertEquals(42, batchReport.getPassengersGenerated());
+    assertEquals(3, batchReport.getActiveVehicles());
+  }
+
+  /**
+   * Tests that rates are zero when no time elapsed.
+   */
+  @Test
+  public void testRatesWithoutElapsedTime() {
+    BatchReport batchReport = new BatchReport(100, 0, 500, 42, 3);
+    assertEquals(0.0, batchReport.getStepsPerSecond());
+    assertEquals(0.0, batchReport.getVehicleStepsPerSecond());
+  }
+
+  /**
+   * Tests reporting functionality.
+   */
+  @Test
+  public void testReport() {
+    try {
+      BatchReport batchReport = new BatchReport(10, 500_000_000L, 30, 7, 2);
+      final Charset charset = StandardCharsets.UTF_8;
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      PrintStream testStream = new PrintStream(outputStream, true, charset.name());
+      batchReport.report(testStream);
+      outputStream.flush();
+      String data = new String(outputStream.toByteArray(), charset);
+      testStream.close();
+      outputStream.close();
+      String strToCompare =
+          "####Batch Run Info Start####" + System.lineSeparator()
+              + "Time steps: 10" + System.lineSeparator()
+              + String.format("Elapsed seconds: %.3f", 0.5) + System.lineSeparator()
+              + String.format("Steps per second: %.1f", 20.0) + System.lineSeparator()
+              + String.format("Vehicle steps per second: %.1f", 60.0) + System.lineSeparator()
+              + "Vehicle steps: 30" + System.lineSeparator()
+              + "Passengers processed: 7" + System.lineSeparator()
+              + "Active vehicles at end: 2" + System.lineSeparator()
+              + "####Batch Run Info End####" + System.lineSeparator();
+      assertEquals(strToCompare, data);
+    } catch (IOException ioe) {
+      fail();
+    }
+  }
+}
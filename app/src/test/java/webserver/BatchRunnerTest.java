@@ -0,0 +1,90 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BatchRunnerTest {
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+  }
+
+  /**
+   * Tests that a batch run executes every time step and counts the work done.
+   */
+  @Test
+  public void testRun() {
+    BatchRunner batchRunner = new BatchRunner("src/main/resources/config.txt");
+    batchRunner.setStartHour(10);
+    List<Integer> timeBetweenVehicles = new ArrayList<Integer>();
+    timeBetweenVehicles.add(2);
+    timeBetweenVehicles.add(3);
+    BatchReport batchReport = batchRunner.run(timeBetweenVehicles, 50);
+    assertEquals(50, batchReport.getNumTimeSteps());
+    assertTrue(batchReport.getVehicleSteps() > 0);
+    assertTrue(batchReport.getPassengersGenerated() > 0);
+    assertTrue(batchReport.getElapsedNanos() > 0);
+  }
+
+  /**
+   * Tests that lines without a time between vehicles use the default value.
+   */
+  @Test
+  public void testRunWithDefaultTimeBetweenVehicles() {
+    BatchRunner batchRunner = new BatchRunner("src/main/resources/config.txt");
+    batchRunner.setStartHour(10);
+    BatchReport defaultReport = batchRunner.run(new ArrayList<Integer>(), 20);
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    List<Integer> timeBetweenVehicles = new ArrayList<Integer>();
+    timeBetweenVehicles.add(BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES);
+    timeBetweenVehicles.add(BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES);
+    BatchReport explicitReport = batchRunner.run(timeBetweenVehicles, 20);
+    assertEquals(explicitReport.getVehicleSteps(), defaultReport.getVehicleSteps());
+    assertEquals(explicitReport.getPassengersGenerated(),
+        defaultReport.getPassengersGenerated());
+  }
+
+  /**
+   * Tests that seeded runs generate the same passengers, serially and in parallel.
+   */
+  @Test
+  public void testRunSeeded() {
+    PassengerFactory.DETERMINISTIC = false;
+    RandomPassengerGenerator.DETERMINISTIC = false;
+    BatchRunner batchRunner = new BatchRunner("src/main/resources/config.txt");
+    batchRunner.setStartHour(10);
+    batchRunner.setSeed(11L);
+    assertEquals(Long.valueOf(11), batchRunner.getSeed());
+    BatchReport serialReport = batchRunner.run(new ArrayList<Integer>(), 50);
+    batchRunner.setParallelism(4);
+    BatchReport parallelReport = batchRunner.run(new ArrayList<Integer>(), 50);
+    assertTrue(serialReport.getPassengersGenerated() > 0);
+    assertEquals(serialReport.getPassengersGenerated(), parallelReport.getPassengersGenerated());
+    assertEquals(serialReport.getVehicleSteps(), parallelReport.getVehicleSteps());
+  }
+
+  /**
+   * Tests the start hour setter.
+   */
+  @Test
+  public void testSetStartHour() {
+    BatchRunner batchRunner = new BatchRunner("src/main/resources/config.txt");
+    batchRunner.setStartHour(22);
+    assertEquals(22, batchRunner.getStartHour());
+  }
+}
@@ -0,0 +1,114 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import model.ColorDecorator;
+import model.DieselTrain;
+import model.Issue;
+import model.Line;
+import model.PassengerFactory;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.SmallBus;
+import model.Stop;
+import model.VehicleInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class BinaryStateEncoderTest {
+
+  private List<VehicleInterface> vehicles;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(0, "s1", new Position(0, 0)));
+    stops.add(new Stop(1, "s2", new Position(1, 1)));
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.1);
+    Route route1 = new Route(1, "R1", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Route route2 = new Route(2, "R2", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Line line = new Line(10, "L1", Line.BUS_LINE, route1, route2, new Issue());
+
+    vehicles = new ArrayList<>();
+    VehicleInterface bus = new ColorDecorator(new SmallBus(1, line, 10, 1.0));
+    bus.setPosition(new Position(-93.2350714, 44.9735796));
+    vehicles.add(bus);
+  }
+
+  /**
+   * Test the layout of a state frame.
+   */
+  @Test
+  public void testEncodeState() {
+    List<Integer> removedIds = new ArrayList<>();
+    removedIds.add(7);
+    VehicleDelta delta = new VehicleDelta(3, 2, false, vehicles, removedIds);
+    ByteBuffer frame = BinaryStateEncoder.encodeState(12, delta, new int[] {4, 70000});
+
+    assertEquals(BinaryStateEncoder.HEADER_SIZE + 2 + BinaryStateEncoder.VEHICLE_RECORD_SIZE
+        + 2 + 4 + 2 + 2 * 2, frame.remaining());
+    assertEquals(BinaryStateEncoder.STATE_FRAME, frame.get());
+    assertEquals(0, frame.get());
+    assertEquals(12, frame.getInt());
+    assertEquals(3, frame.getInt());
+    assertEquals(2, frame.getInt());
+
+    assertEquals(1, frame.getShort());
+    assertEquals(1, frame.getInt());
+    assertEquals(0, frame.get());
+    assertEquals(0, frame.getShort());
+    assertEquals(10, frame.getShort());
+    assertEquals(vehicles.get(0).getCurrentCO2Emission(), frame.getShort());
+    assertEquals(-93235071, frame.getInt());
+    assertEquals(44973580, frame.getInt());
+    ColorDecorator color = (ColorDecorator) vehicles.get(0);
+    assertEquals(color.getRed(), frame.get() & 0xFF);
+    assertEquals(color.getGreen(), frame.get() & 0xFF);
+    assertEquals(color.getBlue(), frame.get() & 0xFF);
+    assertEquals(255, frame.get() & 0xFF);
+
+    assertEquals(1, frame.getShort());
+    assertEquals(7, frame.getInt());
+    assertEquals(2, frame.getShort());
+    assertEquals(4, frame.getShort());
+    assertEquals(0xFFFF, frame.getShort() & 0xFFFF);
+    assertEquals(0, frame.remaining());
+  }
+
+  /**
+   * Test the codes of vehicle types.
+   */
+  @Test
+  public void testGetTypeCode() {
+    assertEquals(0, BinaryStateEncoder.getTypeCode(SmallBus.SMALL_BUS_VEHICLE));
+    assertEquals(3, BinaryStateEncoder.getTypeCode(DieselTrain.DIESEL_TRAIN_VEHICLE));
+    assertEquals(255, BinaryStateEncoder.getTypeCode("UNKNOWN"));
+  }
+
+  /**
+   * Test the fixed-point conversion of coordinates.
+   */
+  @Test
+  public void testQuantize() {
+    assertEquals(44973580, BinaryStateEncoder.quantize(44.9735796));
+    assertEquals(-1, BinaryStateEncoder.quantize(-0.0000006));
+    assertEquals(0, BinaryStateEncoder.quantize(0));
+  }
+}
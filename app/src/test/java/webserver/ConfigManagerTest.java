@@ -0,0 +1,113 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import model.Counter;
+import model.Line;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import model.StorageFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConfigManagerTest {
+
+  private static final String CONFIG_FILE = "src/main/resources/config.txt";
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    ConfigManager.clearTemplateCache();
+  }
+
+  /**
+   * Test reading the lines and storage facility of the configuration.
+   */
+  @Test
+  public void testReadConfig() {
+    ConfigManager configManager = new ConfigManager();
+    configManager.readConfig(new Counter(), CONFIG_FILE);
+    List<Line> lines = configManager.getLines();
+    assertEquals(2, lines.size());
+    assertEquals("Campus Connector", lines.get(0).getName());
+    assertEquals(Line.BUS_LINE, lines.get(0).getType());
+    assertEquals(Line.TRAIN_LINE, lines.get(1).getType());
+    assertEquals("East Bound", lines.get(0).getOutboundRoute().getName());
+    assertEquals("West Bound", lines.get(0).getInboundRoute().getName());
+    assertEquals(8, lines.get(0).getOutboundRoute().getStops().size());
+    assertEquals("Coffman", lines.get(0).getOutboundRoute().getStops().get(1).getName());
+    assertEquals(-93.235071,
+        lines.get(0).getOutboundRoute().getStops().get(1).getPosition().getLongitude());
+
+    StorageFacility storageFacility = configManager.getStorageFacility();
+    assertEquals(4, storageFacility.getSmallBusesNum());
+    assertEquals(2, storageFacility.getLargeBusesNum());
+    assertEquals(1, storageFacility.getElectricTrainsNum());
+    assertEquals(5, storageFacility.getDieselTrainsNum());
+  }
+
+  /**
+   * Test that every read creates new lines, routes and stops sharing the
+   * immutable geometry, with identifiers in the order of the file.
+   */
+  @Test
+  public void testReadConfigTwice() {
+    ConfigManager first = new ConfigManager();
+    first.readConfig(new Counter(), CONFIG_FILE);
+    ConfigManager second = new ConfigManager();
+    second.readConfig(new Counter(), CONFIG_FILE);
+
+    Line firstLine = first.getLines().get(0);
+    Line secondLine = second.getLines().get(0);
+    assertNotSame(firstLine, secondLine);
+    assertNotSame(firstLine.getOutboundRoute(), secondLine.getOutboundRoute());
+    assertNotSame(firstLine.getOutboundRoute().getStops().get(0),
+        secondLine.getOutboundRoute().getStops().get(0));
+    assertSame(firstLine.getOutboundRoute().getGeometry(),
+        secondLine.getOutboundRoute().getGeometry());
+    assertNotSame(first.getStorageFacility(), second.getStorageFacility());
+
+    assertEquals(firstLine.getId(), secondLine.getId());
+    assertEquals(firstLine.getInboundRoute().getId(), secondLine.getInboundRoute().getId());
+    assertEquals(firstLine.getInboundRoute().getStops().get(3).getId(),
+        secondLine.getInboundRoute().getStops().get(3).getId());
+  }
+
+  /**
+   * Test that templates are cached until the file changes.
+   *
+   * @throws IOException if the temporary configuration cannot be written
+   */
+  @Test
+  public void testTemplateCache() throws IOException {
+    File configFile = File.createTempFile("config", ".txt");
+    configFile.deleteOnExit();
+    String config = new String(Files.readAllBytes(new File(CONFIG_FILE).toPath()),
+        StandardCharsets.UTF_8);
+    Files.write(configFile.toPath(), config.getBytes(StandardCharsets.UTF_8));
+
+    NetworkTemplate template = ConfigManager.getTemplate(configFile.getPath());
+    assertSame(template, ConfigManager.getTemplate(configFile.getPath()));
+    assertEquals(2, template.getNumLines());
+
+    String secondConfig = config.substring(0, config.indexOf("LINE_START, TRAIN_LINE"));
+    Files.write(configFile.toPath(), secondConfig.getBytes(StandardCharsets.UTF_8));
+    NetworkTemplate changed = ConfigManager.getTemplate(configFile.getPath());
+    assertNotSame(template, changed);
+    assertEquals(1, changed.getNumLines());
+    assertEquals(2, changed.getNumRoutes());
+  }
+}
@@ -0,0 +1,154 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import model.Counter;
+import model.Line;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import model.Stop;
+import model.StorageFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ConfigParserTest {
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+  }
+
+  private static NetworkTemplate parse(String config) {
+    return ConfigParser.parse(ByteBuffer.wrap(config.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static String stop(String name, String latitude, String longitude,
+                             String probability) {
+    return "STOP, " + name + ", " + latitude + ", " + longitude + ", " + probability + "\n";
+  }
+
+  /**
+   * Test parsing the configuration file of the simulation.
+   */
+  @Test
+  public void testParseFile() throws IOException {
+    NetworkTemplate template = ConfigParser.parse(new File("src/main/resources/config.txt"));
+    assertEquals(2, template.getNumLines());
+    assertEquals(4, template.getNumRoutes());
+    List<Line> lines = template.instantiate(new Counter());
+    assertEquals("Campus Connector", lines.get(0).getName());
+    assertEquals(Line.BUS_LINE, lines.get(0).getType());
+    Stop coffman = lines.get(0).getOutboundRoute().getStops().get(1);
+    assertEquals("Coffman", coffman.getName());
+    assertEquals(44.973580, coffman.getPosition().getLatitude());
+    assertEquals(-93.235071, coffman.getPosition().getLongitude());
+    StorageFacility storageFacility = template.instantiateStorageFacility();
+    assertEquals(4, storageFacility.getSmallBusesNum());
+    assertEquals(5, storageFacility.getDieselTrainsNum());
+  }
+
+  /**
+   * Test that line endings, spacing and duplicate stops are handled as before.
+   */
+  @Test
+  public void testParseLineEndings() {
+    String config = "LINE_START,TRAIN_LINE,\tGreen \r\n"
+        + "ROUTE_START, East\r"
+        + "STOP,A,44.5,-93.25,.5\r\n"
+        + "STOP, A , 1, 2, 3\n"
+        + "STOP, B, +44.75, -93., 0\n"
+        + "ROUTE_END\n"
+        + "ROUTE_START, West\n"
+        + stop("B", "44.75", "-93", "1e-1")
+        + stop("A", "44.5", "-93.25", "0")
+        + "ROUTE_END\n"
+        + "LINE_END";
+    List<Line> lines = parse(config).instantiate(new Counter());
+    assertEquals(1, lines.size());
+    assertEquals("Green", lines.get(0).getName());
+    assertEquals(Line.TRAIN_LINE, lines.get(0).getType());
+    assertEquals("East", lines.get(0).getOutboundRoute().getName());
+    List<Stop> stops = lines.get(0).getOutboundRoute().getStops();
+    assertEquals(2, stops.size());
+    assertEquals(44.5, stops.get(0).getPosition().getLatitude());
+    assertEquals(44.75, stops.get(1).getPosition().getLatitude());
+    assertEquals(-93.0, stops.get(1).getPosition().getLongitude());
+    assertEquals(2, lines.get(0).getInboundRoute().getStops().size());
+  }
+
+  /**
+   * Test that parsed numbers are the same as those of Double.parseDouble.
+   */
+  @Test
+  public void testParseNumbers() {
+    Random random = new Random(42);
+    StringBuilder config = new StringBuilder("ROUTE_START, R\n");
+    String[] latitudes = new String[1000];
+    String[] longitudes = new String[latitudes.length];
+    for (int i = 0; i < latitudes.length; i++) {
+      latitudes[i] = String.format("%." + random.nextInt(12) + "f", random.nextDouble() * 90);
+      longitudes[i] = Double.toString(-random.nextDouble() * 180);
+      config.append(stop("S" + i, latitudes[i], longitudes[i], "0.0000000000000000000000001"));
+    }
+    config.append("ROUTE_END\nROUTE_START, R2\n").append(stop("T", "0", "0", "0"))
+        .append("ROUTE_END\nLINE_START, BUS_LINE, L\nLINE_END\n");
+    List<Stop> stops = parse(config.toString()).instantiate(new Counter()).get(0)
+        .getOutboundRoute().getStops();
+    for (int i = 0; i < latitudes.length; i++) {
+      assertEquals(Double.parseDouble(latitudes[i]), stops.get(i).getPosition().getLatitude());
+      assertEquals(Double.parseDouble(longitudes[i]), stops.get(i).getPosition().getLongitude());
+    }
+  }
+
+  /**
+   * Test that storage counts are parsed, including those left out.
+   */
+  @Test
+  public void testParseStorageFacility() {
+    assertNull(parse("").instantiateStorageFacility());
+    NetworkTemplate template = parse("STORAGE_FACILITY_START\n"
+        + "SMALL_BUSES, 7\nDIESEL_TRAINS,02\nELECTRIC_TRAINS, +3\n");
+    StorageFacility storageFacility = template.instantiateStorageFacility();
+    assertEquals(7, storageFacility.getSmallBusesNum());
+    assertEquals(new StorageFacility().getLargeBusesNum(), storageFacility.getLargeBusesNum());
+    assertEquals(3, storageFacility.getElectricTrainsNum());
+    assertEquals(2, storageFacility.getDieselTrainsNum());
+  }
+
+  /**
+   * Test that malformed lines are reported with their line number.
+   */
+  @Test
+  public void testParseErrors() {
+    ConfigFormatException missingField = assertThrows(ConfigFormatException.class,
+        () -> parse("ROUTE_START, R\n\nSTOP, A, 44.5\n"));
+    assertEquals(3, missingField.getLineNumber());
+    ConfigFormatException badNumber = assertThrows(ConfigFormatException.class,
+        () -> parse("ROUTE_START, R\r\nSTOP, A, 44.5, x, 0\r\n"));
+    assertEquals(2, badNumber.getLineNumber());
+    assertEquals("line 2: invalid number \"x\"", badNumber.getMessage());
+    ConfigFormatException badCount = assertThrows(ConfigFormatException.class,
+        () -> parse("STORAGE_FACILITY_START\nSMALL_BUSES, 1.5\n"));
+    assertEquals(2, badCount.getLineNumber());
+    ConfigFormatException noStorage = assertThrows(ConfigFormatException.class,
+        () -> parse("SMALL_BUSES, 1\n"));
+    assertEquals(1, noStorage.getLineNumber());
+    ConfigFormatException noRoutes = assertThrows(ConfigFormatException.class,
+        () -> parse("LINE_START, BUS_LINE, L\nLINE_END\n"));
+    assertEquals(2, noRoutes.getLineNumber());
+  }
+}
@@ -0,0 +1,96 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class EnsembleRunnerTest {
+
+  private static final String CONFIG_FILE = "src/main/resources/config.txt";
+
+  /**
+   * Setup seeded operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = false;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = false;
+  }
+
+  /**
+   * Test that a replication is reproduced by its seed.
+   */
+  @Test
+  public void testRunReplication() {
+    EnsembleRunner ensembleRunner = new EnsembleRunner(CONFIG_FILE);
+    ensembleRunner.setStartHour(10);
+    ReplicationSummary summary = ensembleRunner.runReplication(3, 42L,
+        new ArrayList<Integer>(), 60);
+    ReplicationSummary sameSeed = ensembleRunner.runReplication(4, 42L,
+        new ArrayList<Integer>(), 60);
+    assertEquals(3, summary.getReplication());
+    assertEquals(42L, summary.getSeed());
+    assertTrue(summary.getPassengersGenerated() > 0);
+    assertTrue(summary.getMeanWaitTime() > 0);
+    assertTrue(summary.getMeanLoad() >= 0 && summary.getMeanLoad() <= 1);
+    assertTrue(summary.getTotalCO2Emission() > 0);
+    assertEquals(summary.getPassengersGenerated(), sameSeed.getPassengersGenerated());
+    assertEquals(summary.getMeanWaitTime(), sameSeed.getMeanWaitTime());
+    assertEquals(summary.getMeanLoad(), sameSeed.getMeanLoad());
+    assertEquals(summary.getTotalCO2Emission(), sameSeed.getTotalCO2Emission());
+  }
+
+  /**
+   * Test that ensembles with the same base seed give the same distributions,
+   * whatever the number of threads.
+   */
+  @Test
+  public void testRun() {
+    EnsembleRunner ensembleRunner = new EnsembleRunner(CONFIG_FILE);
+    ensembleRunner.setStartHour(10);
+    ensembleRunner.setBaseSeed(7L);
+    ensembleRunner.setParallelism(4);
+    EnsembleReport parallelReport = ensembleRunner.run(new ArrayList<Integer>(), 40, 12);
+    ensembleRunner.setParallelism(1);
+    EnsembleReport serialReport = ensembleRunner.run(new ArrayList<Integer>(), 40, 12);
+    assertEquals(12, parallelReport.getNumReplications());
+    assertEquals(7L, parallelReport.getBaseSeed());
+    assertEquals(serialReport.getWaitTime().getMean(), parallelReport.getWaitTime().getMean());
+    assertEquals(serialReport.getLoad().getPercentile(95),
+        parallelReport.getLoad().getPercentile(95));
+    assertEquals(serialReport.getCO2Emission().getConfidenceHalfWidth(),
+        parallelReport.getCO2Emission().getConfidenceHalfWidth());
+    assertTrue(parallelReport.getPassengersGenerated().getStandardDeviation() > 0);
+
+    ensembleRunner.setBaseSeed(8L);
+    EnsembleReport otherReport = ensembleRunner.run(new ArrayList<Integer>(), 40, 12);
+    assertNotEquals(serialReport.getWaitTime().getMean(), otherReport.getWaitTime().getMean());
+  }
+
+  /**
+   * Test the report of an ensemble run.
+   */
+  @Test
+  public void testReport() {
+    EnsembleReport ensembleReport = new EnsembleReport(5L, 10);
+    ensembleReport.add(new ReplicationSummary(0, 1L, 20, 1.5, 0.25, 300));
+    ensembleReport.add(new ReplicationSummary(1, 2L, 30, 2.5, 0.75, 500));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ensembleReport.report(new PrintStream(outputStream));
+    String report = outputStream.toString();
+    assertTrue(report.startsWith("####Ensemble Run Info Start####"));
+    assertTrue(report.contains("Replications: 2"));
+    assertTrue(report.contains("Wait time: mean 2.000"));
+    assertEquals(400, ensembleReport.getCO2Emission().getMean());
+  }
+}
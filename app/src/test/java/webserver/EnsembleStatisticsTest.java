@@ -0,0 +1,52 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class EnsembleStatisticsTest {
+
+  /**
+   * Test the statistics of a few values.
+   */
+  @Test
+  public void testStatistics() {
+    EnsembleStatistics statistics = new EnsembleStatistics("Wait time");
+    assertEquals("Wait time", statistics.getName());
+    assertTrue(Double.isNaN(statistics.getMean()));
+    statistics.add(4);
+    assertTrue(Double.isNaN(statistics.getConfidenceHalfWidth()));
+    statistics.add(1);
+    statistics.add(3);
+    statistics.add(2);
+    assertEquals(4, statistics.getCount());
+    assertEquals(2.5, statistics.getMean(), 1e-12);
+    assertEquals(Math.sqrt(5.0 / 3), statistics.getStandardDeviation(), 1e-12);
+    assertEquals(1, statistics.getPercentile(0));
+    assertEquals(2.5, statistics.getPercentile(50), 1e-12);
+    assertEquals(3.7, statistics.getPercentile(90), 1e-12);
+    assertEquals(4, statistics.getPercentile(100));
+    assertEquals(3.182 * Math.sqrt(5.0 / 3) / 2, statistics.getConfidenceHalfWidth(), 1e-12);
+    assertThrows(IllegalArgumentException.class, () -> statistics.getPercentile(101));
+  }
+
+  /**
+   * Test that the statistics do not depend on the order values are added in.
+   */
+  @Test
+  public void testOrderIndependence() {
+    EnsembleStatistics forward = new EnsembleStatistics("Load");
+    EnsembleStatistics backward = new EnsembleStatistics("Load");
+    for (int i = 0; i < 100; i++) {
+      forward.add(0.1 * i);
+      backward.add(0.1 * (99 - i));
+    }
+    assertEquals(forward.getMean(), backward.getMean());
+    assertEquals(forward.getStandardDeviation(), backward.getStandardDeviation());
+    assertEquals(forward.getPercentile(95), backward.getPercentile(95));
+    assertEquals(1.96 * forward.getStandardDeviation() / 10,
+        forward.getConfidenceHalfWidth(), 1e-12);
+  }
+}
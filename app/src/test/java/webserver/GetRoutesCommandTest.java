@@ -1,14 +1,17 @@
 package webserver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import model.Issue;
 import model.Line;
 import model.PassengerFactory;
@@ -88,4 +91,108 @@ public class GetRoutesCommandTest {
     assertEquals(20, arr.get(0).getAsJsonObject().get("id").getAsInt());
     assertEquals(10, arr.get(1).getAsJsonObject().get("id").getAsInt());
   }
+
+  /**
+   * Test command for getting the stop counts of all routes.
+   */
+  @Test
+  public void testGetRoutesExecuteCompact() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doNothing().when(webServerSessionSpy).sendJson(Mockito.isA(JsonObject.class));
+    VisualTransitSimulator visualTransitSimulatorMock = mock(VisualTransitSimulator.class);
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(0, "s1", new Position(0, 0)));
+    stops.add(new Stop(1, "s2", new Position(1, 1)));
+
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.2);
+
+    Route routeIn = new Route(10, "R_IN", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Route routeOut = new Route(20, "R_OUT", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+
+    List<Line> lines = new ArrayList<>();
+    lines.add(new Line(100, "L1", "BUS", routeOut, routeIn, new Issue()));
+
+    when(visualTransitSimulatorMock.getLines()).thenReturn(lines);
+
+    GetRoutesCommand getRoutesCommand = new GetRoutesCommand(visualTransitSimulatorMock);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "getRoutes");
+    commandFromClient.addProperty("compact", true);
+
+    getRoutesCommand.execute(webServerSessionSpy, commandFromClient);
+
+    ArgumentCaptor<JsonObject> messageCaptor = ArgumentCaptor.forClass(JsonObject.class);
+    verify(webServerSessionSpy).sendJson(messageCaptor.capture());
+    JsonObject commandToClient = messageCaptor.getValue();
+
+    assertEquals("updateStopCounts", commandToClient.get("command").getAsString());
+    assertEquals(2, commandToClient.getAsJsonArray("counts").size());
+  }
+
+  /**
+   * Test that repeated versioned requests are answered from the cache and
+   * get a not modified reply for the current version.
+   */
+  @Test
+  public void testGetRoutesExecuteSinceVersion() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doNothing().when(webServerSessionSpy).sendJson(Mockito.isA(JsonObject.class));
+    doNothing().when(webServerSessionSpy).sendText(Mockito.anyString(), Mockito.anyString());
+    VisualTransitSimulator visualTransitSimulatorMock = mock(VisualTransitSimulator.class);
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(0, "s1", new Position(0, 0)));
+    stops.add(new Stop(1, "s2", new Position(1, 1)));
+
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.2);
+
+    Route routeIn = new Route(10, "R_IN", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Route routeOut = new Route(20, "R_OUT", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+
+    List<Line> lines = new ArrayList<>();
+    lines.add(new Line(100, "L1", "BUS", routeOut, routeIn, new Issue()));
+
+    when(visualTransitSimulatorMock.getLines()).thenReturn(lines);
+    when(visualTransitSimulatorMock.getStateVersion()).thenReturn(7L);
+
+    GetRoutesCommand getRoutesCommand = new GetRoutesCommand(visualTransitSimulatorMock);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "getRoutes");
+    commandFromClient.addProperty("compact", true);
+    commandFromClient.addProperty("sinceVersion", -1);
+
+    getRoutesCommand.execute(webServerSessionSpy, commandFromClient);
+    getRoutesCommand.execute(webServerSessionSpy, commandFromClient);
+
+    ArgumentCaptor<String> textCaptor = ArgumentCaptor.forClass(String.class);
+    verify(webServerSessionSpy, times(2)).sendText(textCaptor.capture(),
+        Mockito.eq("updateStopCounts"));
+    JsonObject commandToClient = JsonParser.parseString(textCaptor.getValue()).getAsJsonObject();
+    assertEquals("updateStopCounts", commandToClient.get("command").getAsString());
+    assertEquals(7, commandToClient.get("stateVersion").getAsLong());
+    assertSame(textCaptor.getAllValues().get(0), textCaptor.getAllValues().get(1));
+
+    commandFromClient.addProperty("sinceVersion", 7);
+    getRoutesCommand.execute(webServerSessionSpy, commandFromClient);
+
+    ArgumentCaptor<JsonObject> messageCaptor = ArgumentCaptor.forClass(JsonObject.class);
+    verify(webServerSessionSpy).sendJson(messageCaptor.capture());
+    assertEquals("notModified", messageCaptor.getValue().get("command").getAsString());
+    assertEquals("getRoutes", messageCaptor.getValue().get("request").getAsString());
+  }
 }
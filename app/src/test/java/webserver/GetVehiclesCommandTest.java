@@ -103,4 +103,53 @@ public class GetVehiclesCommandTest {
     assertEquals("ELECTRIC_TRAIN_VEHICLE", arr.get(2).getAsJsonObject().get("type").getAsString());
     assertEquals("DIESEL_TRAIN_VEHICLE", arr.get(3).getAsJsonObject().get("type").getAsString());
   }
+
+  /**
+   * Tests that GetVehiclesCommand answers delta requests with a delta message.
+   */
+  @Test
+  public void testGetVehiclesExecuteDelta() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doNothing().when(webServerSessionSpy).sendJson(Mockito.isA(JsonObject.class));
+
+    VisualTransitSimulator visualTransitSimulatorMock = mock(VisualTransitSimulator.class);
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(0, "s1", new Position(0, 0)));
+    stops.add(new Stop(1, "s2", new Position(1, 1)));
+
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.1);
+
+    Route route1 = new Route(1, "R1", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Route route2 = new Route(2, "R2", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+
+    List<VehicleInterface> vehicles = new ArrayList<>();
+    vehicles.add(new SmallBus(1,
+        new Line(10, "L1", "BUS", route1, route2, new Issue()), 10, 1.0));
+
+    when(visualTransitSimulatorMock.getActiveVehicles()).thenReturn(vehicles);
+
+    GetVehiclesCommand getVehiclesCommand = new GetVehiclesCommand(visualTransitSimulatorMock);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "getVehicles");
+    commandFromClient.addProperty("delta", true);
+    commandFromClient.addProperty("version", -1);
+
+    getVehiclesCommand.execute(webServerSessionSpy, commandFromClient);
+
+    ArgumentCaptor<JsonObject> messageCaptor = ArgumentCaptor.forClass(JsonObject.class);
+    verify(webServerSessionSpy).sendJson(messageCaptor.capture());
+    JsonObject commandToClient = messageCaptor.getValue();
+
+    assertEquals("updateVehiclesDelta", commandToClient.get("command").getAsString());
+    assertEquals(true, commandToClient.get("full").getAsBoolean());
+    assertEquals(1, commandToClient.getAsJsonArray("vehicles").size());
+  }
 }
@@ -0,0 +1,186 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import model.Counter;
+import model.Line;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import model.Route;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GtfsImporterTest {
+
+  private File feedDirectory;
+
+  /**
+   * Setup deterministic operations and a small feed before each test runs.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    feedDirectory = Files.createTempDirectory("gtfs").toFile();
+    write(GtfsImporter.ROUTES_FILE, "\uFEFFroute_id,agency_id,route_short_name,"
+        + "route_long_name,route_type\r\n"
+        + "R1,A,3,\"Campus, Connector\",3\r\n"
+        + "R2,A,,Green Line,0\r\n"
+        + "R3,A,9,Unused,3\r\n");
+    write(GtfsImporter.TRIPS_FILE, "route_id,service_id,trip_id,trip_headsign,direction_id\n"
+        + "R1,S,T1,East,0\n"
+        + "R1,S,T2,East,0\n"
+        + "R1,S,T3,West,1\n"
+        + "R2,S,T4,,\n");
+    write(GtfsImporter.STOP_TIMES_FILE, "trip_id,arrival_time,departure_time,stop_id,"
+        + "stop_sequence\n"
+        + "T1,08:00:00,08:00:00,A,1\n"
+        + "T1,08:05:00,08:05:00,B,2\n"
+        + "T2,09:10:00,09:10:00,C,3\n"
+        + "T2,09:00:00,09:00:00,A,1\n"
+        + "T2,09:05:00,09:05:00,B,2\n"
+        + "T3,10:00:00,10:00:00,C,1\n"
+        + "T3,10:05:00,10:05:00,A,2\n"
+        + "T4,11:00:00,11:00:00,D,1\n"
+        + "T4,11:05:00,11:05:00,E,2\n"
+        + "T4,11:10:00,11:10:00,D,3\n"
+        + "T4,11:15:00,11:15:00,MISSING,4\n");
+    write(GtfsImporter.STOPS_FILE, "stop_id,stop_name,stop_lat,stop_lon\n"
+        + "A,\"Blegen \"\"Hall\"\"\",44.972392,-93.243774\n"
+        + "B,Coffman,44.973580,-93.235071\n"
+        + "C,Oak Street,44.975392,-93.226632\n"
+        + "D,Union Depot,44.948,-93.086\n"
+        + "E,Capitol,44.955,-93.102\n"
+        + "F,Unused,1,2\n");
+  }
+
+  /**
+   * Remove the feed after each test.
+   */
+  @AfterEach
+  public void tearDown() {
+    for (File file : feedDirectory.listFiles()) {
+      file.delete();
+    }
+    feedDirectory.delete();
+  }
+
+  private void write(String fileName, String contents) throws IOException {
+    Files.write(new File(feedDirectory, fileName).toPath(),
+        contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String getStopNames(Route route) {
+    StringBuilder names = new StringBuilder();
+    for (int i = 0; i < route.getStops().size(); i++) {
+      names.append(i == 0 ? "" : ",").append(route.getStops().get(i).getName());
+    }
+    return names.toString();
+  }
+
+  /**
+   * Test importing the lines, routes and stops of a feed.
+   */
+  @Test
+  public void testImportFeed() throws IOException {
+    NetworkTemplate template = GtfsImporter.importFeed(feedDirectory);
+    assertNull(template.instantiateStorageFacility());
+    List<Line> lines = template.instantiate(new Counter());
+    assertEquals(2, lines.size());
+
+    Line campusConnector = lines.get(0);
+    assertEquals("3", campusConnector.getName());
+    assertEquals(Line.BUS_LINE, campusConnector.getType());
+    Route east = campusConnector.getOutboundRoute();
+    assertEquals("East", east.getName());
+    assertEquals("Blegen \"Hall\",Coffman,Oak Street", getStopNames(east));
+    assertEquals(44.973580, east.getStops().get(1).getPosition().getLatitude());
+    assertEquals(-93.235071, east.getStops().get(1).getPosition().getLongitude());
+    assertEquals("West", campusConnector.getInboundRoute().getName());
+    assertEquals("Oak Street,Blegen \"Hall\"", getStopNames(campusConnector.getInboundRoute()));
+
+    Line green = lines.get(1);
+    assertEquals("Green Line", green.getName());
+    assertEquals(Line.TRAIN_LINE, green.getType());
+    assertEquals("Outbound", green.getOutboundRoute().getName());
+    assertEquals("Union Depot,Capitol", getStopNames(green.getOutboundRoute()));
+    assertEquals("Inbound", green.getInboundRoute().getName());
+    assertEquals("Capitol,Union Depot", getStopNames(green.getInboundRoute()));
+  }
+
+  /**
+   * Test importing some routes of a feed.
+   */
+  @Test
+  public void testImportFeedRoutes() throws IOException {
+    NetworkTemplate template = GtfsImporter.importFeed(feedDirectory,
+        Collections.singleton("R2"));
+    assertEquals(1, template.getNumLines());
+    assertEquals(2, template.getNumRoutes());
+  }
+
+  /**
+   * Test that feed directories are read through the configuration manager.
+   */
+  @Test
+  public void testReadConfigFeed() {
+    assertTrue(GtfsImporter.isFeed(feedDirectory));
+    assertFalse(GtfsImporter.isFeed(new File("src/main/resources")));
+    ConfigManager.clearTemplateCache();
+    ConfigManager configManager = new ConfigManager();
+    configManager.readConfig(new Counter(), feedDirectory.getPath());
+    assertEquals(2, configManager.getLines().size());
+    assertEquals("East", configManager.getLines().get(0).getOutboundRoute().getName());
+  }
+
+  /**
+   * Test the line types of GTFS route types.
+   */
+  @Test
+  public void testGetLineType() {
+    assertEquals(Line.BUS_LINE, GtfsImporter.getLineType(3));
+    assertEquals(Line.BUS_LINE, GtfsImporter.getLineType(11));
+    assertEquals(Line.BUS_LINE, GtfsImporter.getLineType(700));
+    assertEquals(Line.TRAIN_LINE, GtfsImporter.getLineType(0));
+    assertEquals(Line.TRAIN_LINE, GtfsImporter.getLineType(2));
+    assertEquals(Line.TRAIN_LINE, GtfsImporter.getLineType(109));
+    assertEquals(Line.TRAIN_LINE, GtfsImporter.getLineType(900));
+  }
+
+  /**
+   * Test reading quoted fields and reporting errors with line numbers.
+   */
+  @Test
+  public void testCsvReader() throws IOException {
+    GtfsImporter.CsvReader reader = new GtfsImporter.CsvReader("test.txt",
+        new StringReader("a,b\n\n\"x\ny\",\"\"\r\n3,z\n"));
+    int a = reader.getColumn("a", true);
+    int b = reader.getColumn("b", true);
+    assertEquals(-1, reader.getColumn("c", false));
+    assertThrows(ConfigFormatException.class, () -> reader.getColumn("c", true));
+    assertTrue(reader.next());
+    assertEquals("x\ny", reader.get(a));
+    assertEquals("", reader.get(b));
+    assertTrue(reader.next());
+    assertEquals(3, reader.getInt(a));
+    ConfigFormatException badNumber = assertThrows(ConfigFormatException.class,
+        () -> reader.getDouble(b));
+    assertEquals(5, badNumber.getLineNumber());
+    assertFalse(reader.next());
+    reader.close();
+  }
+}
@@ -0,0 +1,172 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import model.Counter;
+import model.Line;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.StorageFacility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NetworkCompilerTest {
+
+  private static final String CONFIG_FILE = "src/main/resources/config.txt";
+
+  private File cacheDirectory;
+
+  /**
+   * Setup deterministic operations and an empty cache before each test runs.
+   */
+  @BeforeEach
+  public void setUp() throws IOException {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    cacheDirectory = Files.createTempDirectory("networks").toFile();
+  }
+
+  /**
+   * Remove the cache after each test.
+   */
+  @AfterEach
+  public void tearDown() {
+    for (File file : cacheDirectory.listFiles()) {
+      file.delete();
+    }
+    cacheDirectory.delete();
+  }
+
+  /**
+   * Test that a decoded network is the same as the parsed one.
+   */
+  @Test
+  public void testEncodeDecode() throws IOException {
+    NetworkTemplate parsed = ConfigParser.parse(new File(CONFIG_FILE));
+    byte[] hash = new byte[NetworkCompiler.HASH_SIZE];
+    NetworkTemplate decoded = NetworkCompiler.decode(NetworkCompiler.encode(parsed, hash), hash);
+    assertEquals(parsed.getNumRoutes(), decoded.getNumRoutes());
+    assertEquals(parsed.getNumLines(), decoded.getNumLines());
+    assertArrayEquals(parsed.getStorageCounts(), decoded.getStorageCounts());
+    List<Line> parsedLines = parsed.instantiate(new Counter());
+    List<Line> decodedLines = decoded.instantiate(new Counter());
+    for (int i = 0; i < parsedLines.size(); i++) {
+      assertEquals(parsedLines.get(i).getId(), decodedLines.get(i).getId());
+      assertEquals(parsedLines.get(i).getName(), decodedLines.get(i).getName());
+      assertEquals(parsedLines.get(i).getType(), decodedLines.get(i).getType());
+      assertRoutesEqual(parsedLines.get(i).getOutboundRoute(),
+          decodedLines.get(i).getOutboundRoute());
+      assertRoutesEqual(parsedLines.get(i).getInboundRoute(),
+          decodedLines.get(i).getInboundRoute());
+    }
+  }
+
+  private static void assertRoutesEqual(Route expected, Route actual) {
+    assertEquals(expected.getId(), actual.getId());
+    assertEquals(expected.getName(), actual.getName());
+    assertEquals(expected.getStops().size(), actual.getStops().size());
+    for (int i = 0; i < expected.getStops().size(); i++) {
+      assertEquals(expected.getStops().get(i).getId(), actual.getStops().get(i).getId());
+      assertEquals(expected.getStops().get(i).getName(), actual.getStops().get(i).getName());
+      assertEquals(expected.getStops().get(i).getPosition().getLatitude(),
+          actual.getStops().get(i).getPosition().getLatitude());
+      assertEquals(expected.getGeometry().getLongitude(i), actual.getGeometry().getLongitude(i));
+    }
+    for (int i = 0; i < expected.getStops().size() - 1; i++) {
+      assertEquals(expected.getGeometry().getSegmentLength(i),
+          actual.getGeometry().getSegmentLength(i));
+    }
+  }
+
+  /**
+   * Test that a network without storage facility keeps having none.
+   */
+  @Test
+  public void testEncodeDecodeNoStorageFacility() {
+    NetworkTemplate parsed = ConfigParser.parse(ByteBuffer.wrap(
+        "ROUTE_START, R\nSTOP, A, 1, 2, 0\nROUTE_END\n".getBytes(StandardCharsets.UTF_8)));
+    NetworkTemplate decoded = NetworkCompiler.decode(
+        NetworkCompiler.encode(parsed, new byte[NetworkCompiler.HASH_SIZE]), null);
+    assertNull(decoded.instantiateStorageFacility());
+    assertEquals(1, decoded.getNumRoutes());
+  }
+
+  /**
+   * Test that the network is compiled once and loaded from the cache afterwards.
+   */
+  @Test
+  public void testLoad() throws IOException {
+    NetworkTemplate parsed = NetworkCompiler.load(new File(CONFIG_FILE), cacheDirectory);
+    File[] compiledFiles = cacheDirectory.listFiles();
+    assertEquals(1, compiledFiles.length);
+    assertTrue(compiledFiles[0].getName().endsWith(NetworkCompiler.EXTENSION));
+    long modified = compiledFiles[0].lastModified();
+
+    NetworkTemplate loaded = NetworkCompiler.load(new File(CONFIG_FILE), cacheDirectory);
+    assertEquals(modified, compiledFiles[0].lastModified());
+    assertEquals(parsed.getNumRoutes(), loaded.getNumRoutes());
+    StorageFacility storageFacility = loaded.instantiateStorageFacility();
+    assertEquals(4, storageFacility.getSmallBusesNum());
+    assertEquals(5, storageFacility.getDieselTrainsNum());
+  }
+
+  /**
+   * Test that changed and damaged files are compiled again.
+   */
+  @Test
+  public void testLoadChanged() throws IOException {
+    File configFile = new File(cacheDirectory, "config.txt");
+    Files.write(configFile.toPath(),
+        "ROUTE_START, R\nSTOP, A, 1, 2, 0\nROUTE_END\n".getBytes(StandardCharsets.UTF_8));
+    assertEquals(1, NetworkCompiler.load(configFile, cacheDirectory).getNumRoutes());
+    File compiledFile = NetworkCompiler.getCompiledFile(cacheDirectory,
+        NetworkCompiler.hash(ByteBuffer.wrap(Files.readAllBytes(configFile.toPath()))));
+    assertTrue(compiledFile.isFile());
+
+    Files.write(configFile.toPath(), "ROUTE_START, R\nSTOP, A, 1, 2, 0\nROUTE_END\n"
+        .repeat(2).getBytes(StandardCharsets.UTF_8));
+    File changedFile = NetworkCompiler.getCompiledFile(cacheDirectory,
+        NetworkCompiler.hash(ByteBuffer.wrap(Files.readAllBytes(configFile.toPath()))));
+    assertNotEquals(compiledFile, changedFile);
+    assertEquals(2, NetworkCompiler.load(configFile, cacheDirectory).getNumRoutes());
+    assertTrue(changedFile.isFile());
+
+    Files.write(changedFile.toPath(), new byte[] {1, 2, 3});
+    assertEquals(2, NetworkCompiler.load(configFile, cacheDirectory).getNumRoutes());
+    assertEquals(2, NetworkCompiler.read(changedFile, null).getNumRoutes());
+  }
+
+  /**
+   * Test that networks compiled from other text or truncated are rejected.
+   */
+  @Test
+  public void testDecodeInvalid() {
+    NetworkTemplate parsed = ConfigParser.parse(ByteBuffer.wrap(new byte[0]));
+    ByteBuffer data = NetworkCompiler.encode(parsed, new byte[NetworkCompiler.HASH_SIZE]);
+    byte[] otherHash = new byte[NetworkCompiler.HASH_SIZE];
+    otherHash[0] = 1;
+    assertThrows(IllegalArgumentException.class,
+        () -> NetworkCompiler.decode(data.duplicate(), otherHash));
+    ByteBuffer truncated = data.duplicate();
+    truncated.limit(truncated.limit() - 1);
+    assertThrows(IllegalArgumentException.class,
+        () -> NetworkCompiler.decode(truncated, null));
+    assertThrows(IllegalArgumentException.class,
+        () -> NetworkCompiler.decode(ByteBuffer.wrap(new byte[] {1, 2, 3, 4}), null));
+  }
+}
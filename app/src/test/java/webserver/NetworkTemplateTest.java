@@ -0,0 +1,98 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import model.Counter;
+import model.Line;
+import model.PassengerFactory;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.RouteGeometry;
+import model.Stop;
+import model.StorageFacility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class NetworkTemplateTest {
+
+  private List<NetworkTemplate.RouteTemplate> routes;
+  private RouteGeometry geometry;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(-1, "s1", new Position(1, 2)));
+    stops.add(new Stop(-1, "s2", new Position(3, 4)));
+    List<Double> distances = new ArrayList<>();
+    distances.add(5.0);
+    geometry = new RouteGeometry(stops, distances);
+    List<String> stopNames = new ArrayList<>();
+    stopNames.add("s1");
+    stopNames.add("s2");
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.1);
+    probabilities.add(0.0);
+
+    routes = new ArrayList<>();
+    routes.add(new NetworkTemplate.RouteTemplate("out", stopNames, probabilities, geometry));
+    routes.add(new NetworkTemplate.RouteTemplate("in", stopNames, probabilities, geometry));
+  }
+
+  /**
+   * Test that identifiers are assigned in the order of the configuration:
+   * the stops of a route, then the route, and a line after its routes.
+   */
+  @Test
+  public void testInstantiate() {
+    List<NetworkTemplate.LineTemplate> lines = new ArrayList<>();
+    lines.add(new NetworkTemplate.LineTemplate("L1", Line.BUS_LINE, 0, 1, 2));
+    NetworkTemplate template = new NetworkTemplate(routes, lines, null);
+
+    List<Line> instantiated = template.instantiate(new Counter());
+    Counter counter = new Counter();
+    int firstStopId = counter.getStopIdCounterAndIncrement();
+    int firstRouteId = counter.getRouteIdCounterAndIncrement();
+    int firstLineId = counter.getLineIdCounterAndIncrement();
+
+    assertEquals(1, instantiated.size());
+    Line line = instantiated.get(0);
+    assertEquals(firstLineId, line.getId());
+    assertEquals("L1", line.getName());
+    assertEquals(firstRouteId, line.getOutboundRoute().getId());
+    assertEquals(firstRouteId + 1, line.getInboundRoute().getId());
+    assertEquals(firstStopId, line.getOutboundRoute().getStops().get(0).getId());
+    assertEquals(firstStopId + 3, line.getInboundRoute().getStops().get(1).getId());
+    assertEquals("s2", line.getInboundRoute().getStops().get(1).getName());
+    assertEquals(3, line.getInboundRoute().getStops().get(1).getPosition().getLongitude());
+    assertSame(geometry, line.getOutboundRoute().getGeometry());
+    assertNull(template.instantiateStorageFacility());
+  }
+
+  /**
+   * Test that only configured storage counts are set.
+   */
+  @Test
+  public void testInstantiateStorageFacility() {
+    NetworkTemplate template = new NetworkTemplate(routes,
+        new ArrayList<NetworkTemplate.LineTemplate>(), new int[] {3, -1, 2, -1});
+    StorageFacility storageFacility = template.instantiateStorageFacility();
+    assertEquals(3, storageFacility.getSmallBusesNum());
+    assertEquals(0, storageFacility.getLargeBusesNum());
+    assertEquals(2, storageFacility.getElectricTrainsNum());
+    assertEquals(0, storageFacility.getDieselTrainsNum());
+    assertEquals(0, template.instantiate(new Counter()).size());
+    assertEquals(2, template.getNumRoutes());
+  }
+}
@@ -0,0 +1,200 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class OutboundQueueTest {
+
+  private List<Object> sentMessages;
+  private List<SendHandler> pendingHandlers;
+  private OutboundQueue queue;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    sentMessages = new ArrayList<>();
+    pendingHandlers = new ArrayList<>();
+    queue = new OutboundQueue(new OutboundQueue.MessageSender() {
+      @Override
+      public void sendText(String text, SendHandler handler) {
+        sentMessages.add(text);
+        pendingHandlers.add(handler);
+      }
+
+      @Override
+      public void sendBinary(ByteBuffer data, SendHandler handler) {
+        sentMessages.add(data);
+        pendingHandlers.add(handler);
+      }
+    });
+  }
+
+  private void completeSend() {
+    pendingHandlers.remove(0).onResult(new SendResult());
+  }
+
+  /**
+   * Test that messages are sent one at a time, in order.
+   */
+  @Test
+  public void testEnqueue() {
+    queue.enqueue(null, () -> "a");
+    queue.enqueue(null, () -> "b");
+    ByteBuffer frame = ByteBuffer.allocate(1);
+    queue.enqueue(null, () -> frame);
+    assertEquals(1, sentMessages.size());
+    assertEquals(2, queue.getDepth());
+
+    completeSend();
+    completeSend();
+    assertEquals(3, sentMessages.size());
+    assertEquals("a", sentMessages.get(0));
+    assertEquals("b", sentMessages.get(1));
+    assertEquals(frame, sentMessages.get(2));
+    completeSend();
+    assertEquals(0, queue.getDepth());
+    assertEquals(2, queue.getMaxDepth());
+    assertEquals(3, queue.getSentCount());
+  }
+
+  /**
+   * Test that queued messages with the same key are replaced by the latest.
+   */
+  @Test
+  public void testCoalescing() {
+    queue.enqueue("updateVehicles", () -> "v1");
+    queue.enqueue("updateVehicles", () -> "v2");
+    queue.enqueue(null, () -> "delta");
+    queue.enqueue("updateVehicles", () -> "v3");
+    assertEquals(2, queue.getDepth());
+    assertEquals(1, queue.getCoalescedCount());
+
+    completeSend();
+    completeSend();
+    assertEquals("v1", sentMessages.get(0));
+    assertEquals("v3", sentMessages.get(1));
+    assertEquals("delta", sentMessages.get(2));
+
+    // once sent, a key can be queued again
+    queue.enqueue("updateVehicles", () -> "v4");
+    completeSend();
+    assertEquals("v4", sentMessages.get(3));
+  }
+
+  /**
+   * Test that payloads are created when the message is sent.
+   */
+  @Test
+  public void testLazyPayload() {
+    int[] builds = new int[1];
+    queue.enqueue(null, () -> "first");
+    queue.enqueue("updateState", () -> "state" + (++builds[0]));
+    queue.enqueue("updateState", () -> "state" + (++builds[0]));
+    assertEquals(0, builds[0]);
+    completeSend();
+    assertEquals(1, builds[0]);
+    assertEquals("state1", sentMessages.get(1));
+  }
+
+  /**
+   * Test that failed sends are counted and do not stop the queue.
+   */
+  @Test
+  public void testFailedSend() {
+    queue.enqueue(null, () -> "a");
+    queue.enqueue(null, () -> {
+      throw new IllegalStateException("closed");
+    });
+    queue.enqueue(null, () -> "c");
+    pendingHandlers.remove(0).onResult(new SendResult(new RuntimeException("timeout")));
+    assertEquals(2, queue.getFailedCount());
+    assertEquals("c", sentMessages.get(1));
+    completeSend();
+    assertEquals(1, queue.getSentCount());
+  }
+
+  /**
+   * Test that a long backlog of sends that fail or complete before they
+   * return is drained without growing the stack.
+   */
+  @Test
+  public void testInlineCompletionBacklog() {
+    List<SendHandler> held = new ArrayList<>();
+    OutboundQueue inlineQueue = new OutboundQueue(new OutboundQueue.MessageSender() {
+      @Override
+      public void sendText(String text, SendHandler handler) {
+        if (text.equals("first")) {
+          held.add(handler);
+        } else if (text.equals("closed")) {
+          throw new IllegalStateException("closed");
+        } else {
+          handler.onResult(new SendResult());
+        }
+      }
+
+      @Override
+      public void sendBinary(ByteBuffer data, SendHandler handler) {
+        handler.onResult(new SendResult(new RuntimeException("timeout")));
+      }
+    });
+    inlineQueue.enqueue(null, () -> "first");
+    for (int i = 0; i < 300000; i++) {
+      Object payload = i % 3 == 0 ? "closed" : i % 3 == 1 ? "sent" : ByteBuffer.allocate(1);
+      inlineQueue.enqueue(null, () -> payload);
+    }
+    assertEquals(300000, inlineQueue.getDepth());
+
+    held.remove(0).onResult(new SendResult());
+    assertEquals(0, inlineQueue.getDepth());
+    assertEquals(100001, inlineQueue.getSentCount());
+    assertEquals(200000, inlineQueue.getFailedCount());
+
+    // the queue keeps sending once it has drained
+    inlineQueue.enqueue(null, () -> "sent");
+    assertEquals(100002, inlineQueue.getSentCount());
+  }
+
+  /**
+   * Test clear and report.
+   */
+  @Test
+  public void testClearAndReport() {
+    queue.enqueue(null, () -> "a");
+    queue.enqueue(null, () -> "b");
+    queue.clear();
+    completeSend();
+    assertEquals(1, sentMessages.size());
+    assertEquals(0, queue.getDepth());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PrintStream testStream = new PrintStream(outputStream);
+    queue.report(testStream);
+    testStream.flush();
+    String expected = "####Outbound Queue Info Start####" + System.lineSeparator()
+        + "Depth: 0" + System.lineSeparator()
+        + "Max depth: 1" + System.lineSeparator()
+        + "Sent: 1" + System.lineSeparator()
+        + "Coalesced: 0" + System.lineSeparator()
+        + "Failed: 0" + System.lineSeparator()
+        + "####Outbound Queue Info End####" + System.lineSeparator();
+    assertEquals(expected, outputStream.toString());
+  }
+}
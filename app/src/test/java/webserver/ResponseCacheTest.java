@@ -0,0 +1,92 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ResponseCacheTest {
+
+  private ResponseCache cache;
+  private int builds;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    cache = new ResponseCache();
+    builds = 0;
+  }
+
+  private JsonObject build() {
+    builds++;
+    JsonObject data = new JsonObject();
+    data.addProperty("command", "updateStopCounts");
+    data.addProperty("builds", builds);
+    return data;
+  }
+
+  /**
+   * Test that a response is built once per version and key.
+   */
+  @Test
+  public void testGet() {
+    String first = cache.get("compact", 3, this::build);
+    String second = cache.get("compact", 3, this::build);
+    assertSame(first, second);
+    assertEquals(1, builds);
+    assertEquals(1, cache.getHits());
+    assertEquals(1, cache.getMisses());
+
+    JsonObject data = JsonParser.parseString(first).getAsJsonObject();
+    assertEquals(3, data.get("stateVersion").getAsLong());
+
+    cache.get("full", 3, this::build);
+    assertEquals(2, builds);
+  }
+
+  /**
+   * Test that a new version replaces the cached responses.
+   */
+  @Test
+  public void testGetNewVersion() {
+    cache.get("compact", 3, this::build);
+    String next = cache.get("compact", 4, this::build);
+    assertEquals(2, builds);
+    JsonObject data = JsonParser.parseString(next).getAsJsonObject();
+    assertEquals(4, data.get("stateVersion").getAsLong());
+    assertEquals(2, data.get("builds").getAsInt());
+    assertEquals(0, cache.getHits());
+  }
+
+  /**
+   * Test the not modified check and reply.
+   */
+  @Test
+  public void testNotModified() {
+    JsonObject command = new JsonObject();
+    command.addProperty("command", "getVehicles");
+    assertFalse(ResponseCache.isNotModified(command, 5));
+    command.addProperty("sinceVersion", 4);
+    assertFalse(ResponseCache.isNotModified(command, 5));
+    command.addProperty("sinceVersion", 5);
+    assertTrue(ResponseCache.isNotModified(command, 5));
+
+    JsonObject reply = ResponseCache.notModified("getVehicles", 5);
+    assertEquals("notModified", reply.get("command").getAsString());
+    assertEquals("getVehicles", reply.get("request").getAsString());
+    assertEquals(5, reply.get("stateVersion").getAsLong());
+  }
+}
@@ -0,0 +1,100 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import model.Issue;
+import model.Line;
+import model.Passenger;
+import model.PassengerFactory;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.Stop;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class RouteTopologyTest {
+
+  private Stop stop1;
+  private Stop stop2;
+  private Stop stop3;
+  private RouteTopology topology;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    stop1 = new Stop(0, "s1", new Position(0, 0));
+    stop2 = new Stop(1, "s2", new Position(1, 1));
+    stop3 = new Stop(2, "s3", new Position(2, 2));
+
+    List<Stop> stopsOut = new ArrayList<>();
+    stopsOut.add(stop1);
+    stopsOut.add(stop2);
+    List<Stop> stopsIn = new ArrayList<>();
+    stopsIn.add(stop3);
+    stopsIn.add(stop2);
+
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.2);
+
+    Route routeOut = new Route(20, "R_OUT", stopsOut, distances,
+        new RandomPassengerGenerator(stopsOut, probabilities));
+    Route routeIn = new Route(10, "R_IN", stopsIn, distances,
+        new RandomPassengerGenerator(stopsIn, probabilities));
+
+    List<Line> lines = new ArrayList<>();
+    lines.add(new Line(100, "L1", Line.BUS_LINE, routeOut, routeIn, new Issue()));
+    topology = new RouteTopology(lines);
+  }
+
+  /**
+   * Tests that shared stops are listed once and routes refer to them by index.
+   */
+  @Test
+  public void testToJson() {
+    assertEquals(3, topology.getNumStops());
+    JsonObject json = topology.toJson();
+    JsonArray stops = json.getAsJsonArray("stops");
+    assertEquals(3, stops.size());
+    assertEquals(0, stops.get(0).getAsJsonObject().get("id").getAsInt());
+    assertEquals(2, stops.get(2).getAsJsonObject().get("id").getAsInt());
+    assertEquals(2.0, stops.get(2).getAsJsonObject().getAsJsonObject("position")
+        .get("latitude").getAsDouble());
+
+    JsonArray routes = json.getAsJsonArray("routes");
+    assertEquals(2, routes.size());
+    assertEquals(20, routes.get(0).getAsJsonObject().get("id").getAsInt());
+    JsonArray inboundStops = routes.get(1).getAsJsonObject().getAsJsonArray("stops");
+    assertEquals(2, inboundStops.get(0).getAsInt());
+    assertEquals(1, inboundStops.get(1).getAsInt());
+  }
+
+  /**
+   * Tests that stop counts follow the topology order.
+   */
+  @Test
+  public void testGetStopCountsJson() {
+    stop3.addPassengers(new Passenger(1, "Goldy"));
+    stop3.addPassengers(new Passenger(1, "Gopher"));
+    stop2.addPassengers(new Passenger(2, "Coach"));
+    JsonObject data = topology.getStopCountsJson();
+    assertEquals("updateStopCounts", data.get("command").getAsString());
+    JsonArray counts = data.getAsJsonArray("counts");
+    assertEquals(0, counts.get(0).getAsInt());
+    assertEquals(1, counts.get(1).getAsInt());
+    assertEquals(2, counts.get(2).getAsInt());
+  }
+}
@@ -0,0 +1,198 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SharedSimulationTest {
+
+  private SharedSimulation sharedSimulation;
+
+  /**
+   * Session that records the messages sent to it.
+   */
+  private static class RecordingSession extends WebServerSession {
+    private List<String> texts = new ArrayList<>();
+    private List<ByteBuffer> frames = new ArrayList<>();
+    private List<JsonObject> messages = new ArrayList<>();
+    private boolean binary;
+
+    RecordingSession(boolean binary) {
+      this.binary = binary;
+    }
+
+    @Override
+    public void sendText(String message) {
+      texts.add(message);
+    }
+
+    @Override
+    public void sendBinary(ByteBuffer message) {
+      frames.add(message);
+    }
+
+    @Override
+    public void sendJson(JsonObject message) {
+      messages.add(message);
+    }
+
+    @Override
+    public boolean isBinaryProtocol() {
+      return binary;
+    }
+  }
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    VisualTransitSimulator simulator =
+        new VisualTransitSimulator("src/main/resources/config.txt");
+    sharedSimulation = new SharedSimulation("campus", simulator);
+    simulator.setVehicleFactories(0);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(1);
+    vehicleStartTimings.add(2);
+    simulator.start(vehicleStartTimings, 10);
+  }
+
+  /**
+   * Test that every viewer receives the same message, encoded once per step.
+   */
+  @Test
+  public void testBroadcast() {
+    RecordingSession viewer1 = new RecordingSession(false);
+    RecordingSession viewer2 = new RecordingSession(false);
+    sharedSimulation.attach(viewer1);
+    sharedSimulation.getSimulator().update();
+    sharedSimulation.attach(viewer2);
+    sharedSimulation.getSimulator().update();
+    assertEquals(2, sharedSimulation.getNumViewers());
+    assertEquals(2, sharedSimulation.getBroadcastCount());
+
+    assertEquals(3, viewer1.texts.size());
+    assertEquals(2, viewer2.texts.size());
+    assertSame(viewer1.texts.get(2), viewer2.texts.get(1));
+
+    // the full state of the late viewer is the base of the next broadcast
+    JsonObject joined = JsonParser.parseString(viewer2.texts.get(0)).getAsJsonObject();
+    JsonObject next = JsonParser.parseString(viewer2.texts.get(1)).getAsJsonObject();
+    assertEquals("updateState", joined.get("command").getAsString());
+    assertTrue(joined.getAsJsonObject("vehicles").get("full").getAsBoolean());
+    assertEquals(1, joined.get("timeStep").getAsInt());
+    assertFalse(next.getAsJsonObject("vehicles").get("full").getAsBoolean());
+    assertEquals(joined.getAsJsonObject("vehicles").get("version").getAsLong(),
+        next.getAsJsonObject("vehicles").get("baseVersion").getAsLong());
+  }
+
+  /**
+   * Test that binary viewers share one encoded frame.
+   */
+  @Test
+  public void testBroadcastBinary() {
+    RecordingSession viewer1 = new RecordingSession(true);
+    RecordingSession viewer2 = new RecordingSession(true);
+    sharedSimulation.attach(viewer1);
+    sharedSimulation.attach(viewer2);
+    sharedSimulation.getSimulator().update();
+    assertEquals(2, viewer1.frames.size());
+    ByteBuffer frame1 = viewer1.frames.get(1);
+    ByteBuffer frame2 = viewer2.frames.get(1);
+    assertEquals(frame1, frame2);
+    assertEquals(BinaryStateEncoder.STATE_FRAME, frame1.get(0));
+    assertEquals(0, viewer1.texts.size());
+  }
+
+  /**
+   * Test that detached viewers no longer receive messages.
+   */
+  @Test
+  public void testDetach() {
+    RecordingSession viewer1 = new RecordingSession(false);
+    RecordingSession viewer2 = new RecordingSession(false);
+    sharedSimulation.attach(viewer1);
+    sharedSimulation.attach(viewer2);
+    assertFalse(sharedSimulation.detach(viewer1));
+    sharedSimulation.getSimulator().update();
+    assertEquals(1, viewer1.texts.size());
+    assertEquals(2, viewer2.texts.size());
+    assertTrue(sharedSimulation.detach(viewer2));
+    sharedSimulation.getSimulator().update();
+    assertEquals(1, sharedSimulation.getBroadcastCount());
+  }
+
+  /**
+   * Test that a new viewer receives the lines once and can ask for them again.
+   */
+  @Test
+  public void testAttachSendsLines() {
+    RecordingSession viewer = new RecordingSession(false);
+    sharedSimulation.attach(viewer);
+    sharedSimulation.attach(viewer);
+    assertEquals(1, viewer.messages.size());
+    assertEquals("initLines", viewer.messages.get(0).get("command").getAsString());
+    assertEquals(2, viewer.messages.get(0).get("numLines").getAsInt());
+    assertTrue(viewer.messages.get(0).has("topology"));
+    sharedSimulation.execute(viewer, "initLines", new JsonObject());
+    assertEquals(2, viewer.messages.size());
+  }
+
+  /**
+   * Test that each viewer receives the information of the vehicle it observes.
+   */
+  @Test
+  public void testRegisterVehicle() {
+    RecordingSession viewer1 = new RecordingSession(false);
+    RecordingSession viewer2 = new RecordingSession(false);
+    sharedSimulation.attach(viewer1);
+    sharedSimulation.attach(viewer2);
+    sharedSimulation.getSimulator().update();
+    int vehicleId = sharedSimulation.getSimulator().getActiveVehicles().get(0).getId();
+    JsonObject command = new JsonObject();
+    command.addProperty("id", vehicleId);
+    sharedSimulation.execute(viewer1, "registerVehicle", command);
+    viewer1.messages.clear();
+    viewer2.messages.clear();
+    sharedSimulation.getSimulator().update();
+    assertEquals(0, viewer2.messages.size());
+    assertTrue(viewer1.messages.size() > 0);
+    JsonObject observed = viewer1.messages.get(0);
+    assertEquals("observedVehicle", observed.get("command").getAsString());
+    assertTrue(observed.get("text").getAsString().startsWith(String.valueOf(vehicleId)));
+
+    sharedSimulation.detach(viewer1);
+    viewer1.messages.clear();
+    sharedSimulation.getSimulator().update();
+    assertEquals(0, viewer1.messages.size());
+  }
+
+  /**
+   * Test that commands controlling the clock are ignored.
+   */
+  @Test
+  public void testIgnoredCommands() {
+    RecordingSession viewer = new RecordingSession(false);
+    sharedSimulation.attach(viewer);
+    sharedSimulation.execute(viewer, "pause", new JsonObject());
+    sharedSimulation.execute(viewer, "getVehicles", new JsonObject());
+    assertEquals(1, viewer.messages.size());
+    assertEquals(1, viewer.texts.size());
+  }
+}
@@ -0,0 +1,179 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import model.VehicleInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SimulationRegistryTest {
+
+  private SimulationRegistry registry;
+  private List<Integer> vehicleStartTimings;
+
+  /**
+   * Session that ignores the messages sent to it.
+   */
+  private static class SilentSession extends WebServerSession {
+    @Override
+    public void sendText(String message) {
+    }
+
+    @Override
+    public void sendJson(JsonObject message) {
+    }
+  }
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    registry = new SimulationRegistry();
+    vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(1);
+    vehicleStartTimings.add(2);
+  }
+
+  /**
+   * Test that viewers of a name share one simulation that is removed with its
+   * last viewer.
+   */
+  @Test
+  public void testAttachAndDetach() {
+    WebServerSession viewer1 = new SilentSession();
+    WebServerSession viewer2 = new SilentSession();
+    // one step every 1000 seconds, the test never waits for one
+    SharedSimulation first = registry.attach("campus", "src/main/resources/config.txt",
+        vehicleStartTimings, 10, 0.001, viewer1);
+    SharedSimulation second = registry.attach("campus", "src/main/resources/config.txt",
+        vehicleStartTimings, 10, 0.001, viewer2);
+    assertSame(first, second);
+    assertEquals(2, first.getNumViewers());
+    assertTrue(first.isRunning());
+    assertEquals(1, registry.getNames().size());
+    assertSame(first, registry.get("campus"));
+
+    registry.detach(first, viewer1);
+    assertSame(first, registry.get("campus"));
+    registry.detach(first, viewer2);
+    assertNull(registry.get("campus"));
+    assertEquals(false, first.isRunning());
+  }
+
+  /**
+   * Test the attach command.
+   */
+  @Test
+  public void testAttachCommand() {
+    WebServerSession viewer = new SilentSession();
+    AttachCommand attachCommand = new AttachCommand(registry, "src/main/resources/config.txt");
+    JsonObject command = new JsonObject();
+    command.addProperty("command", "attach");
+    command.addProperty("name", "downtown");
+    command.addProperty("numTimeSteps", 10);
+    command.addProperty("ticksPerSecond", 0.001);
+    attachCommand.execute(viewer, command);
+    assertSame(registry.get("downtown"), attachCommand.getAttached());
+
+    command.addProperty("name", "campus");
+    attachCommand.execute(viewer, command);
+    assertNull(registry.get("downtown"));
+    assertEquals(1, registry.get("campus").getNumViewers());
+
+    JsonObject detach = new JsonObject();
+    detach.addProperty("command", "attach");
+    detach.addProperty("enabled", false);
+    attachCommand.execute(viewer, detach);
+    assertNull(attachCommand.getAttached());
+    assertNull(registry.get("campus"));
+  }
+
+  /**
+   * Test that the first viewer of a free running simulation receives every
+   * step, so the vehicles it shows match the simulation when it finishes.
+   */
+  @Test
+  public void testFirstViewerReceivesEveryStep() throws InterruptedException {
+    List<String> texts = Collections.synchronizedList(new ArrayList<String>());
+    WebServerSession viewer = new SilentSession() {
+      @Override
+      public void sendText(String message) {
+        texts.add(message);
+      }
+    };
+    SharedSimulation sharedSimulation = registry.attach("campus",
+        "src/main/resources/config.txt", vehicleStartTimings, 60, 0, viewer);
+    long deadline = System.currentTimeMillis() + 5000;
+    while (sharedSimulation.isRunning() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    Set<Integer> shown = new HashSet<Integer>();
+    synchronized (texts) {
+      assertEquals(61, texts.size());
+      for (String text : texts) {
+        JsonObject delta = JsonParser.parseString(text).getAsJsonObject()
+            .getAsJsonObject("vehicles");
+        if (delta.get("full").getAsBoolean()) {
+          shown.clear();
+        }
+        for (JsonElement removed : delta.getAsJsonArray("removed")) {
+          shown.remove(removed.getAsInt());
+        }
+        for (JsonElement vehicle : delta.getAsJsonArray("vehicles")) {
+          shown.add(vehicle.getAsJsonObject().get("id").getAsInt());
+        }
+      }
+    }
+    Set<Integer> active = new HashSet<Integer>();
+    for (VehicleInterface vehicle : sharedSimulation.getSimulator().getActiveVehicles()) {
+      active.add(vehicle.getId());
+    }
+    assertEquals(active, shown);
+    registry.detach(sharedSimulation, viewer);
+  }
+
+  /**
+   * Test that an attach without time steps is rejected and that lines without
+   * a time between vehicles use the default.
+   */
+  @Test
+  public void testAttachCommandDefaults() {
+    WebServerSession viewer = new SilentSession();
+    AttachCommand attachCommand = new AttachCommand(registry, "src/main/resources/config.txt");
+    JsonObject command = new JsonObject();
+    command.addProperty("command", "attach");
+    command.addProperty("name", "downtown");
+    command.addProperty("ticksPerSecond", 0.001);
+    assertThrows(IllegalArgumentException.class, () -> attachCommand.execute(viewer, command));
+    assertNull(registry.get("downtown"));
+
+    command.addProperty("numTimeSteps", 20);
+    attachCommand.execute(viewer, command);
+    VisualTransitSimulator simulator = registry.get("downtown").getSimulator();
+    for (int i = 0; i < BatchRunner.DEFAULT_TIME_BETWEEN_VEHICLES + 1; i++) {
+      simulator.update();
+    }
+    assertTrue(simulator.getActiveVehicles().size() > 0);
+    attachCommand.detach(viewer);
+  }
+}
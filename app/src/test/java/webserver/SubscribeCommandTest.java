@@ -0,0 +1,130 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.gson.JsonObject;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+public class SubscribeCommandTest {
+
+  private VisualTransitSimulator simulator;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    simulator = new VisualTransitSimulator("src/main/resources/config.txt",
+        mock(WebServerSession.class));
+    simulator.setVerbose(false);
+    simulator.setVehicleFactories(0);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(1);
+    vehicleStartTimings.add(2);
+    simulator.start(vehicleStartTimings, 10);
+  }
+
+  /**
+   * Test that subscribing sends the full state and every step pushes a delta.
+   */
+  @Test
+  public void testSubscribeExecute() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doNothing().when(webServerSessionSpy).sendJson(Mockito.isA(JsonObject.class));
+    SubscribeCommand subscribeCommand = new SubscribeCommand(simulator);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "subscribe");
+    subscribeCommand.execute(webServerSessionSpy, commandFromClient);
+    assertTrue(subscribeCommand.isSubscribed());
+
+    simulator.update();
+    simulator.update();
+
+    ArgumentCaptor<JsonObject> messageCaptor = ArgumentCaptor.forClass(JsonObject.class);
+    verify(webServerSessionSpy, times(3)).sendJson(messageCaptor.capture());
+    List<JsonObject> messages = messageCaptor.getAllValues();
+
+    JsonObject first = messages.get(0);
+    assertEquals("updateState", first.get("command").getAsString());
+    assertEquals(0, first.get("timeStep").getAsInt());
+    assertTrue(first.getAsJsonObject("vehicles").get("full").getAsBoolean());
+    assertEquals(new RouteTopology(simulator.getLines()).getNumStops(),
+        first.getAsJsonArray("stopCounts").size());
+
+    JsonObject second = messages.get(1);
+    assertEquals(1, second.get("timeStep").getAsInt());
+    assertFalse(second.getAsJsonObject("vehicles").get("full").getAsBoolean());
+    assertEquals(first.getAsJsonObject("vehicles").get("version").getAsLong(),
+        second.getAsJsonObject("vehicles").get("baseVersion").getAsLong());
+    assertEquals(2, messages.get(2).get("timeStep").getAsInt());
+  }
+
+  /**
+   * Test that an unsubscribed client no longer receives pushed states.
+   */
+  @Test
+  public void testUnsubscribe() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doNothing().when(webServerSessionSpy).sendJson(Mockito.isA(JsonObject.class));
+    SubscribeCommand subscribeCommand = new SubscribeCommand(simulator);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "subscribe");
+    subscribeCommand.execute(webServerSessionSpy, commandFromClient);
+
+    JsonObject unsubscribe = new JsonObject();
+    unsubscribe.addProperty("command", "subscribe");
+    unsubscribe.addProperty("enabled", false);
+    subscribeCommand.execute(webServerSessionSpy, unsubscribe);
+    assertFalse(subscribeCommand.isSubscribed());
+
+    simulator.update();
+    verify(webServerSessionSpy, times(1)).sendJson(Mockito.isA(JsonObject.class));
+  }
+
+  /**
+   * Test that sessions using the binary subprotocol receive binary frames.
+   */
+  @Test
+  public void testSubscribeExecuteBinary() {
+    WebServerSession webServerSessionSpy = spy(WebServerSession.class);
+    doReturn(true).when(webServerSessionSpy).isBinaryProtocol();
+    doNothing().when(webServerSessionSpy).sendBinary(Mockito.isA(ByteBuffer.class));
+    SubscribeCommand subscribeCommand = new SubscribeCommand(simulator);
+
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("command", "subscribe");
+    subscribeCommand.execute(webServerSessionSpy, commandFromClient);
+    simulator.update();
+
+    ArgumentCaptor<ByteBuffer> frameCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(webServerSessionSpy, times(2)).sendBinary(frameCaptor.capture());
+    verify(webServerSessionSpy, never()).sendJson(Mockito.any());
+    ByteBuffer frame = frameCaptor.getValue();
+    assertEquals(BinaryStateEncoder.STATE_FRAME, frame.get(0));
+    assertEquals(1, frame.getInt(2));
+  }
+}
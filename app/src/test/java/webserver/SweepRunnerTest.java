@@ -0,0 +1,153 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.List;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SweepRunnerTest {
+
+  private static final String CONFIG_FILE = "src/main/resources/config.txt";
+
+  /**
+   * Setup seeded operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = false;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = false;
+  }
+
+  /**
+   * Test the values of ranges and of parsed sweep values.
+   */
+  @Test
+  public void testRangeAndParseValues() {
+    assertArrayEquals(new int[] {5, 10, 15, 20}, SweepRunner.range(5, 22, 5));
+    assertArrayEquals(new int[] {3}, SweepRunner.range(3, 3, 1));
+    assertThrows(IllegalArgumentException.class, () -> SweepRunner.range(5, 1, 1));
+    assertArrayEquals(new int[] {1, 2, 3, 10, 20, 30},
+        SweepRunner.parseValues("1-3,10-30/10"));
+    assertArrayEquals(new int[] {7}, SweepRunner.parseValues("7"));
+  }
+
+  /**
+   * Test that combinations vary the last value fastest.
+   */
+  @Test
+  public void testCombine() {
+    List<int[]> combinations = SweepRunner.combine(Arrays.asList(new int[] {1, 2},
+        new int[] {3}, new int[] {4, 5}));
+    assertEquals(4, combinations.size());
+    assertArrayEquals(new int[] {1, 3, 4}, combinations.get(0));
+    assertArrayEquals(new int[] {1, 3, 5}, combinations.get(1));
+    assertArrayEquals(new int[] {2, 3, 4}, combinations.get(2));
+    assertArrayEquals(new int[] {2, 3, 5}, combinations.get(3));
+  }
+
+  /**
+   * Test that pruned configurations have the results they would have had if
+   * they were run.
+   */
+  @Test
+  public void testPrunedResultsMatchRuns() {
+    SweepRunner sweepRunner = new SweepRunner(CONFIG_FILE);
+    sweepRunner.setStartHour(10);
+    sweepRunner.setSeed(42L);
+    sweepRunner.setHeadways(0, 5, 15);
+    sweepRunner.setFleetSizes(SweepRunner.SMALL_BUSES, 1, 50, 100);
+    sweepRunner.setFleetSizes(SweepRunner.LARGE_BUSES, 50, 100);
+    SweepReport sweepReport = sweepRunner.run(60, SweepRunner.OBJECTIVE_WAIT_TIME);
+    List<SweepResult> results = sweepReport.getRankedResults();
+    assertEquals(12, results.size());
+    assertTrue(sweepReport.getNumEvaluated() < results.size());
+    for (SweepResult result : results) {
+      if (result.getPrunedBy() >= 0) {
+        SweepResult run = sweepRunner.runConfiguration(result.getIndex(),
+            result.getHeadways(), result.getFleetSizes(), 60);
+        assertEquals(run.getSummary().getPassengersGenerated(),
+            result.getSummary().getPassengersGenerated());
+        assertEquals(run.getSummary().getMeanWaitTime(), result.getSummary().getMeanWaitTime());
+        assertEquals(run.getSummary().getMeanLoad(), result.getSummary().getMeanLoad());
+        assertEquals(run.getSummary().getTotalCO2Emission(),
+            result.getSummary().getTotalCO2Emission());
+      }
+    }
+  }
+
+  /**
+   * Test that results are ranked by the objective and that the Pareto
+   * optimal results are not dominated.
+   */
+  @Test
+  public void testRankingAndParetoOptimal() {
+    SweepRunner sweepRunner = new SweepRunner(CONFIG_FILE);
+    sweepRunner.setStartHour(10);
+    sweepRunner.setSeed(7L);
+    sweepRunner.setParallelism(2);
+    sweepRunner.setHeadways(0, 5, 10, 20);
+    sweepRunner.setHeadways(1, 5, 20);
+    SweepReport sweepReport = sweepRunner.run(60, SweepRunner.OBJECTIVE_CO2_EMISSION);
+    List<SweepResult> results = sweepReport.getRankedResults();
+    assertEquals(6, results.size());
+    for (int i = 1; i < results.size(); i++) {
+      assertTrue(results.get(i - 1).getSummary().getTotalCO2Emission()
+          <= results.get(i).getSummary().getTotalCO2Emission());
+    }
+    assertTrue(results.get(0).isParetoOptimal());
+    for (SweepResult result : results) {
+      boolean dominated = false;
+      for (SweepResult other : results) {
+        dominated |= other.dominates(result);
+      }
+      assertEquals(!dominated, result.isParetoOptimal());
+    }
+  }
+
+  /**
+   * Test that an unknown objective is rejected.
+   */
+  @Test
+  public void testUnknownObjective() {
+    SweepRunner sweepRunner = new SweepRunner(CONFIG_FILE);
+    assertThrows(IllegalArgumentException.class, () -> sweepRunner.run(10, "speed"));
+  }
+
+  /**
+   * Test the report and the results table.
+   */
+  @Test
+  public void testReportAndTable() {
+    SweepRunner sweepRunner = new SweepRunner(CONFIG_FILE);
+    sweepRunner.setStartHour(10);
+    sweepRunner.setSeed(3L);
+    sweepRunner.setHeadways(0, 5, 10);
+    SweepReport sweepReport = sweepRunner.run(30, SweepRunner.OBJECTIVE_LOAD);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(outputStream);
+    sweepReport.report(out);
+    out.flush();
+    String report = outputStream.toString();
+    assertTrue(report.startsWith("####Sweep Run Info Start####"));
+    assertTrue(report.contains("Configurations: 2"));
+    assertTrue(report.contains("####Sweep Run Info End####"));
+    outputStream.reset();
+    sweepReport.writeTable(out);
+    out.flush();
+    String[] rows = outputStream.toString().split("\\R");
+    assertEquals(3, rows.length);
+    assertTrue(rows[0].startsWith("rank,configuration,headway_0,headway_1,small_buses"));
+    assertTrue(rows[1].startsWith("1,"));
+  }
+}
@@ -0,0 +1,166 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import model.PassengerFactory;
+import model.RandomPassengerGenerator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TickSchedulerTest {
+
+  private VisualTransitSimulator simulator;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+    simulator = new VisualTransitSimulator("src/main/resources/config.txt");
+    simulator.setVerbose(false);
+    simulator.setVehicleFactories(10);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(2);
+    vehicleStartTimings.add(3);
+    simulator.start(vehicleStartTimings, 30);
+  }
+
+  /**
+   * Waits until the scheduler stops or the timeout expires.
+   */
+  private void awaitStopped(TickScheduler tickScheduler) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (tickScheduler.isRunning() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+  }
+
+  /**
+   * Tests that an unthrottled scheduler runs all time steps and then stops.
+   */
+  @Test
+  public void testRunAsFastAsPossible() throws InterruptedException {
+    TickScheduler tickScheduler = new TickScheduler(simulator);
+    tickScheduler.start(0);
+    awaitStopped(tickScheduler);
+    assertFalse(tickScheduler.isRunning());
+    assertEquals(30, simulator.getSimulationTimeElapsed());
+    assertTrue(simulator.isFinished());
+  }
+
+  /**
+   * Tests that a fixed rate scheduler runs all time steps and then stops.
+   */
+  @Test
+  public void testRunAtFixedRate() throws InterruptedException {
+    TickScheduler tickScheduler = new TickScheduler(simulator);
+    tickScheduler.start(1000);
+    assertEquals(1000.0, tickScheduler.getTicksPerSecond());
+    awaitStopped(tickScheduler);
+    assertEquals(30, simulator.getSimulationTimeElapsed());
+  }
+
+  /**
+   * Tests that no updates happen while the scheduler is paused.
+   */
+  @Test
+  public void testPause() throws InterruptedException {
+    TickScheduler tickScheduler = new TickScheduler(simulator);
+    tickScheduler.start(1);
+    tickScheduler.setPaused(true);
+    assertTrue(tickScheduler.isPaused());
+    Thread.sleep(50);
+    assertEquals(0, simulator.getSimulationTimeElapsed());
+    tickScheduler.setPaused(false);
+    assertFalse(tickScheduler.isPaused());
+    tickScheduler.stop();
+    assertFalse(tickScheduler.isRunning());
+  }
+
+  /**
+   * Tests that the start command hands the clock to the scheduler and that
+   * client update commands are ignored while it runs.
+   */
+  @Test
+  public void testStartCommandWithTicksPerSecond() throws InterruptedException {
+    TickScheduler tickScheduler = new TickScheduler(simulator);
+    StartCommand startCommand = new StartCommand(simulator, tickScheduler);
+    JsonObject commandFromClient = new JsonObject();
+    commandFromClient.addProperty("numTimeSteps", 20);
+    JsonArray timeBetweenVehicles = new JsonArray();
+    timeBetweenVehicles.add(2);
+    timeBetweenVehicles.add(3);
+    commandFromClient.add("timeBetweenVehicles", timeBetweenVehicles);
+    commandFromClient.addProperty("ticksPerSecond", 0.5);
+    startCommand.execute(null, commandFromClient);
+    assertTrue(tickScheduler.isRunning());
+    new UpdateCommand(simulator, tickScheduler).execute(null, new JsonObject());
+    assertEquals(0, simulator.getSimulationTimeElapsed());
+    PauseCommand pauseCommand = new PauseCommand(simulator, tickScheduler);
+    pauseCommand.execute(null, new JsonObject());
+    assertTrue(tickScheduler.isPaused());
+    pauseCommand.execute(null, new JsonObject());
+    assertFalse(tickScheduler.isPaused());
+    tickScheduler.stop();
+    new UpdateCommand(simulator, tickScheduler).execute(null, new JsonObject());
+    assertEquals(1, simulator.getSimulationTimeElapsed());
+  }
+
+  /**
+   * Tests that restarting a free running scheduler leaves a single loop
+   * advancing the clock.
+   */
+  @Test
+  public void testRestartRunsOneLoop() throws InterruptedException {
+    Set<Thread> updatingThreads = new HashSet<Thread>();
+    VisualTransitSimulator recordingSimulator =
+        new VisualTransitSimulator("src/main/resources/config.txt") {
+          @Override
+          public void update() {
+            updatingThreads.add(Thread.currentThread());
+            super.update();
+          }
+        };
+    recordingSimulator.setVerbose(false);
+    recordingSimulator.setVehicleFactories(10);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(2);
+    vehicleStartTimings.add(3);
+    recordingSimulator.start(vehicleStartTimings, Integer.MAX_VALUE);
+    TickScheduler tickScheduler = new TickScheduler(recordingSimulator);
+    tickScheduler.start(0);
+    Thread.sleep(20);
+    tickScheduler.start(0);
+    synchronized (recordingSimulator) {
+      updatingThreads.clear();
+    }
+    Thread.sleep(50);
+    tickScheduler.setPaused(true);
+    synchronized (recordingSimulator) {
+      assertEquals(1, updatingThreads.size());
+      updatingThreads.clear();
+    }
+    tickScheduler.setPaused(false);
+    Thread.sleep(20);
+    tickScheduler.stop();
+    int elapsed;
+    synchronized (recordingSimulator) {
+      assertEquals(1, updatingThreads.size());
+      elapsed = recordingSimulator.getSimulationTimeElapsed();
+    }
+    Thread.sleep(20);
+    assertEquals(elapsed, recordingSimulator.getSimulationTimeElapsed());
+  }
+}
@@ -0,0 +1,141 @@
+package webserver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import model.ColorDecorator;
+import model.Issue;
+import model.Line;
+import model.Passenger;
+import model.PassengerFactory;
+import model.Position;
+import model.RandomPassengerGenerator;
+import model.Route;
+import model.SmallBus;
+import model.Stop;
+import model.VehicleInterface;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VehicleDeltaEncoderTest {
+
+  private VehicleDeltaEncoder encoder;
+  private List<VehicleInterface> vehicles;
+
+  /**
+   * Setup deterministic operations before each test runs.
+   */
+  @BeforeEach
+  public void setUp() {
+    PassengerFactory.DETERMINISTIC = true;
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    RandomPassengerGenerator.DETERMINISTIC = true;
+
+    List<Stop> stops = new ArrayList<>();
+    stops.add(new Stop(0, "s1", new Position(0, 0)));
+    stops.add(new Stop(1, "s2", new Position(1, 1)));
+    List<Double> distances = new ArrayList<>();
+    distances.add(1.0);
+    List<Double> probabilities = new ArrayList<>();
+    probabilities.add(0.1);
+    Route route1 = new Route(1, "R1", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Route route2 = new Route(2, "R2", stops, distances,
+        new RandomPassengerGenerator(stops, probabilities));
+    Line line = new Line(10, "L1", Line.BUS_LINE, route1, route2, new Issue());
+
+    vehicles = new ArrayList<>();
+    vehicles.add(new ColorDecorator(new SmallBus(1, line, 10, 1.0)));
+    vehicles.add(new ColorDecorator(new SmallBus(2, line, 10, 1.0)));
+    encoder = new VehicleDeltaEncoder();
+  }
+
+  /**
+   * Tests that a client without vehicles receives a full snapshot.
+   */
+  @Test
+  public void testFirstMessageIsFull() {
+    JsonObject message = encoder.encode(vehicles, -1);
+    assertEquals("updateVehiclesDelta", message.get("command").getAsString());
+    assertTrue(message.get("full").getAsBoolean());
+    assertEquals(1, message.get("version").getAsLong());
+    assertEquals(2, message.getAsJsonArray("vehicles").size());
+    assertEquals(0, message.getAsJsonArray("removed").size());
+    JsonObject vehicle = message.getAsJsonArray("vehicles").get(0).getAsJsonObject();
+    assertEquals(1, vehicle.get("id").getAsInt());
+    assertEquals(255, vehicle.getAsJsonObject("color").get("alpha").getAsInt());
+  }
+
+  /**
+   * Tests that nothing is sent again when nothing changed.
+   */
+  @Test
+  public void testUnchangedVehiclesAreNotSent() {
+    encoder.encode(vehicles, -1);
+    JsonObject message = encoder.encode(vehicles, 1);
+    assertFalse(message.get("full").getAsBoolean());
+    assertEquals(1, message.get("baseVersion").getAsLong());
+    assertEquals(1, message.get("version").getAsLong());
+    assertEquals(0, message.getAsJsonArray("vehicles").size());
+    assertEquals(0, message.getAsJsonArray("removed").size());
+  }
+
+  /**
+   * Tests that changed, added and removed vehicles are sent.
+   */
+  @Test
+  public void testChangedAndRemovedVehiclesAreSent() {
+    encoder.encode(vehicles, -1);
+    vehicles.get(0).loadPassenger(new Passenger(1, "Goldy"));
+    VehicleInterface removed = vehicles.remove(1);
+    vehicles.add(new ColorDecorator(new SmallBus(3, removed.getLine(), 10, 1.0)));
+
+    JsonObject message = encoder.encode(vehicles, 1);
+    assertFalse(message.get("full").getAsBoolean());
+    assertEquals(2, message.get("version").getAsLong());
+    JsonArray changed = message.getAsJsonArray("vehicles");
+    assertEquals(2, changed.size());
+    assertEquals(1, changed.get(0).getAsJsonObject().get("id").getAsInt());
+    assertEquals(1, changed.get(0).getAsJsonObject().get("numPassengers").getAsInt());
+    assertEquals(3, changed.get(1).getAsJsonObject().get("id").getAsInt());
+    assertEquals(1, message.getAsJsonArray("removed").size());
+    assertEquals(2, message.getAsJsonArray("removed").get(0).getAsInt());
+  }
+
+  /**
+   * Tests that a client with an unknown version receives a full snapshot.
+   */
+  @Test
+  public void testStaleVersionGetsFullSnapshot() {
+    encoder.encode(vehicles, -1);
+    encoder.encode(vehicles, 1);
+    JsonObject message = encoder.encode(vehicles, 7);
+    assertTrue(message.get("full").getAsBoolean());
+    assertEquals(2, message.getAsJsonArray("vehicles").size());
+  }
+
+  /**
+   * Tests that the diff lists the changed vehicles and removed ids.
+   */
+  @Test
+  public void testDiff() {
+    VehicleDelta first = encoder.diff(vehicles, -1);
+    assertTrue(first.isFull());
+    assertEquals(1, first.getVersion());
+    assertEquals(2, first.getChangedVehicles().size());
+
+    VehicleInterface removed = vehicles.remove(1);
+    VehicleDelta second = encoder.diff(vehicles, first.getVersion());
+    assertFalse(second.isFull());
+    assertEquals(1, second.getBaseVersion());
+    assertEquals(0, second.getChangedVehicles().size());
+    assertEquals(1, second.getRemovedIds().size());
+    assertEquals(removed.getId(), second.getRemovedIds().get(0));
+  }
+}
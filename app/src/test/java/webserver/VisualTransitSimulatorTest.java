@@ -1,6 +1,7 @@
 package webserver;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -9,7 +10,9 @@ import static org.mockito.Mockito.when;
 import model.Line;
 import model.PassengerFactory;
 import model.RandomPassengerGenerator;
+import model.Stop;
 import model.Vehicle;
+import model.VehicleInterface;
 import java.util.ArrayList;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
@@ -363,4 +366,117 @@ public class VisualTransitSimulatorTest {
     simulator.update();
     assertNotNull(simulator.getActiveVehicles());
   }
-}
\ No newline at end of file
+
+  /**
+   * Runs a simulation and records the observable state after every step.
+   */
+  private List<String> runAndRecord(int parallelism) {
+    return runAndRecord(parallelism, null);
+  }
+
+  private List<String> runAndRecord(int parallelism, Long seed) {
+    PassengerFactory.DETERMINISTIC_NAMES_COUNT = 0;
+    PassengerFactory.DETERMINISTIC_DESTINATION_COUNT = 0;
+    VisualTransitSimulator simulator = seed == null
+        ? new VisualTransitSimulator("src/main/resources/config.txt")
+        : new VisualTransitSimulator("src/main/resources/config.txt", null, seed);
+    simulator.setVerbose(false);
+    simulator.setParallelism(parallelism);
+    simulator.setVehicleFactories(10);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(1);
+    vehicleStartTimings.add(2);
+    simulator.start(vehicleStartTimings, 60);
+    List<String> states = new ArrayList<String>();
+    for (int i = 0; i < 60; i++) {
+      simulator.update();
+      StringBuilder state = new StringBuilder();
+      for (VehicleInterface vehicle : simulator.getActiveVehicles()) {
+        state.append(vehicle.getId()).append(':')
+            .append(vehicle.getPosition().getLongitude()).append(',')
+            .append(vehicle.getPosition().getLatitude()).append(',')
+            .append(vehicle.getPassengers().size()).append(';');
+      }
+      for (Line line : simulator.getLines()) {
+        for (Stop stop : line.getOutboundRoute().getStops()) {
+          state.append(stop.getPassengers().size()).append(';');
+        }
+        for (Stop stop : line.getInboundRoute().getStops()) {
+          state.append(stop.getPassengers().size()).append(';');
+        }
+      }
+      states.add(state.toString());
+    }
+    simulator.setParallelism(1);
+    return states;
+  }
+
+  /**
+   * Test that the parallel engine produces the same states as the serial engine.
+   */
+  @Test
+  public void testParallelUpdateMatchesSerialUpdate() {
+    List<String> serialStates = runAndRecord(1);
+    List<String> parallelStates = runAndRecord(4);
+    assertEquals(serialStates, parallelStates);
+  }
+
+  /**
+   * Test that seeded simulations are reproducible, serially and in parallel.
+   */
+  @Test
+  public void testSeededUpdateIsReproducible() {
+    PassengerFactory.DETERMINISTIC = false;
+    RandomPassengerGenerator.DETERMINISTIC = false;
+    List<String> serialStates = runAndRecord(1, 7L);
+    assertEquals(serialStates, runAndRecord(1, 7L));
+    assertEquals(serialStates, runAndRecord(4, 7L));
+    assertNotEquals(serialStates, runAndRecord(1, 8L));
+  }
+
+  /**
+   * Test setParallelism.
+   */
+  @Test
+  public void testSetParallelism() {
+    VisualTransitSimulator simulator = new VisualTransitSimulator(
+        "src/main/resources/config.txt");
+    assertEquals(1, simulator.getParallelism());
+    simulator.setParallelism(3);
+    assertEquals(3, simulator.getParallelism());
+    simulator.setParallelism(1);
+    assertEquals(1, simulator.getParallelism());
+  }
+
+  /**
+   * Test that tick listeners are notified once per completed time step.
+   */
+  @Test
+  public void testTickListener() {
+    WebServerSession sessionDummy = mock(WebServerSession.class);
+    VisualTransitSimulator simulator = new VisualTransitSimulator(
+        "src/main/resources/config.txt", sessionDummy);
+    simulator.setVerbose(false);
+    simulator.setVehicleFactories(0);
+    List<Integer> vehicleStartTimings = new ArrayList<Integer>();
+    vehicleStartTimings.add(1);
+    vehicleStartTimings.add(2);
+    simulator.start(vehicleStartTimings, 2);
+
+    List<Integer> notifiedSteps = new ArrayList<Integer>();
+    TickListener listener = sim -> notifiedSteps.add(sim.getSimulationTimeElapsed());
+    simulator.addTickListener(listener);
+    simulator.addTickListener(listener);
+    simulator.update();
+    simulator.update();
+    simulator.update();
+    assertEquals(2, notifiedSteps.size());
+    assertEquals(1, notifiedSteps.get(0));
+    assertEquals(2, notifiedSteps.get(1));
+
+    simulator.removeTickListener(listener);
+    simulator.start(vehicleStartTimings, 2);
+    simulator.update();
+    assertEquals(2, notifiedSteps.size());
+  }
+}